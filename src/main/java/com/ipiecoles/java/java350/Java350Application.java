@@ -2,12 +2,28 @@ package com.ipiecoles.java.java350;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.time.Clock;
 
 @SpringBootApplication
+@EnableCaching
+@EnableScheduling
 public class Java350Application {
 
     public static void main(String[] args) {
         SpringApplication.run(Java350Application.class, args);
     }
 
+    /**
+     * Horloge des dates d'embauche et des calculs à la date du jour, à remplacer pour évaluer les droits
+     * des employés à une autre date
+     */
+    @Bean
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,131 @@
+package com.ipiecoles.java.java350.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Vérification au démarrage de la configuration du pool de connexions et des lots JDBC (cf. application-prod.properties).
+ * Sans ces réglages, les embauches et calculs de performance groupés envoient une requête par employé, et
+ * sans useCursorFetch, le driver MySQL ignore le fetch size et charge en mémoire tout le résultat des lectures
+ * au fil de l'eau (export, instantané de l'effectif). Le démarrage échoue plutôt que de laisser l'application
+ * tourner avec des performances dégradées.
+ * Activée par java350.jdbc.validation.
+ */
+@Component
+@ConditionalOnProperty(name = "java350.jdbc.validation", havingValue = "true")
+public class ValidationConfigurationJdbc {
+    private Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Value("${java350.revue.parallelisme:4}")
+    private int parallelismeRevue = 4;
+
+    @PostConstruct
+    public void valider() {
+        List<String> anomalies = anomalies();
+        if(!anomalies.isEmpty()){
+            anomalies.forEach(anomalie -> logger.error("Configuration JDBC : {}", anomalie));
+            throw new IllegalStateException("Configuration JDBC invalide : " + String.join(" ; ", anomalies));
+        }
+        logger.info("Configuration JDBC validée");
+    }
+
+    /**
+     * Méthode contrôlant la configuration du pool de connexions et de Hibernate
+     *
+     * @return la description de chaque réglage manquant ou incorrect, liste vide si la configuration est correcte
+     */
+    public List<String> anomalies() {
+        List<String> anomalies = new ArrayList<>();
+
+        HikariDataSource hikari = hikari();
+        if(hikari == null){
+            anomalies.add("le pool de connexions n'est pas Hikari");
+        }
+        else {
+            if(hikari.getMaximumPoolSize() < parallelismeRevue){
+                anomalies.add("spring.datasource.hikari.maximum-pool-size (" + hikari.getMaximumPoolSize()
+                        + ") inférieur à java350.revue.parallelisme (" + parallelismeRevue + ")");
+            }
+            verifierProprieteConnexion(hikari, "rewriteBatchedStatements", "true", anomalies);
+            verifierProprieteConnexion(hikari, "cachePrepStmts", "true", anomalies);
+            verifierProprieteConnexion(hikari, "useCursorFetch", "true", anomalies);
+            String tailleCache = proprieteConnexion(hikari, "prepStmtCacheSize");
+            if(entier(tailleCache) <= 0){
+                anomalies.add("propriété de connexion prepStmtCacheSize absente ou nulle");
+            }
+        }
+
+        Map<String, Object> hibernate = entityManagerFactory.getProperties();
+        if(entier(hibernate.get("hibernate.jdbc.batch_size")) <= 1){
+            anomalies.add("spring.jpa.properties.hibernate.jdbc.batch_size doit être supérieur à 1");
+        }
+        for(String propriete : new String[]{"hibernate.order_inserts", "hibernate.order_updates"}){
+            if(!"true".equalsIgnoreCase(String.valueOf(hibernate.get(propriete)))){
+                anomalies.add("spring.jpa.properties." + propriete + " doit valoir true");
+            }
+        }
+        return anomalies;
+    }
+
+    private HikariDataSource hikari() {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    private static void verifierProprieteConnexion(HikariDataSource hikari, String propriete, String attendue, List<String> anomalies) {
+        if(!attendue.equalsIgnoreCase(proprieteConnexion(hikari, propriete))){
+            anomalies.add("propriété de connexion " + propriete + " doit valoir " + attendue);
+        }
+    }
+
+    /**
+     * Une propriété de connexion est lue dans spring.datasource.hikari.data-source-properties, puis dans l'URL JDBC
+     */
+    private static String proprieteConnexion(HikariDataSource hikari, String propriete) {
+        Properties proprietes = hikari.getDataSourceProperties();
+        if(proprietes.getProperty(propriete) != null){
+            return proprietes.getProperty(propriete);
+        }
+        String url = hikari.getJdbcUrl();
+        int debutParametres = url == null ? -1 : url.indexOf('?');
+        if(debutParametres >= 0){
+            for(String parametre : url.substring(debutParametres + 1).split("&")){
+                if(parametre.startsWith(propriete + "=")){
+                    return parametre.substring(propriete.length() + 1);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static int entier(Object valeur) {
+        try {
+            return valeur == null ? 0 : Integer.parseInt(valeur.toString().trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.ipiecoles.java.java350.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Exécuteur des requêtes de l'API REST. Les threads du serveur HTTP ne font que recevoir les requêtes :
+ * le traitement est confié à un nombre borné de threads, les requêtes en attente à une file bornée.
+ * Une requête qui ne trouve pas de place dans la file est rejetée (503) au lieu d'attendre indéfiniment.
+ */
+@Configuration
+public class ConfigurationApi {
+    public static final String EXECUTEUR_API = "executeurApi";
+
+    @Bean(EXECUTEUR_API)
+    public ThreadPoolTaskExecutor executeurApi(@Value("${java350.api.threads:8}") int nbThreads,
+                                               @Value("${java350.api.file-attente:200}") int tailleFileAttente) {
+        ThreadPoolTaskExecutor executeur = new ThreadPoolTaskExecutor();
+        executeur.setCorePoolSize(nbThreads);
+        executeur.setMaxPoolSize(nbThreads);
+        executeur.setQueueCapacity(tailleFileAttente);
+        executeur.setThreadNamePrefix("api-");
+        executeur.setWaitForTasksToCompleteOnShutdown(true);
+        executeur.setAwaitTerminationSeconds(30);
+        return executeur;
+    }
+}
@@ -0,0 +1,143 @@
+package com.ipiecoles.java.java350.controller;
+
+import com.ipiecoles.java.java350.exception.EmployeException;
+import com.ipiecoles.java.java350.model.BilanCommercial;
+import com.ipiecoles.java.java350.model.DemandeEmbauche;
+import com.ipiecoles.java.java350.model.Employe;
+import com.ipiecoles.java.java350.model.EmployeResume;
+import com.ipiecoles.java.java350.model.RapportEmbauche;
+import com.ipiecoles.java.java350.model.RapportPerformance;
+import com.ipiecoles.java.java350.model.SituationEmploye;
+import com.ipiecoles.java.java350.repository.EmployeRepository;
+import com.ipiecoles.java.java350.service.EmployeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+/**
+ * API REST des employés. Chaque requête est traitée de manière asynchrone par l'exécuteur borné
+ * de {@link ConfigurationApi} ; les erreurs sont converties en codes HTTP par {@link GestionErreursApi}.
+ * <p>
+ * Au-delà de spring.mvc.async.request-timeout, l'API répond 503 (motif delai_depasse) et annule le traitement :
+ * un traitement encore en file d'attente n'est jamais exécuté, un traitement commencé est seulement interrompu
+ * et peut malgré tout aboutir. Sur une requête POST, ce 503 ne signifie donc pas que la requête n'a pas été appliquée :
+ * avant de la renvoyer, le client doit vérifier son effet (par exemple rechercher l'employé embauché).
+ */
+@RestController
+@RequestMapping("/employes")
+public class EmployeController {
+
+    @Autowired
+    private EmployeService employeService;
+
+    @Autowired
+    private EmployeRepository employeRepository;
+
+    @Autowired
+    @Qualifier(ConfigurationApi.EXECUTEUR_API)
+    private Executor executeurApi;
+
+    /**
+     * Embauche d'un employé : 201 avec l'URL de l'employé et son matricule
+     */
+    @PostMapping
+    public DeferredResult<ResponseEntity<Map<String, String>>> embaucher(@RequestBody DemandeEmbauche demande) {
+        return traiter(() -> {
+            String matricule = employeService.embaucheEmploye(demande.getNom(), demande.getPrenom(), demande.getPoste(),
+                    demande.getNiveauEtude(), demande.getTempsPartiel());
+            return ResponseEntity.created(URI.create("/employes/" + matricule)).body(Collections.singletonMap("matricule", matricule));
+        });
+    }
+
+    /**
+     * Embauche groupée : le rapport donne le matricule attribué ou le motif du rejet de chaque demande
+     */
+    @PostMapping("/lot")
+    public DeferredResult<RapportEmbauche> embaucherLot(@RequestBody List<DemandeEmbauche> demandes) {
+        return traiter(() -> employeService.embaucheEmployes(demandes));
+    }
+
+    @GetMapping("/{matricule}")
+    public DeferredResult<ResponseEntity<EmployeResume>> rechercher(@PathVariable String matricule) {
+        return traiter(() -> {
+            Employe employe = employeRepository.findByMatricule(matricule);
+            if(employe == null){
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(new EmployeResume(employe.getId(), employe.getMatricule(), employe.getNom(),
+                    employe.getPerformance(), employe.getSalaire()));
+        });
+    }
+
+    /**
+     * Ancienneté, congés, RTT et prime de l'employé à la date donnée (format ISO), à la date du jour par défaut
+     */
+    @GetMapping("/{matricule}/situation")
+    public DeferredResult<SituationEmploye> situation(@PathVariable String matricule,
+                                                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return traiter(() -> date == null ? employeService.situationEmploye(matricule) : employeService.situationEmploye(matricule, date));
+    }
+
+    /**
+     * Calcul de la performance d'un commercial : 204 une fois la performance sauvegardée
+     */
+    @PostMapping("/{matricule}/performance")
+    public DeferredResult<ResponseEntity<Void>> calculerPerformance(@PathVariable String matricule, @RequestParam Long caTraite,
+                                                                       @RequestParam Long objectifCa) {
+        return traiter(() -> {
+            employeService.calculPerformanceCommercial(matricule, caTraite, objectifCa);
+            return ResponseEntity.noContent().build();
+        });
+    }
+
+    /**
+     * Calcul en masse des performances : le rapport donne le nombre de commerciaux mis à jour et les bilans rejetés
+     */
+    @PostMapping("/performances")
+    public DeferredResult<RapportPerformance> calculerPerformances(@RequestBody List<BilanCommercial> bilans) {
+        return traiter(() -> employeService.calculPerformanceCommerciaux(bilans.stream()));
+    }
+
+    /**
+     * Soumission d'un traitement à l'exécuteur de l'API. Si sa file d'attente est pleine, l'exception de rejet
+     * est levée immédiatement, sans occuper le thread du serveur. Si le délai de la requête est dépassé ou si
+     * la requête échoue, le traitement est annulé : retiré de la file s'il n'a pas commencé, interrompu sinon.
+     */
+    private <T> DeferredResult<T> traiter(Traitement<T> traitement) {
+        DeferredResult<T> resultat = new DeferredResult<>();
+        FutureTask<Void> tache = new FutureTask<>(() -> {
+            try {
+                resultat.setResult(traitement.executer());
+            } catch (Exception e) {
+                resultat.setErrorResult(e);
+            }
+            return null;
+        });
+        resultat.onTimeout(() -> tache.cancel(true));
+        resultat.onError(e -> tache.cancel(true));
+        executeurApi.execute(tache);
+        return resultat;
+    }
+
+    @FunctionalInterface
+    private interface Traitement<T> {
+        T executer() throws EmployeException;
+    }
+}
@@ -0,0 +1,87 @@
+package com.ipiecoles.java.java350.controller;
+
+import com.ipiecoles.java.java350.exception.EmployeException;
+import com.ipiecoles.java.java350.service.EmployeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+
+import javax.persistence.EntityExistsException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Conversion des erreurs de l'API en codes HTTP, avec un corps {"motif": ..., "message": ...}.
+ * Le motif est celui de {@link EmployeException#getMotif()}.
+ */
+@RestControllerAdvice
+public class GestionErreursApi {
+    static final String MOTIF_SURCHARGE = "surcharge";
+    static final String MOTIF_DELAI_DEPASSE = "delai_depasse";
+
+    private Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    @ExceptionHandler(EmployeException.class)
+    public ResponseEntity<Map<String, String>> employeException(EmployeException e) {
+        HttpStatus statut;
+        switch (e.getMotif()) {
+            case EmployeService.MOTIF_MATRICULE_INCONNU:
+                statut = HttpStatus.NOT_FOUND;
+                break;
+            case EmployeService.MOTIF_MODIFICATION_CONCURRENTE:
+            case EmployeService.MOTIF_LIMITE_MATRICULES:
+                statut = HttpStatus.CONFLICT;
+                break;
+            default:
+                statut = HttpStatus.BAD_REQUEST;
+        }
+        return erreur(statut, e.getMotif(), e.getMessage());
+    }
+
+    @ExceptionHandler(EntityExistsException.class)
+    public ResponseEntity<Map<String, String>> entityExistsException(EntityExistsException e) {
+        return erreur(HttpStatus.CONFLICT, EmployeService.MOTIF_MATRICULE_EXISTANT, e.getMessage());
+    }
+
+    /**
+     * Employé modifié simultanément par une autre requête, hors calcul unitaire de la performance qui réessaie lui-même
+     */
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> objectOptimisticLockingFailureException(ObjectOptimisticLockingFailureException e) {
+        return erreur(HttpStatus.CONFLICT, EmployeService.MOTIF_MODIFICATION_CONCURRENTE, "Employé modifié simultanément, réessayez plus tard !");
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Map<String, String>> rejectedExecutionException(RejectedExecutionException e) {
+        logger.warn("Requête rejetée, file d'attente de l'API pleine");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1")
+                .body(corps(MOTIF_SURCHARGE, "Trop de requêtes en cours, réessayez plus tard !"));
+    }
+
+    /**
+     * Délai de la requête dépassé : le traitement est annulé par {@link EmployeController}, mais s'il avait déjà
+     * commencé il a pu aboutir. Une requête non idempotente (POST) ne doit pas être renvoyée sans vérification.
+     */
+    @ExceptionHandler(AsyncRequestTimeoutException.class)
+    public ResponseEntity<Map<String, String>> asyncRequestTimeoutException(AsyncRequestTimeoutException e) {
+        logger.warn("Délai de traitement d'une requête dépassé");
+        return erreur(HttpStatus.SERVICE_UNAVAILABLE, MOTIF_DELAI_DEPASSE, "Le traitement de la requête a dépassé le délai maximal, il a pu être appliqué : vérifiez avant de réessayer !");
+    }
+
+    private static ResponseEntity<Map<String, String>> erreur(HttpStatus statut, String motif, String message) {
+        return ResponseEntity.status(statut).body(corps(motif, message));
+    }
+
+    private static Map<String, String> corps(String motif, String message) {
+        Map<String, String> corps = new LinkedHashMap<>();
+        corps.put("motif", motif);
+        corps.put("message", message);
+        return corps;
+    }
+}
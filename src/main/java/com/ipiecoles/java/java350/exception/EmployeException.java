@@ -1,7 +1,25 @@
 package com.ipiecoles.java.java350.exception;
 
 public class EmployeException extends Exception {
+    /** Motif des exceptions créées sans motif */
+    public static final String MOTIF_INCONNU = "inconnu";
+
+    private final String motif;
+
     public EmployeException(String s) {
+        this(s, MOTIF_INCONNU);
+    }
+
+    /**
+     * @param s Le message d'erreur
+     * @param motif Un code court et stable identifiant la cause de l'erreur, indépendamment du message
+     */
+    public EmployeException(String s, String motif) {
         super(s);
+        this.motif = motif;
+    }
+
+    public String getMotif() {
+        return motif;
     }
 }
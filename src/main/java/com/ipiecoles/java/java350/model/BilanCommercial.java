@@ -0,0 +1,46 @@
+package com.ipiecoles.java.java350.model;
+
+/**
+ * Chiffre d'affaire traité dans l'année par un commercial et objectif qui lui avait été fixé.
+ */
+public class BilanCommercial {
+
+    private String matricule;
+
+    private Long caTraite;
+
+    private Long objectifCa;
+
+    public BilanCommercial() {
+    }
+
+    public BilanCommercial(String matricule, Long caTraite, Long objectifCa) {
+        this.matricule = matricule;
+        this.caTraite = caTraite;
+        this.objectifCa = objectifCa;
+    }
+
+    public String getMatricule() {
+        return matricule;
+    }
+
+    public void setMatricule(String matricule) {
+        this.matricule = matricule;
+    }
+
+    public Long getCaTraite() {
+        return caTraite;
+    }
+
+    public void setCaTraite(Long caTraite) {
+        this.caTraite = caTraite;
+    }
+
+    public Long getObjectifCa() {
+        return objectifCa;
+    }
+
+    public void setObjectifCa(Long objectifCa) {
+        this.objectifCa = objectifCa;
+    }
+}
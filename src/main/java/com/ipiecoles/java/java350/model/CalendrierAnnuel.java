@@ -0,0 +1,84 @@
+package com.ipiecoles.java.java350.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Year;
+
+/**
+ * Données d'une année civile utilisées pour le calcul des RTT. Un calendrier ne dépend que de l'année :
+ * il est calculé une seule fois par année puis partagé par tous les employés (cf. {@link Entreprise#calendrier(int)}).
+ */
+public final class CalendrierAnnuel {
+
+    private final int annee;
+
+    private final int nbJours;
+
+    private final int nbJoursWeekEnd;
+
+    private final int nbJoursFeriesSemaine;
+
+    private final int nbRttTempsPlein;
+
+    private CalendrierAnnuel(int annee, int nbJours, int nbJoursWeekEnd, int nbJoursFeriesSemaine) {
+        this.annee = annee;
+        this.nbJours = nbJours;
+        this.nbJoursWeekEnd = nbJoursWeekEnd;
+        this.nbJoursFeriesSemaine = nbJoursFeriesSemaine;
+        this.nbRttTempsPlein = nbJours - Entreprise.NB_JOURS_MAX_FORFAIT - nbJoursWeekEnd - Entreprise.NB_CONGES_BASE - nbJoursFeriesSemaine;
+    }
+
+    /**
+     * Méthode calculant le calendrier d'une année
+     *
+     * @param annee L'année civile
+     *
+     * @return le calendrier de l'année
+     */
+    public static CalendrierAnnuel calculer(int annee) {
+        int nbJours = Year.isLeap(annee) ? 366 : 365;
+
+        //52 semaines complètes, plus les 1 ou 2 jours restants qui sont les premiers jours de la semaine de l'année
+        int nbJoursWeekEnd = 104;
+        DayOfWeek premierJour = LocalDate.of(annee, 1, 1).getDayOfWeek();
+        for(int i = 0; i < nbJours - 364; i++){
+            if(premierJour.plus(i).getValue() > DayOfWeek.FRIDAY.getValue()){
+                nbJoursWeekEnd++;
+            }
+        }
+
+        int nbJoursFeriesSemaine = (int) Entreprise.joursFeries(LocalDate.of(annee, 1, 1)).stream().filter(localDate ->
+                localDate.getDayOfWeek().getValue() <= DayOfWeek.FRIDAY.getValue()).count();
+
+        return new CalendrierAnnuel(annee, nbJours, nbJoursWeekEnd, nbJoursFeriesSemaine);
+    }
+
+    public int getAnnee() {
+        return annee;
+    }
+
+    public int getNbJours() {
+        return nbJours;
+    }
+
+    /**
+     * @return le nombre de samedis et dimanches de l'année
+     */
+    public int getNbJoursWeekEnd() {
+        return nbJoursWeekEnd;
+    }
+
+    /**
+     * @return le nombre de jours fériés ne tombant pas le week-end
+     */
+    public int getNbJoursFeriesSemaine() {
+        return nbJoursFeriesSemaine;
+    }
+
+    /**
+     * @return le nombre de RTT de l'année pour un employé à temps plein
+     */
+    public int getNbRttTempsPlein() {
+        return nbRttTempsPlein;
+    }
+}
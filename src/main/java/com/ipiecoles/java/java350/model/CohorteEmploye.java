@@ -0,0 +1,91 @@
+package com.ipiecoles.java.java350.model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ensemble des employés ayant les mêmes données d'entrée du calcul de la prime, des congés et des RTT :
+ * première lettre du matricule, performance, année d'embauche et taux d'activité. Ces calculs ne sont
+ * faits qu'une fois par cohorte puis multipliés par le nombre d'employés.
+ */
+public final class CohorteEmploye {
+
+    private final String typeMatricule;
+
+    private final Integer performance;
+
+    private final Integer anneeEmbauche;
+
+    private final Double tempsPartiel;
+
+    private final long nbEmployes;
+
+    /**
+     * Employé représentatif de la cohorte, porteur des règles de calcul de {@link Employe}
+     */
+    private final Employe representant;
+
+    public CohorteEmploye(String typeMatricule, Integer performance, Integer anneeEmbauche, Double tempsPartiel, Long nbEmployes) {
+        this.typeMatricule = typeMatricule;
+        this.performance = performance;
+        this.anneeEmbauche = anneeEmbauche;
+        this.tempsPartiel = tempsPartiel;
+        this.nbEmployes = nbEmployes == null ? 0 : nbEmployes;
+        this.representant = new Employe(null, null, typeMatricule,
+                anneeEmbauche == null ? null : LocalDate.of(anneeEmbauche, 1, 1), null, performance, tempsPartiel);
+    }
+
+    /**
+     * Regroupement en cohortes d'employés déjà chargés en mémoire
+     *
+     * @param employes Les employés
+     *
+     * @return les cohortes, dans l'ordre de première rencontre
+     */
+    public static List<CohorteEmploye> regrouper(Collection<Employe> employes) {
+        Map<List<Object>, long[]> compteurs = new LinkedHashMap<>();
+        for(Employe employe : employes){
+            List<Object> cle = Arrays.asList(employe.getTypeMatricule(), employe.getPerformance(),
+                    employe.getDateEmbauche() == null ? null : employe.getDateEmbauche().getYear(), employe.getTempsPartiel());
+            compteurs.computeIfAbsent(cle, c -> new long[1])[0]++;
+        }
+        List<CohorteEmploye> cohortes = new ArrayList<>(compteurs.size());
+        for(Map.Entry<List<Object>, long[]> compteur : compteurs.entrySet()){
+            List<Object> cle = compteur.getKey();
+            cohortes.add(new CohorteEmploye((String) cle.get(0), (Integer) cle.get(1), (Integer) cle.get(2), (Double) cle.get(3), compteur.getValue()[0]));
+        }
+        return cohortes;
+    }
+
+    public String getTypeMatricule() {
+        return typeMatricule;
+    }
+
+    public Integer getPerformance() {
+        return performance;
+    }
+
+    public Integer getAnneeEmbauche() {
+        return anneeEmbauche;
+    }
+
+    public Double getTempsPartiel() {
+        return tempsPartiel;
+    }
+
+    public long getNbEmployes() {
+        return nbEmployes;
+    }
+
+    /**
+     * @return la situation commune aux employés de la cohorte à la date de référence
+     */
+    public SituationEmploye situation(LocalDate dateReference) {
+        return SituationEmploye.de(representant, dateReference);
+    }
+}
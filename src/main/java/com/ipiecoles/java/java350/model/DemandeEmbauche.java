@@ -0,0 +1,68 @@
+package com.ipiecoles.java.java350.model;
+
+/**
+ * Données nécessaires à l'embauche d'un employé, utilisées pour les embauches groupées.
+ */
+public class DemandeEmbauche {
+
+    private String nom;
+
+    private String prenom;
+
+    private Poste poste;
+
+    private NiveauEtude niveauEtude;
+
+    private Double tempsPartiel;
+
+    public DemandeEmbauche() {
+    }
+
+    public DemandeEmbauche(String nom, String prenom, Poste poste, NiveauEtude niveauEtude, Double tempsPartiel) {
+        this.nom = nom;
+        this.prenom = prenom;
+        this.poste = poste;
+        this.niveauEtude = niveauEtude;
+        this.tempsPartiel = tempsPartiel;
+    }
+
+    public String getNom() {
+        return nom;
+    }
+
+    public void setNom(String nom) {
+        this.nom = nom;
+    }
+
+    public String getPrenom() {
+        return prenom;
+    }
+
+    public void setPrenom(String prenom) {
+        this.prenom = prenom;
+    }
+
+    public Poste getPoste() {
+        return poste;
+    }
+
+    public void setPoste(Poste poste) {
+        this.poste = poste;
+    }
+
+    public NiveauEtude getNiveauEtude() {
+        return niveauEtude;
+    }
+
+    public void setNiveauEtude(NiveauEtude niveauEtude) {
+        this.niveauEtude = niveauEtude;
+    }
+
+    public Double getTempsPartiel() {
+        return tempsPartiel;
+    }
+
+    public void setTempsPartiel(Double tempsPartiel) {
+        this.tempsPartiel = tempsPartiel;
+    }
+}
@@ -0,0 +1,144 @@
+package com.ipiecoles.java.java350.model;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Données d'un ensemble d'employés nécessaires au calcul de la prime annuelle, rangées par colonnes
+ * de types primitifs. La prime de tout l'effectif est ainsi calculée en une seule boucle, sans objet
+ * intermédiaire, avec exactement les mêmes opérations que {@link Employe#getPrimeAnnuelle()}.
+ *
+ * Un temps partiel non renseigné est conservé sous la forme NaN : la prime de l'employé vaut alors NaN au lieu
+ * d'interrompre le calcul de tout l'effectif.
+ */
+public class EffectifColonnes {
+    /** Performance non renseignée */
+    static final int PERFORMANCE_NULLE = Integer.MIN_VALUE;
+    /** Date d'embauche non renseignée : l'ancienneté est alors nulle */
+    static final int ANNEE_EMBAUCHE_NULLE = Integer.MAX_VALUE;
+
+    private static final int SEUIL_DECOUPAGE = 8192;
+
+    private String[] matricules;
+    private byte[] prefixes;
+    private int[] performances;
+    private int[] anneesEmbauche;
+    private double[] tempsPartiels;
+    private int taille;
+
+    public EffectifColonnes(int capaciteInitiale) {
+        int capacite = Math.max(capaciteInitiale, 16);
+        matricules = new String[capacite];
+        prefixes = new byte[capacite];
+        performances = new int[capacite];
+        anneesEmbauche = new int[capacite];
+        tempsPartiels = new double[capacite];
+    }
+
+    public static EffectifColonnes de(Collection<Employe> employes) {
+        EffectifColonnes effectif = new EffectifColonnes(employes.size());
+        for(Employe employe : employes){
+            effectif.ajouter(employe.getMatricule(), employe.getPerformance(), employe.getDateEmbauche(), employe.getTempsPartiel());
+        }
+        return effectif;
+    }
+
+    public void ajouter(String matricule, Integer performance, LocalDate dateEmbauche, Double tempsPartiel) {
+        if(taille == matricules.length){
+            int capacite = taille * 2;
+            matricules = Arrays.copyOf(matricules, capacite);
+            prefixes = Arrays.copyOf(prefixes, capacite);
+            performances = Arrays.copyOf(performances, capacite);
+            anneesEmbauche = Arrays.copyOf(anneesEmbauche, capacite);
+            tempsPartiels = Arrays.copyOf(tempsPartiels, capacite);
+        }
+        matricules[taille] = matricule;
+        prefixes[taille] = matricule == null || matricule.isEmpty() ? 0 : (byte) matricule.charAt(0);
+        performances[taille] = performance == null ? PERFORMANCE_NULLE : performance;
+        anneesEmbauche[taille] = dateEmbauche == null ? ANNEE_EMBAUCHE_NULLE : dateEmbauche.getYear();
+        tempsPartiels[taille] = tempsPartiel == null ? Double.NaN : tempsPartiel;
+        taille++;
+    }
+
+    public int getTaille() {
+        return taille;
+    }
+
+    public String getMatricule(int index) {
+        return matricules[index];
+    }
+
+    /**
+     * Méthode calculant la prime annuelle de chaque employé de l'effectif, selon les règles de
+     * {@link Employe#getPrimeAnnuelle()}
+     *
+     * @param anneeReference L'année à laquelle l'ancienneté est calculée
+     *
+     * @return la prime de chaque employé, dans l'ordre d'ajout, NaN pour un employé sans temps partiel
+     */
+    public double[] calculerPrimes(int anneeReference) {
+        double[] primes = new double[taille];
+        calculerPrimes(anneeReference, primes, 0, taille);
+        return primes;
+    }
+
+    /**
+     * Même calcul que {@link #calculerPrimes(int)}, réparti sur les threads du pool commun fork/join
+     */
+    public double[] calculerPrimesEnParallele(int anneeReference) {
+        double[] primes = new double[taille];
+        ForkJoinPool.commonPool().invoke(new CalculPrimes(anneeReference, primes, 0, taille));
+        return primes;
+    }
+
+    private void calculerPrimes(int anneeReference, double[] primes, int debut, int fin) {
+        double primeBase = Entreprise.primeAnnuelleBase();
+        double indicePrimeManager = Entreprise.INDICE_PRIME_MANAGER;
+        double indicePrimeBase = Entreprise.INDICE_PRIME_BASE;
+        double primeAncienneteAnnuelle = Entreprise.PRIME_ANCIENNETE;
+        int performanceBase = Entreprise.PERFORMANCE_BASE;
+
+        for(int i = debut; i < fin; i++){
+            double primeAnciennete = primeAncienneteAnnuelle * Math.max(anneeReference - anneesEmbauche[i], 0);
+            int performance = performances[i];
+            double prime;
+            if(prefixes[i] == 'M'){
+                prime = primeBase * indicePrimeManager + primeAnciennete;
+            }
+            else if(performance == PERFORMANCE_NULLE || performance == performanceBase){
+                prime = primeBase + primeAnciennete;
+            }
+            else {
+                prime = primeBase * (performance + indicePrimeBase) + primeAnciennete;
+            }
+            primes[i] = prime * tempsPartiels[i];
+        }
+    }
+
+    private final class CalculPrimes extends RecursiveAction {
+        private final int anneeReference;
+        private final double[] primes;
+        private final int debut;
+        private final int fin;
+
+        private CalculPrimes(int anneeReference, double[] primes, int debut, int fin) {
+            this.anneeReference = anneeReference;
+            this.primes = primes;
+            this.debut = debut;
+            this.fin = fin;
+        }
+
+        @Override
+        protected void compute() {
+            if(fin - debut <= SEUIL_DECOUPAGE){
+                calculerPrimes(anneeReference, primes, debut, fin);
+                return;
+            }
+            int milieu = (debut + fin) >>> 1;
+            invokeAll(new CalculPrimes(anneeReference, primes, debut, milieu), new CalculPrimes(anneeReference, primes, milieu, fin));
+        }
+    }
+}
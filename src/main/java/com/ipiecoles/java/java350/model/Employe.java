@@ -1,27 +1,63 @@
 package com.ipiecoles.java.java350.model;
 
+import org.hibernate.annotations.ColumnDefault;
+
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
-import java.time.DayOfWeek;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import javax.persistence.Version;
 import java.time.LocalDate;
 import java.util.Objects;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_employe_matricule", columnNames = "matricule"),
+        indexes = {
+                @Index(name = "idx_employe_type_numero_matricule", columnList = "typeMatricule, numeroMatricule")
+        })
 public class Employe {
 
 
+    /**
+     * Identifiant réservé par blocs de 50 à la séquence : les insertions par lots JDBC ne sont pas
+     * interrompues par une lecture de la séquence (ou un identifiant auto-incrémenté) à chaque employé.
+     * Sans séquence en BDD (MySQL), Hibernate utilise la table employe_seq.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employe_seq")
+    @SequenceGenerator(name = "employe_seq", sequenceName = "employe_seq", allocationSize = 50)
     private Long id;
 
+    /**
+     * Version de la ligne, incrémentée à chaque mise à jour : la sauvegarde d'un employé modifié
+     * entre-temps échoue au lieu d'écraser la modification concurrente. Les lignes existantes démarrent à 0.
+     */
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
     private String nom;
 
     private String prenom;
 
     private String matricule;
 
+    /**
+     * Première lettre du matricule, dupliquée pour être indexée
+     */
+    @Column(length = 1)
+    private String typeMatricule;
+
+    /**
+     * Partie numérique du matricule, dupliquée pour être indexée
+     */
+    private Integer numeroMatricule;
+
     private LocalDate dateEmbauche;
 
     private Double salaire = Entreprise.SALAIRE_BASE;
@@ -36,7 +72,7 @@ public class Employe {
     public Employe(String nom, String prenom, String matricule, LocalDate dateEmbauche, Double salaire, Integer performance, Double tempsPartiel) {
         this.nom = nom;
         this.prenom = prenom;
-        this.matricule = matricule;
+        this.setMatricule(matricule);
         this.dateEmbauche = dateEmbauche;
         this.salaire = salaire;
         this.performance = performance;
@@ -48,33 +84,47 @@ public class Employe {
      * @return
      */
     public Integer getNombreAnneeAnciennete() {
+        return getNombreAnneeAnciennete(LocalDate.now());
+    }
+
+    /**
+     * Méthode calculant le nombre d'années d'ancienneté à une date de référence, passée ou future
+     *
+     * @param dateReference La date à laquelle l'ancienneté est évaluée
+     *
+     * @return le nombre d'années entre l'année d'embauche et celle de la date de référence, 0 si l'employé
+     * n'est pas encore embauché à cette date
+     */
+    public Integer getNombreAnneeAnciennete(LocalDate dateReference) {
         if(dateEmbauche!= null){
-            return Math.max((LocalDate.now().getYear() - dateEmbauche.getYear()),0);
+            return Math.max((dateReference.getYear() - dateEmbauche.getYear()),0);
         }
         return 0;
     }
 
     public Integer getNbConges() {
-        return Entreprise.NB_CONGES_BASE + this.getNombreAnneeAnciennete();
+        return getNbConges(LocalDate.now());
+    }
+
+    public Integer getNbConges(LocalDate dateReference) {
+        return Entreprise.NB_CONGES_BASE + this.getNombreAnneeAnciennete(dateReference);
     }
 
     public Integer getNbRtt(){
         return getNbRtt(LocalDate.now());
     }
 
+    /**
+     * Méthode calculant le nombre de RTT de l'employé pour l'année de la date donnée : nombre de jours de l'année
+     * moins le nombre de jours travaillés au forfait, le nombre de samedis et dimanches, le nombre de jours fériés
+     * ne tombant pas le week-end et le nombre de congés payés, le tout au pro rata du temps partiel.
+     *
+     * @param d Une date de l'année considérée
+     *
+     * @return le nombre de RTT, arrondi au jour supérieur
+     */
     public Integer getNbRtt(LocalDate d){
-        int i1 = d.isLeapYear() ? 365 : 366;int var = 104;
-        switch (LocalDate.of(d.getYear(),1,1).getDayOfWeek()){
-        case THURSDAY: if(d.isLeapYear()) var =  var + 1; break;
-        case FRIDAY:
-        if(d.isLeapYear()) var =  var + 2;
-        else var =  var + 1;
-case SATURDAY:var = var + 1;
-                    break;
-        }
-        int monInt = (int) Entreprise.joursFeries(d).stream().filter(localDate ->
-                localDate.getDayOfWeek().getValue() <= DayOfWeek.FRIDAY.getValue()).count();
-        return (int) Math.ceil((i1 - Entreprise.NB_JOURS_MAX_FORFAIT - var - Entreprise.NB_CONGES_BASE - monInt) * tempsPartiel);
+        return (int) Math.ceil(Entreprise.calendrier(d.getYear()).getNbRttTempsPlein() * tempsPartiel);
     }
 
     /**
@@ -91,8 +141,19 @@ case SATURDAY:var = var + 1;
      */
     //Matricule, performance, date d'embauche, temps partiel, prime
     public Double getPrimeAnnuelle(){
+        return getPrimeAnnuelle(LocalDate.now());
+    }
+
+    /**
+     * Même calcul que {@link #getPrimeAnnuelle()}, avec l'ancienneté évaluée à la date de référence donnée
+     *
+     * @param dateReference La date à laquelle l'ancienneté est évaluée
+     *
+     * @return la prime annuelle de l'employé en Euros et cents
+     */
+    public Double getPrimeAnnuelle(LocalDate dateReference){
         //Calcule de la prime d'ancienneté
-        Double primeAnciennete = Entreprise.PRIME_ANCIENNETE * this.getNombreAnneeAnciennete();
+        Double primeAnciennete = Entreprise.PRIME_ANCIENNETE * this.getNombreAnneeAnciennete(dateReference);
         Double prime;
         //Prime du manager (matricule commençant par M) : Prime annuelle de base multipliée par l'indice prime manager
         //plus la prime d'anciennté.
@@ -112,8 +173,46 @@ case SATURDAY:var = var + 1;
         return prime * this.tempsPartiel;
     }
 
-    //Augmenter salaire
-    //public void augmenterSalaire(double pourcentage){}
+    /**
+     * Augmentation du salaire du pourcentage donné. Sans effet si le salaire n'est pas renseigné.
+     *
+     * @param pourcentage Le pourcentage d'augmentation (10 pour 10 %), positif ou nul
+     *
+     * @throws IllegalArgumentException Si le pourcentage est négatif
+     */
+    public void augmenterSalaire(double pourcentage){
+        double facteur = facteurAugmentation(pourcentage);
+        if(salaire != null){
+            salaire = salaire * facteur;
+        }
+    }
+
+    /**
+     * @param pourcentage Le pourcentage d'augmentation (10 pour 10 %), positif ou nul
+     *
+     * @return le facteur par lequel le salaire est multiplié, le même pour une augmentation faite en BDD
+     *
+     * @throws IllegalArgumentException Si le pourcentage est négatif
+     */
+    public static double facteurAugmentation(double pourcentage){
+        if(!(pourcentage >= 0)){
+            throw new IllegalArgumentException("Le pourcentage d'augmentation doit être positif ou nul !");
+        }
+        return 1 + pourcentage / 100;
+    }
+
+    /**
+     * @return une copie détachée de l'employé, avec le même identifiant et la même version : sauvegardée,
+     * elle met à jour la même ligne, sous le même contrôle de modification concurrente
+     */
+    public Employe copie(){
+        Employe copie = new Employe(nom, prenom, matricule, dateEmbauche, salaire, performance, tempsPartiel);
+        copie.id = id;
+        copie.version = version;
+        copie.typeMatricule = typeMatricule;
+        copie.numeroMatricule = numeroMatricule;
+        return copie;
+    }
 
     public Long getId() {
         return id;
@@ -123,6 +222,10 @@ case SATURDAY:var = var + 1;
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     /**
      * @return the nom
      */
@@ -164,6 +267,38 @@ case SATURDAY:var = var + 1;
      */
     public void setMatricule(String matricule) {
         this.matricule = matricule;
+        this.typeMatricule = matricule == null || matricule.isEmpty() ? null : matricule.substring(0, 1);
+        this.numeroMatricule = numeroMatricule(matricule);
+    }
+
+    /**
+     * @return la première lettre du matricule
+     */
+    public String getTypeMatricule() {
+        return typeMatricule;
+    }
+
+    /**
+     * @return la partie numérique du matricule, null si elle n'est pas numérique
+     */
+    public Integer getNumeroMatricule() {
+        return numeroMatricule;
+    }
+
+    private static Integer numeroMatricule(String matricule) {
+        if(matricule == null || matricule.length() < 2){
+            return null;
+        }
+        for(int i = 1; i < matricule.length(); i++){
+            if(!Character.isDigit(matricule.charAt(i))){
+                return null;
+            }
+        }
+        try {
+            return Integer.valueOf(matricule.substring(1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
     }
 
     /**
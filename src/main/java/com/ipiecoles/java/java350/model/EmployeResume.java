@@ -0,0 +1,47 @@
+package com.ipiecoles.java.java350.model;
+
+/**
+ * Données d'un employé affichées dans les tableaux de bord. Construit directement par la requête
+ * (cf. EmployeRepository#findResumes), un résumé n'est pas une entité : il n'est ni suivi ni
+ * vérifié par la session Hibernate.
+ */
+public final class EmployeResume {
+
+    private final Long id;
+
+    private final String matricule;
+
+    private final String nom;
+
+    private final Integer performance;
+
+    private final Double salaire;
+
+    public EmployeResume(Long id, String matricule, String nom, Integer performance, Double salaire) {
+        this.id = id;
+        this.matricule = matricule;
+        this.nom = nom;
+        this.performance = performance;
+        this.salaire = salaire;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getMatricule() {
+        return matricule;
+    }
+
+    public String getNom() {
+        return nom;
+    }
+
+    public Integer getPerformance() {
+        return performance;
+    }
+
+    public Double getSalaire() {
+        return salaire;
+    }
+}
@@ -2,6 +2,7 @@ package com.ipiecoles.java.java350.model;
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 public final class Entreprise {
     public static final Double SALAIRE_BASE = 1521.22;
@@ -14,7 +15,10 @@ public final class Entreprise {
     private static final double PRIME_BASE = 1000d;
 
     public static final Map<NiveauEtude, Double> COEFF_SALAIRE_ETUDES = new EnumMap<>(NiveauEtude.class);
-    private static final Map<Integer, LocalDate> datePaque = new HashMap<>();
+    private static final int ANNEE_MIN_CACHE = 1900;
+    private static final int NB_ANNEES_CACHE = 400;
+    private static final AtomicReferenceArray<LocalDate> datesPaques = new AtomicReferenceArray<>(NB_ANNEES_CACHE);
+    private static final AtomicReferenceArray<CalendrierAnnuel> calendriers = new AtomicReferenceArray<>(NB_ANNEES_CACHE);
 
     private Entreprise() {
 
@@ -28,29 +32,6 @@ public final class Entreprise {
         COEFF_SALAIRE_ETUDES.put(NiveauEtude.MASTER, 1.4);
         COEFF_SALAIRE_ETUDES.put(NiveauEtude.INGENIEUR, 1.6);
         COEFF_SALAIRE_ETUDES.put(NiveauEtude.DOCTORAT, 1.7);
-
-        datePaque.put(2019, LocalDate.of(2019, 4, 21));
-        datePaque.put(2020, LocalDate.of(2020, 4, 12));
-        datePaque.put(2021, LocalDate.of(2021, 4, 4));
-        datePaque.put(2022, LocalDate.of(2022, 4, 17));
-        datePaque.put(2023, LocalDate.of(2023, 4, 9));
-        datePaque.put(2024, LocalDate.of(2024, 3, 31));
-        datePaque.put(2025, LocalDate.of(2025, 4, 20));
-        datePaque.put(2026, LocalDate.of(2026, 4, 5));
-        datePaque.put(2027, LocalDate.of(2027, 3, 28));
-        datePaque.put(2028, LocalDate.of(2028, 4, 16));
-        datePaque.put(2029, LocalDate.of(2029, 4, 1));
-        datePaque.put(2030, LocalDate.of(2030, 4, 21));
-        datePaque.put(2031, LocalDate.of(2031, 4, 13));
-        datePaque.put(2032, LocalDate.of(2032, 3, 28));
-        datePaque.put(2033, LocalDate.of(2033, 4, 17));
-        datePaque.put(2034, LocalDate.of(2034, 4, 9));
-        datePaque.put(2035, LocalDate.of(2035, 3, 25));
-        datePaque.put(2036, LocalDate.of(2036, 4, 13));
-        datePaque.put(2037, LocalDate.of(2037, 4, 5));
-        datePaque.put(2038, LocalDate.of(2038, 4, 25));
-        datePaque.put(2039, LocalDate.of(2039, 4, 10));
-        datePaque.put(2040, LocalDate.of(2040, 4, 1));
     }
 
     public static final String MATRICULE_INITIAL = "00000";
@@ -60,21 +41,85 @@ public final class Entreprise {
         return PRIME_BASE;
     }
 
+    /**
+     * Méthode renvoyant le calendrier de l'année donnée. Les calendriers des années 1900 à 2299 sont calculés
+     * une seule fois puis conservés ; pour ces années, l'appel ne fait aucune allocation.
+     *
+     * @param annee L'année civile
+     *
+     * @return le calendrier de l'année
+     */
+    public static CalendrierAnnuel calendrier(int annee) {
+        int index = annee - ANNEE_MIN_CACHE;
+        if(index < 0 || index >= NB_ANNEES_CACHE){
+            return CalendrierAnnuel.calculer(annee);
+        }
+        CalendrierAnnuel calendrier = calendriers.get(index);
+        if(calendrier == null){
+            //Deux threads peuvent calculer la même année en même temps, le résultat étant identique
+            calendrier = CalendrierAnnuel.calculer(annee);
+            calendriers.set(index, calendrier);
+        }
+        return calendrier;
+    }
+
+    /**
+     * Méthode renvoyant la date du dimanche de Pâques de l'année donnée, dans le calendrier grégorien.
+     * Comme pour les calendriers, les dates des années 1900 à 2299 sont calculées une seule fois puis conservées.
+     *
+     * @param annee L'année civile
+     *
+     * @return la date de Pâques
+     */
+    public static LocalDate datePaque(int annee) {
+        int index = annee - ANNEE_MIN_CACHE;
+        if(index < 0 || index >= NB_ANNEES_CACHE){
+            return calculDatePaque(annee);
+        }
+        LocalDate datePaque = datesPaques.get(index);
+        if(datePaque == null){
+            datePaque = calculDatePaque(annee);
+            datesPaques.set(index, datePaque);
+        }
+        return datePaque;
+    }
+
+    /**
+     * Algorithme de Meeus/Jones/Butcher
+     */
+    private static LocalDate calculDatePaque(int annee) {
+        int a = Math.floorMod(annee, 19);
+        int b = Math.floorDiv(annee, 100);
+        int c = Math.floorMod(annee, 100);
+        int d = Math.floorDiv(b, 4);
+        int e = Math.floorMod(b, 4);
+        int f = Math.floorDiv(b + 8, 25);
+        int g = Math.floorDiv(b - f + 1, 3);
+        int h = Math.floorMod(19 * a + b - d - g + 15, 30);
+        int i = c / 4;
+        int k = c % 4;
+        int l = Math.floorMod(32 + 2 * e + 2 * i - h - k, 7);
+        int m = (a + 11 * h + 22 * l) / 451;
+        int n = h + l - 7 * m + 114;
+        return LocalDate.of(annee, n / 31, n % 31 + 1);
+    }
+
     public static List<LocalDate> joursFeries(LocalDate now){
+        LocalDate datePaque = datePaque(now.getYear());
 
         return Arrays.asList(
                 // 1er janvier	Jour de l’an
                 LocalDate.of(now.getYear(), 1,1),
                 // Lendemain du dimanche de Pâques.	Lundi de Pâques
-                datePaque.get(now.getYear()).plusDays(1L),
+                datePaque.plusDays(1L),
                 // 1er mai	Fête du Travail
                 LocalDate.of(now.getYear(), 5,1),
                 // 8 mai Fête de la Victoire
                 LocalDate.of(now.getYear(), 5,8),
-                // Jeudi 40 jours après Pâques Ascension Fête chrétienne célébrant la montée de Jésus aux cieux.
-                datePaque.get(now.getYear()).plusDays(40L),
+                // Jeudi 40 jours après Pâques (Pâques compris) Ascension Fête chrétienne célébrant la montée de Jésus aux cieux.
+                datePaque.plusDays(39L),
                 // Le lundi suivant le dimanche de Pentecôte (le septième après Pâques).
-                datePaque.get(now.getYear()).plusDays(50L),
+                datePaque.plusDays(50L),
                 // 14 juillet Fête nationale
                 LocalDate.of(now.getYear(), 7,14),
                 // 15 août Assomption
@@ -0,0 +1,25 @@
+package com.ipiecoles.java.java350.model;
+
+/**
+ * Bilan commercial rejeté lors d'un calcul en masse de la performance : le matricule du bilan, éventuellement null,
+ * et le motif du rejet.
+ */
+public class ErreurBilan {
+
+    private final String matricule;
+
+    private final String erreur;
+
+    public ErreurBilan(String matricule, String erreur) {
+        this.matricule = matricule;
+        this.erreur = erreur;
+    }
+
+    public String getMatricule() {
+        return matricule;
+    }
+
+    public String getErreur() {
+        return erreur;
+    }
+}
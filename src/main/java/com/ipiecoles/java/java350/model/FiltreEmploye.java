@@ -0,0 +1,213 @@
+package com.ipiecoles.java.java350.model;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Critères de sélection d'employés sur leurs données numériques : première lettre du matricule, intervalles de
+ * performance, de salaire rapporté au temps plein, de taux d'activité et de date d'embauche. Chaque méthode renvoie
+ * un nouveau filtre, plus restrictif. Un employé dont la donnée filtrée n'est pas renseignée n'est pas retenu.
+ *
+ * Le filtre s'évalue sur les colonnes de l'instantané ({@link #accepte}) comme en BDD ({@link #predicat}).
+ */
+public final class FiltreEmploye {
+    private static final FiltreEmploye TOUS = new FiltreEmploye((byte) 0, Integer.MIN_VALUE, Integer.MAX_VALUE,
+            Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+            Long.MIN_VALUE, Long.MAX_VALUE);
+    /** Écart toléré sur les bornes des tranches de salaire, pour absorber les arrondis du calcul au pro rata */
+    private static final double TOLERANCE_SALAIRE = 0.01;
+
+    private final byte prefixe;
+    private final int performanceMin;
+    private final int performanceMax;
+    private final double salaireTempsPleinMin;
+    private final double salaireTempsPleinMax;
+    private final double tempsPartielMin;
+    private final double tempsPartielMax;
+    private final long jourEmbaucheMin;
+    private final long jourEmbaucheMax;
+    private final boolean filtrePerformance;
+    private final boolean filtreSalaire;
+    private final boolean filtreTempsPartiel;
+    private final boolean filtreEmbauche;
+
+    private FiltreEmploye(byte prefixe, int performanceMin, int performanceMax, double salaireTempsPleinMin, double salaireTempsPleinMax,
+                          double tempsPartielMin, double tempsPartielMax, long jourEmbaucheMin, long jourEmbaucheMax) {
+        this.prefixe = prefixe;
+        this.performanceMin = performanceMin;
+        this.performanceMax = performanceMax;
+        this.salaireTempsPleinMin = salaireTempsPleinMin;
+        this.salaireTempsPleinMax = salaireTempsPleinMax;
+        this.tempsPartielMin = tempsPartielMin;
+        this.tempsPartielMax = tempsPartielMax;
+        this.jourEmbaucheMin = jourEmbaucheMin;
+        this.jourEmbaucheMax = jourEmbaucheMax;
+        this.filtrePerformance = performanceMin != Integer.MIN_VALUE || performanceMax != Integer.MAX_VALUE;
+        this.filtreSalaire = salaireTempsPleinMin != Double.NEGATIVE_INFINITY || salaireTempsPleinMax != Double.POSITIVE_INFINITY;
+        this.filtreTempsPartiel = tempsPartielMin != Double.NEGATIVE_INFINITY || tempsPartielMax != Double.POSITIVE_INFINITY;
+        this.filtreEmbauche = jourEmbaucheMin != Long.MIN_VALUE || jourEmbaucheMax != Long.MAX_VALUE;
+    }
+
+    public static FiltreEmploye tous() {
+        return TOUS;
+    }
+
+    /**
+     * @param prefixe La première lettre du matricule (C, M, T...)
+     */
+    public FiltreEmploye prefixe(char prefixe) {
+        return new FiltreEmploye((byte) prefixe, performanceMin, performanceMax, salaireTempsPleinMin, salaireTempsPleinMax,
+                tempsPartielMin, tempsPartielMax, jourEmbaucheMin, jourEmbaucheMax);
+    }
+
+    /**
+     * Performance supérieure ou égale à la valeur donnée
+     */
+    public FiltreEmploye performanceMin(int performance) {
+        return new FiltreEmploye(prefixe, Math.max(performanceMin, performance), performanceMax, salaireTempsPleinMin, salaireTempsPleinMax,
+                tempsPartielMin, tempsPartielMax, jourEmbaucheMin, jourEmbaucheMax);
+    }
+
+    /**
+     * Performance inférieure ou égale à la valeur donnée
+     */
+    public FiltreEmploye performanceMax(int performance) {
+        return new FiltreEmploye(prefixe, performanceMin, Math.min(performanceMax, performance), salaireTempsPleinMin, salaireTempsPleinMax,
+                tempsPartielMin, tempsPartielMax, jourEmbaucheMin, jourEmbaucheMax);
+    }
+
+    /**
+     * Salaire rapporté au temps plein dans la tranche du niveau d'étude : au moins le salaire d'embauche de ce niveau
+     * et moins que celui du niveau suivant mieux payé (cf. {@link Entreprise#COEFF_SALAIRE_ETUDES}). Les niveaux de
+     * même coefficient partagent la même tranche. Un taux d'activité non renseigné compte comme un temps plein.
+     */
+    public FiltreEmploye niveauEtude(NiveauEtude niveauEtude) {
+        double coefficient = Entreprise.COEFF_SALAIRE_ETUDES.get(niveauEtude);
+        double coefficientSuivant = Double.POSITIVE_INFINITY;
+        for(double autre : Entreprise.COEFF_SALAIRE_ETUDES.values()){
+            if(autre > coefficient && autre < coefficientSuivant){
+                coefficientSuivant = autre;
+            }
+        }
+        double min = coefficient * Entreprise.SALAIRE_BASE - TOLERANCE_SALAIRE;
+        double max = coefficientSuivant == Double.POSITIVE_INFINITY ? Double.POSITIVE_INFINITY
+                : Math.nextDown(coefficientSuivant * Entreprise.SALAIRE_BASE - TOLERANCE_SALAIRE);
+        return new FiltreEmploye(prefixe, performanceMin, performanceMax, Math.max(salaireTempsPleinMin, min), Math.min(salaireTempsPleinMax, max),
+                tempsPartielMin, tempsPartielMax, jourEmbaucheMin, jourEmbaucheMax);
+    }
+
+    /**
+     * Taux d'activité strictement inférieur à 1
+     */
+    public FiltreEmploye tempsPartiel() {
+        return new FiltreEmploye(prefixe, performanceMin, performanceMax, salaireTempsPleinMin, salaireTempsPleinMax,
+                tempsPartielMin, Math.min(tempsPartielMax, Math.nextDown(1.0)), jourEmbaucheMin, jourEmbaucheMax);
+    }
+
+    /**
+     * Embauche strictement antérieure à la date donnée
+     */
+    public FiltreEmploye embaucheAvant(LocalDate date) {
+        return new FiltreEmploye(prefixe, performanceMin, performanceMax, salaireTempsPleinMin, salaireTempsPleinMax,
+                tempsPartielMin, tempsPartielMax, jourEmbaucheMin, Math.min(jourEmbaucheMax, date.toEpochDay() - 1));
+    }
+
+    /**
+     * Embauche à la date donnée ou après
+     */
+    public FiltreEmploye embaucheDepuis(LocalDate date) {
+        return new FiltreEmploye(prefixe, performanceMin, performanceMax, salaireTempsPleinMin, salaireTempsPleinMax,
+                tempsPartielMin, tempsPartielMax, Math.max(jourEmbaucheMin, date.toEpochDay()), jourEmbaucheMax);
+    }
+
+    /**
+     * Méthode testant les données d'un employé, telles que rangées par colonnes : les valeurs non renseignées
+     * sont représentées par des valeurs sentinelles qui n'appartiennent à aucun intervalle restreint
+     *
+     * @param prefixe La première lettre du matricule, 0 si le matricule n'est pas renseigné
+     * @param performance La performance, Integer.MIN_VALUE si elle n'est pas renseignée
+     * @param salaire Le salaire, NaN s'il n'est pas renseigné
+     * @param tempsPartiel Le taux d'activité, NaN s'il n'est pas renseigné
+     * @param jourEmbauche Le jour d'embauche (cf. {@link LocalDate#toEpochDay()}), Integer.MIN_VALUE s'il n'est pas renseigné
+     */
+    public boolean accepte(byte prefixe, int performance, double salaire, double tempsPartiel, int jourEmbauche) {
+        if(this.prefixe != 0 && this.prefixe != prefixe){
+            return false;
+        }
+        if(filtrePerformance && (performance == Integer.MIN_VALUE || performance < performanceMin || performance > performanceMax)){
+            return false;
+        }
+        if(filtreSalaire){
+            //Même calcul qu'en BDD : le salaire est comparé aux bornes ramenées au taux d'activité
+            double taux = Double.isNaN(tempsPartiel) ? 1.0 : tempsPartiel;
+            if(Double.isNaN(salaire) || (salaireTempsPleinMin != Double.NEGATIVE_INFINITY && salaire < salaireTempsPleinMin * taux)
+                    || (salaireTempsPleinMax != Double.POSITIVE_INFINITY && salaire > salaireTempsPleinMax * taux)){
+                return false;
+            }
+        }
+        if(filtreTempsPartiel && !(tempsPartiel >= tempsPartielMin && tempsPartiel <= tempsPartielMax)){
+            return false;
+        }
+        return !filtreEmbauche || (jourEmbauche != Integer.MIN_VALUE && jourEmbauche >= jourEmbaucheMin && jourEmbauche <= jourEmbaucheMax);
+    }
+
+    /**
+     * Traduction du filtre en condition JPA sur les employés, pour une requête ou une mise à jour en masse.
+     * Une donnée non renseignée rend la comparaison inconnue : l'employé n'est pas retenu, comme par {@link #accepte}.
+     *
+     * @param cb Le CriteriaBuilder de la requête
+     * @param employe La racine Employe de la requête
+     */
+    public Predicate predicat(CriteriaBuilder cb, Root<Employe> employe) {
+        List<Predicate> predicats = new ArrayList<>();
+        if(prefixe != 0){
+            predicats.add(cb.equal(employe.get("typeMatricule"), String.valueOf((char) prefixe)));
+        }
+        if(filtrePerformance){
+            predicats.add(cb.between(employe.<Integer>get("performance"), performanceMin, performanceMax));
+        }
+        if(filtreSalaire){
+            Expression<Double> salaire = employe.get("salaire");
+            Expression<Double> taux = cb.coalesce(employe.<Double>get("tempsPartiel"), 1.0);
+            predicats.add(cb.isNotNull(salaire));
+            if(salaireTempsPleinMin != Double.NEGATIVE_INFINITY){
+                predicats.add(cb.greaterThanOrEqualTo(salaire, cb.prod(taux, salaireTempsPleinMin)));
+            }
+            if(salaireTempsPleinMax != Double.POSITIVE_INFINITY){
+                predicats.add(cb.lessThanOrEqualTo(salaire, cb.prod(taux, salaireTempsPleinMax)));
+            }
+        }
+        if(filtreTempsPartiel){
+            ajouterBornes(cb, predicats, employe.<Double>get("tempsPartiel"), tempsPartielMin, tempsPartielMax);
+        }
+        if(filtreEmbauche){
+            Expression<LocalDate> dateEmbauche = employe.get("dateEmbauche");
+            predicats.add(cb.isNotNull(dateEmbauche));
+            if(jourEmbaucheMin != Long.MIN_VALUE){
+                predicats.add(cb.greaterThanOrEqualTo(dateEmbauche, LocalDate.ofEpochDay(jourEmbaucheMin)));
+            }
+            if(jourEmbaucheMax != Long.MAX_VALUE){
+                predicats.add(cb.lessThanOrEqualTo(dateEmbauche, LocalDate.ofEpochDay(jourEmbaucheMax)));
+            }
+        }
+        return cb.and(predicats.toArray(new Predicate[0]));
+    }
+
+    /**
+     * Les bornes infinies ne sont pas envoyées à la BDD ; la donnée doit tout de même être renseignée
+     */
+    private static void ajouterBornes(CriteriaBuilder cb, List<Predicate> predicats, Expression<Double> valeur, double min, double max) {
+        predicats.add(cb.isNotNull(valeur));
+        if(min != Double.NEGATIVE_INFINITY){
+            predicats.add(cb.greaterThanOrEqualTo(valeur, min));
+        }
+        if(max != Double.POSITIVE_INFINITY){
+            predicats.add(cb.lessThanOrEqualTo(valeur, max));
+        }
+    }
+}
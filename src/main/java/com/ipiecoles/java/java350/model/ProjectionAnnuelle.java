@@ -0,0 +1,51 @@
+package com.ipiecoles.java.java350.model;
+
+/**
+ * Budgets de primes, congés et RTT de tout l'effectif pour une année, à effectif constant.
+ */
+public final class ProjectionAnnuelle {
+
+    private final int annee;
+
+    private final long nbEmployes;
+
+    private final double totalPrimes;
+
+    private final long totalConges;
+
+    private final long totalRtt;
+
+    public ProjectionAnnuelle(int annee, long nbEmployes, double totalPrimes, long totalConges, long totalRtt) {
+        this.annee = annee;
+        this.nbEmployes = nbEmployes;
+        this.totalPrimes = totalPrimes;
+        this.totalConges = totalConges;
+        this.totalRtt = totalRtt;
+    }
+
+    public int getAnnee() {
+        return annee;
+    }
+
+    public long getNbEmployes() {
+        return nbEmployes;
+    }
+
+    /**
+     * @return la somme des primes annuelles, hors employés sans taux d'activité
+     */
+    public double getTotalPrimes() {
+        return totalPrimes;
+    }
+
+    public long getTotalConges() {
+        return totalConges;
+    }
+
+    /**
+     * @return le nombre total de RTT, hors employés sans taux d'activité
+     */
+    public long getTotalRtt() {
+        return totalRtt;
+    }
+}
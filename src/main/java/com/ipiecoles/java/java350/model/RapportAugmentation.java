@@ -0,0 +1,37 @@
+package com.ipiecoles.java.java350.model;
+
+/**
+ * Compte-rendu d'une augmentation de salaire, individuelle ou par segment d'employés.
+ */
+public class RapportAugmentation {
+
+    private final double pourcentage;
+
+    private final long nbEmployes;
+
+    private final double augmentationMasseSalariale;
+
+    public RapportAugmentation(double pourcentage, long nbEmployes, double augmentationMasseSalariale) {
+        this.pourcentage = pourcentage;
+        this.nbEmployes = nbEmployes;
+        this.augmentationMasseSalariale = augmentationMasseSalariale;
+    }
+
+    public double getPourcentage() {
+        return pourcentage;
+    }
+
+    /**
+     * @return le nombre d'employés dont le salaire a été augmenté
+     */
+    public long getNbEmployes() {
+        return nbEmployes;
+    }
+
+    /**
+     * @return l'augmentation de la masse salariale qui en résulte
+     */
+    public double getAugmentationMasseSalariale() {
+        return augmentationMasseSalariale;
+    }
+}
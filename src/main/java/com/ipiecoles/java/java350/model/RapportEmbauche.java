@@ -0,0 +1,44 @@
+package com.ipiecoles.java.java350.model;
+
+import java.util.List;
+
+/**
+ * Compte-rendu d'une embauche groupée : résultat de chaque ligne et débit obtenu.
+ */
+public class RapportEmbauche {
+
+    private final List<ResultatEmbauche> resultats;
+
+    private final long dureeNanos;
+
+    public RapportEmbauche(List<ResultatEmbauche> resultats, long dureeNanos) {
+        this.resultats = resultats;
+        this.dureeNanos = dureeNanos;
+    }
+
+    public List<ResultatEmbauche> getResultats() {
+        return resultats;
+    }
+
+    public long getNbEmbauches() {
+        return resultats.stream().filter(ResultatEmbauche::isSucces).count();
+    }
+
+    public long getNbRejets() {
+        return resultats.size() - getNbEmbauches();
+    }
+
+    public long getDureeNanos() {
+        return dureeNanos;
+    }
+
+    /**
+     * @return le nombre d'embauches effectuées par seconde
+     */
+    public double getDebit() {
+        if(dureeNanos == 0){
+            return 0d;
+        }
+        return getNbEmbauches() * 1_000_000_000d / dureeNanos;
+    }
+}
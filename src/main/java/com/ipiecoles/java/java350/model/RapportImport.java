@@ -0,0 +1,54 @@
+package com.ipiecoles.java.java350.model;
+
+/**
+ * Compte-rendu d'un import d'employés depuis un fichier : lignes lues, embauches, rejets et débit obtenu.
+ */
+public class RapportImport {
+
+    private final long nbLignes;
+
+    private final long nbEmbauches;
+
+    private final long nbRejets;
+
+    private final long dureeNanos;
+
+    public RapportImport(long nbLignes, long nbEmbauches, long nbRejets, long dureeNanos) {
+        this.nbLignes = nbLignes;
+        this.nbEmbauches = nbEmbauches;
+        this.nbRejets = nbRejets;
+        this.dureeNanos = dureeNanos;
+    }
+
+    /**
+     * @return le nombre de lignes de données lues, entête exclue
+     */
+    public long getNbLignes() {
+        return nbLignes;
+    }
+
+    public long getNbEmbauches() {
+        return nbEmbauches;
+    }
+
+    /**
+     * @return le nombre de lignes écrites dans le fichier des rejets
+     */
+    public long getNbRejets() {
+        return nbRejets;
+    }
+
+    public long getDureeNanos() {
+        return dureeNanos;
+    }
+
+    /**
+     * @return le nombre de lignes traitées par seconde
+     */
+    public double getDebit() {
+        if(dureeNanos == 0){
+            return 0d;
+        }
+        return nbLignes * 1_000_000_000d / dureeNanos;
+    }
+}
@@ -0,0 +1,43 @@
+package com.ipiecoles.java.java350.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compte-rendu d'un calcul en masse de la performance des commerciaux.
+ */
+public class RapportPerformance {
+
+    private long nbMisesAJour;
+
+    private final List<ErreurBilan> erreurs = new ArrayList<>();
+
+    private long dureeNanos;
+
+    public void ajouterMisesAJour(long nombre) {
+        nbMisesAJour += nombre;
+    }
+
+    public void ajouterErreur(String matricule, String erreur) {
+        erreurs.add(new ErreurBilan(matricule, erreur));
+    }
+
+    public long getNbMisesAJour() {
+        return nbMisesAJour;
+    }
+
+    /**
+     * @return les bilans non traités dans l'ordre de leur rejet, un même matricule pouvant apparaître plusieurs fois
+     */
+    public List<ErreurBilan> getErreurs() {
+        return erreurs;
+    }
+
+    public long getDureeNanos() {
+        return dureeNanos;
+    }
+
+    public void setDureeNanos(long dureeNanos) {
+        this.dureeNanos = dureeNanos;
+    }
+}
@@ -0,0 +1,47 @@
+package com.ipiecoles.java.java350.model;
+
+/**
+ * Résultat de l'embauche d'une ligne d'une embauche groupée : le matricule attribué en cas de succès,
+ * le motif du rejet sinon.
+ */
+public class ResultatEmbauche {
+
+    private final int ligne;
+
+    private final String matricule;
+
+    private final String erreur;
+
+    private ResultatEmbauche(int ligne, String matricule, String erreur) {
+        this.ligne = ligne;
+        this.matricule = matricule;
+        this.erreur = erreur;
+    }
+
+    public static ResultatEmbauche succes(int ligne, String matricule) {
+        return new ResultatEmbauche(ligne, matricule, null);
+    }
+
+    public static ResultatEmbauche echec(int ligne, String erreur) {
+        return new ResultatEmbauche(ligne, null, erreur);
+    }
+
+    /**
+     * @return l'index de la demande dans la liste soumise
+     */
+    public int getLigne() {
+        return ligne;
+    }
+
+    public String getMatricule() {
+        return matricule;
+    }
+
+    public String getErreur() {
+        return erreur;
+    }
+
+    public boolean isSucces() {
+        return erreur == null;
+    }
+}
@@ -0,0 +1,42 @@
+package com.ipiecoles.java.java350.model;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+/**
+ * Compteur persistant des numéros de matricule. Chaque ligne mémorise le prochain numéro
+ * non encore réservé : les numéros sont distribués par blocs, si bien qu'un redémarrage
+ * de l'application ne peut jamais réattribuer un numéro déjà réservé.
+ */
+@Entity
+public class SequenceMatricule {
+
+    @Id
+    private String nom;
+
+    private Integer prochainNumero;
+
+    public SequenceMatricule() {
+    }
+
+    public SequenceMatricule(String nom, Integer prochainNumero) {
+        this.nom = nom;
+        this.prochainNumero = prochainNumero;
+    }
+
+    public String getNom() {
+        return nom;
+    }
+
+    public void setNom(String nom) {
+        this.nom = nom;
+    }
+
+    public Integer getProchainNumero() {
+        return prochainNumero;
+    }
+
+    public void setProchainNumero(Integer prochainNumero) {
+        this.prochainNumero = prochainNumero;
+    }
+}
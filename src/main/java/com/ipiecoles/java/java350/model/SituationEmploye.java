@@ -0,0 +1,72 @@
+package com.ipiecoles.java.java350.model;
+
+import java.time.LocalDate;
+
+/**
+ * Ancienneté, congés, RTT et prime annuelle d'un employé évalués à une date de référence
+ * (cf. {@link Employe#getPrimeAnnuelle(LocalDate)}).
+ */
+public final class SituationEmploye {
+
+    private final String matricule;
+
+    private final LocalDate dateReference;
+
+    private final int anciennete;
+
+    private final int nbConges;
+
+    private final Integer nbRtt;
+
+    private final Double primeAnnuelle;
+
+    private SituationEmploye(String matricule, LocalDate dateReference, int anciennete, int nbConges, Integer nbRtt, Double primeAnnuelle) {
+        this.matricule = matricule;
+        this.dateReference = dateReference;
+        this.anciennete = anciennete;
+        this.nbConges = nbConges;
+        this.nbRtt = nbRtt;
+        this.primeAnnuelle = primeAnnuelle;
+    }
+
+    /**
+     * Évaluation de la situation d'un employé. Les RTT et la prime ne peuvent être calculés sans taux d'activité.
+     *
+     * @param employe L'employé
+     * @param dateReference La date à laquelle la situation est évaluée
+     *
+     * @return la situation de l'employé à cette date
+     */
+    public static SituationEmploye de(Employe employe, LocalDate dateReference) {
+        boolean calculable = employe.getTempsPartiel() != null;
+        return new SituationEmploye(employe.getMatricule(), dateReference,
+                employe.getNombreAnneeAnciennete(dateReference),
+                employe.getNbConges(dateReference),
+                calculable ? employe.getNbRtt(dateReference) : null,
+                calculable ? employe.getPrimeAnnuelle(dateReference) : null);
+    }
+
+    public String getMatricule() {
+        return matricule;
+    }
+
+    public LocalDate getDateReference() {
+        return dateReference;
+    }
+
+    public int getAnciennete() {
+        return anciennete;
+    }
+
+    public int getNbConges() {
+        return nbConges;
+    }
+
+    public Integer getNbRtt() {
+        return nbRtt;
+    }
+
+    public Double getPrimeAnnuelle() {
+        return primeAnnuelle;
+    }
+}
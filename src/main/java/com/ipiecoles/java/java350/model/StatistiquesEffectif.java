@@ -0,0 +1,65 @@
+package com.ipiecoles.java.java350.model;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Instantané des statistiques de l'effectif, calculé en une seule transaction : tous les regroupements
+ * portent sur les mêmes employés.
+ */
+public final class StatistiquesEffectif {
+
+    private final LocalDateTime dateCalcul;
+
+    private final List<StatistiquesGroupe> parTypeMatricule;
+
+    private final List<StatistiquesGroupe> parTempsPartiel;
+
+    private final List<StatistiquesGroupe> parAnneeEmbauche;
+
+    private final Map<String, Map<Integer, Long>> histogrammePerformances;
+
+    public StatistiquesEffectif(LocalDateTime dateCalcul, List<StatistiquesGroupe> parTypeMatricule, List<StatistiquesGroupe> parTempsPartiel,
+                                List<StatistiquesGroupe> parAnneeEmbauche, Map<String, Map<Integer, Long>> histogrammePerformances) {
+        this.dateCalcul = dateCalcul;
+        this.parTypeMatricule = Collections.unmodifiableList(parTypeMatricule);
+        this.parTempsPartiel = Collections.unmodifiableList(parTempsPartiel);
+        this.parAnneeEmbauche = Collections.unmodifiableList(parAnneeEmbauche);
+        this.histogrammePerformances = Collections.unmodifiableMap(histogrammePerformances);
+    }
+
+    public LocalDateTime getDateCalcul() {
+        return dateCalcul;
+    }
+
+    /**
+     * @return un groupe par première lettre de matricule, c'est-à-dire par poste (T, M, C)
+     */
+    public List<StatistiquesGroupe> getParTypeMatricule() {
+        return parTypeMatricule;
+    }
+
+    /**
+     * @return un groupe par taux d'activité
+     */
+    public List<StatistiquesGroupe> getParTempsPartiel() {
+        return parTempsPartiel;
+    }
+
+    /**
+     * @return un groupe par année d'embauche
+     */
+    public List<StatistiquesGroupe> getParAnneeEmbauche() {
+        return parAnneeEmbauche;
+    }
+
+    /**
+     * @return pour chaque première lettre de matricule, le nombre d'employés de chaque niveau de performance.
+     * Les employés sans matricule ou sans performance n'y figurent pas, mais sont comptés dans les groupes.
+     */
+    public Map<String, Map<Integer, Long>> getHistogrammePerformances() {
+        return histogrammePerformances;
+    }
+}
@@ -0,0 +1,49 @@
+package com.ipiecoles.java.java350.model;
+
+/**
+ * Effectif, salaires et performance moyenne d'un groupe d'employés, calculés par la BDD
+ * (cf. les requêtes statistiques* de EmployeRepository).
+ */
+public final class StatistiquesGroupe {
+
+    private final Object cle;
+
+    private final long nbEmployes;
+
+    private final Double salaireMoyen;
+
+    private final Double masseSalariale;
+
+    private final Double performanceMoyenne;
+
+    public StatistiquesGroupe(Object cle, Long nbEmployes, Double salaireMoyen, Double masseSalariale, Double performanceMoyenne) {
+        this.cle = cle;
+        this.nbEmployes = nbEmployes == null ? 0 : nbEmployes;
+        this.salaireMoyen = salaireMoyen;
+        this.masseSalariale = masseSalariale;
+        this.performanceMoyenne = performanceMoyenne;
+    }
+
+    /**
+     * @return la valeur commune aux employés du groupe : préfixe du matricule, taux d'activité ou année d'embauche
+     */
+    public Object getCle() {
+        return cle;
+    }
+
+    public long getNbEmployes() {
+        return nbEmployes;
+    }
+
+    public Double getSalaireMoyen() {
+        return salaireMoyen;
+    }
+
+    public Double getMasseSalariale() {
+        return masseSalariale;
+    }
+
+    public Double getPerformanceMoyenne() {
+        return performanceMoyenne;
+    }
+}
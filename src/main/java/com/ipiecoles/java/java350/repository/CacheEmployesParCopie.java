@@ -0,0 +1,106 @@
+package com.ipiecoles.java.java350.repository;
+
+import com.ipiecoles.java.java350.model.Employe;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.CacheOperationInvocationContext;
+import org.springframework.cache.interceptor.SimpleCacheResolver;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+
+/**
+ * Résolution des caches d'employés pour {@link EmployeRepository#findByMatricule(String)} : le cache configuré
+ * (spring.cache.type) ne conserve qu'une copie des employés lus en BDD et en renvoie une nouvelle copie à chaque
+ * succès. Un employé mis en cache n'est ainsi jamais partagé entre appelants ni rattaché à une session Hibernate,
+ * et la modification non sauvegardée d'un appelant n'est pas vue par les autres.
+ */
+@Component(CacheEmployesParCopie.NOM)
+public class CacheEmployesParCopie extends SimpleCacheResolver {
+    public static final String NOM = "cacheEmployesParCopie";
+
+    public CacheEmployesParCopie(CacheManager cacheManager) {
+        super(cacheManager);
+    }
+
+    @Override
+    public Collection<? extends Cache> resolveCaches(CacheOperationInvocationContext<?> context) {
+        return super.resolveCaches(context).stream().map(CacheParCopie::new).collect(Collectors.toList());
+    }
+
+    private static Object copie(Object valeur) {
+        return valeur instanceof Employe ? ((Employe) valeur).copie() : valeur;
+    }
+
+    private static Cache.ValueWrapper copie(Cache.ValueWrapper valeur) {
+        return valeur == null ? null : new SimpleValueWrapper(copie(valeur.get()));
+    }
+
+    private static final class CacheParCopie implements Cache {
+        private final Cache cache;
+
+        private CacheParCopie(Cache cache) {
+            this.cache = cache;
+        }
+
+        @Override
+        public String getName() {
+            return cache.getName();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return cache.getNativeCache();
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            return copie(cache.get(key));
+        }
+
+        @Override
+        public <T> T get(Object key, Class<T> type) {
+            return type == null ? null : type.cast(copie(cache.get(key, type)));
+        }
+
+        @Override
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            @SuppressWarnings("unchecked")
+            T valeur = (T) copie(cache.get(key, () -> copie(valueLoader.call())));
+            return valeur;
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            cache.put(key, copie(value));
+        }
+
+        @Override
+        public ValueWrapper putIfAbsent(Object key, Object value) {
+            return copie(cache.putIfAbsent(key, copie(value)));
+        }
+
+        @Override
+        public void evict(Object key) {
+            cache.evict(key);
+        }
+
+        @Override
+        public boolean evictIfPresent(Object key) {
+            return cache.evictIfPresent(key);
+        }
+
+        @Override
+        public void clear() {
+            cache.clear();
+        }
+
+        @Override
+        public boolean invalidate() {
+            return cache.invalidate();
+        }
+    }
+}
@@ -1,19 +1,242 @@
 package com.ipiecoles.java.java350.repository;
 
+import com.ipiecoles.java.java350.model.CohorteEmploye;
 import com.ipiecoles.java.java350.model.Employe;
+import com.ipiecoles.java.java350.model.EmployeResume;
+import com.ipiecoles.java.java350.model.StatistiquesGroupe;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.QueryHint;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface EmployeRepository extends JpaRepository<Employe, Long> {
-    @Query("select max(substring(matricule,2)) from Employe")
-    String findLastMatricule();
+public interface EmployeRepository extends JpaRepository<Employe, Long>, EmployeRepositoryCustom {
+    String CACHE_EMPLOYES = "employes";
 
+    /**
+     * @param typeMatricule La première lettre du matricule
+     *
+     * @return le plus grand numéro de matricule de ce type, lu dans l'index (typeMatricule, numeroMatricule)
+     */
+    @Query("select max(numeroMatricule) from Employe where typeMatricule = ?1")
+    Integer findLastNumeroMatricule(String typeMatricule);
+
+    /**
+     * Recherche d'un employé par matricule, au travers du cache {@link #CACHE_EMPLOYES}. L'absence d'employé
+     * n'est pas mise en cache. L'entrée d'un employé est invalidée à chaque sauvegarde ou suppression.
+     * Le cache ne conserve qu'une copie de l'employé et en renvoie une nouvelle à chaque appel (cf. {@link CacheEmployesParCopie}) :
+     * un appelant peut modifier l'employé reçu sans que les autres voient cette modification, sauvegardée ou non.
+     */
+    @Cacheable(cacheNames = CACHE_EMPLOYES, key = "#p0", unless = "#result == null", cacheResolver = CacheEmployesParCopie.NOM)
     Employe findByMatricule(String matricule);
 
-    @Query("select avg(performance) from Employe where SUBSTRING(matricule,0,1) = ?1 ")
+    @Override
+    @CacheEvict(cacheNames = CACHE_EMPLOYES, key = "#p0.matricule", condition = "#p0.matricule != null")
+    <S extends Employe> S save(S employe);
+
+    @Override
+    @CacheEvict(cacheNames = CACHE_EMPLOYES, key = "#p0.matricule", condition = "#p0.matricule != null")
+    <S extends Employe> S saveAndFlush(S employe);
+
+    @Override
+    @CacheEvict(cacheNames = CACHE_EMPLOYES, allEntries = true)
+    <S extends Employe> List<S> saveAll(Iterable<S> employes);
+
+    @Override
+    @CacheEvict(cacheNames = CACHE_EMPLOYES, key = "#p0.matricule", condition = "#p0.matricule != null")
+    void delete(Employe employe);
+
+    @Override
+    @CacheEvict(cacheNames = CACHE_EMPLOYES, allEntries = true)
+    void deleteById(Long id);
+
+    @Override
+    @CacheEvict(cacheNames = CACHE_EMPLOYES, allEntries = true)
+    void deleteAll(Iterable<? extends Employe> employes);
+
+    @Override
+    @CacheEvict(cacheNames = CACHE_EMPLOYES, allEntries = true)
+    void deleteAll();
+
+    @Override
+    @CacheEvict(cacheNames = CACHE_EMPLOYES, allEntries = true)
+    void deleteInBatch(Iterable<Employe> employes);
+
+    @Override
+    @CacheEvict(cacheNames = CACHE_EMPLOYES, allEntries = true)
+    void deleteAllInBatch();
+
+    /**
+     * Recherche d'un employé par matricule directement en BDD, sans passer par le cache {@link #CACHE_EMPLOYES}
+     */
+    Employe readByMatricule(String matricule);
+
+    /**
+     * Retire un employé du cache, pour qu'il soit relu en BDD à la prochaine recherche
+     */
+    @CacheEvict(cacheNames = CACHE_EMPLOYES, key = "#p0")
+    default void oublier(String matricule) {
+    }
+
+    /**
+     * Calcul et mise à jour de la performance d'un employé en une seule requête, sans lecture préalable :
+     * si la performance augmentée de la variation est inférieure au seuil, elle est remplacée par la valeur
+     * plancher ; sinon elle gagne 1 de plus si elle dépasse le seuil du bonus. La version est incrémentée.
+     *
+     * @param matricule Le matricule de l'employé
+     * @param variation La variation de la performance actuelle
+     * @param seuil En dessous de ce seuil, la performance prend la valeur plancher
+     * @param plancher La valeur plancher, bonus déjà compris
+     * @param seuilBonus La performance gagne 1 si elle est strictement supérieure à ce seuil
+     *
+     * @return le nombre d'employés mis à jour (0 si le matricule n'existe pas)
+     */
+    @Modifying
+    @Transactional
+    @CacheEvict(cacheNames = CACHE_EMPLOYES, key = "#p0")
+    @Query("update Employe e set e.performance = case"
+            + " when e.performance is null or (e.performance + ?2) < ?3 then ?4"
+            + " when (e.performance + ?2) > ?5 then (e.performance + ?2 + 1)"
+            + " else (e.performance + ?2) end,"
+            + " e.version = coalesce(e.version, 0) + 1"
+            + " where e.matricule = ?1")
+    int modifierPerformance(String matricule, int variation, int seuil, int plancher, int seuilBonus);
+
+    @Query("select avg(performance) from Employe where typeMatricule = ?1")
     Double avgPerformanceWhereMatriculeStartsWith(String premiereLettreMatricule);
+
+    @Query("select typeMatricule, sum(performance), count(performance) from Employe group by typeMatricule")
+    List<Object[]> sommePerformanceParPremiereLettreMatricule();
+
+    @Query("select new com.ipiecoles.java.java350.model.StatistiquesGroupe(e.typeMatricule, count(e), avg(e.salaire), sum(e.salaire), avg(e.performance))"
+            + " from Employe e group by e.typeMatricule order by e.typeMatricule")
+    List<StatistiquesGroupe> statistiquesParTypeMatricule();
+
+    @Query("select new com.ipiecoles.java.java350.model.StatistiquesGroupe(e.tempsPartiel, count(e), avg(e.salaire), sum(e.salaire), avg(e.performance))"
+            + " from Employe e group by e.tempsPartiel order by e.tempsPartiel")
+    List<StatistiquesGroupe> statistiquesParTempsPartiel();
+
+    @Query("select new com.ipiecoles.java.java350.model.StatistiquesGroupe(year(e.dateEmbauche), count(e), avg(e.salaire), sum(e.salaire), avg(e.performance))"
+            + " from Employe e group by year(e.dateEmbauche) order by year(e.dateEmbauche)")
+    List<StatistiquesGroupe> statistiquesParAnneeEmbauche();
+
+    /**
+     * @return le nombre d'employés par première lettre de matricule et par performance : [typeMatricule, performance, nombre].
+     * Les employés sans matricule ou sans performance ne sont pas comptés.
+     */
+    @Query("select e.typeMatricule, e.performance, count(e) from Employe e where e.typeMatricule is not null and e.performance is not null"
+            + " group by e.typeMatricule, e.performance order by e.typeMatricule, e.performance")
+    List<Object[]> histogrammePerformances();
+
+    /**
+     * @return les employés regroupés par données d'entrée du calcul de la prime, des congés et des RTT
+     */
+    @Query("select new com.ipiecoles.java.java350.model.CohorteEmploye(e.typeMatricule, e.performance, year(e.dateEmbauche), e.tempsPartiel, count(e))"
+            + " from Employe e group by e.typeMatricule, e.performance, year(e.dateEmbauche), e.tempsPartiel")
+    List<CohorteEmploye> findCohortes();
+
+    /**
+     * Lecture au fil de l'eau des données de l'instantané en mémoire de l'effectif (cf. InstantaneEffectif) :
+     * [matricule, performance, salaire, tempsPartiel, dateEmbauche]. Les employés sans matricule, que l'instantané
+     * ne peut indexer, sont ignorés. À consommer dans une transaction, puis à fermer.
+     * Sur MySQL, le fetch size n'est respecté qu'avec la propriété de connexion useCursorFetch (cf. application-prod.properties).
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select matricule, performance, salaire, tempsPartiel, dateEmbauche from Employe where matricule is not null")
+    Stream<Object[]> streamDonneesInstantane();
+
+    @Query("select matricule, performance, dateEmbauche, tempsPartiel from Employe")
+    List<Object[]> findDonneesPrimes();
+
+    /**
+     * Page de résumés d'employés par ordre d'id, à partir du dernier id de la page précédente : le début
+     * de la page est trouvé par la clé primaire, quel que soit le nombre de pages qui précèdent.
+     * La requête ne provoque pas l'écriture en BDD des modifications en attente dans la transaction courante.
+     *
+     * @param apresId L'id du dernier employé de la page précédente, null pour la première page
+     * @param taille Le nombre maximum de résumés
+     */
+    default List<EmployeResume> findResumesParId(Long apresId, int taille) {
+        return findResumesApresId(apresId == null ? Long.MIN_VALUE : apresId, PageRequest.of(0, taille));
+    }
+
+    /**
+     * Page de résumés d'employés par ordre de matricule, à partir du dernier matricule de la page précédente
+     * (recherche par l'index unique du matricule)
+     *
+     * @param apresMatricule Le matricule du dernier employé de la page précédente, null pour la première page
+     * @param taille Le nombre maximum de résumés
+     */
+    default List<EmployeResume> findResumesParMatricule(String apresMatricule, int taille) {
+        return findResumesApresMatricule(apresMatricule == null ? "" : apresMatricule, PageRequest.of(0, taille));
+    }
+
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query("select new com.ipiecoles.java.java350.model.EmployeResume(e.id, e.matricule, e.nom, e.performance, e.salaire)"
+            + " from Employe e where e.id > ?1 order by e.id")
+    List<EmployeResume> findResumesApresId(Long apresId, Pageable pageable);
+
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query("select new com.ipiecoles.java.java350.model.EmployeResume(e.id, e.matricule, e.nom, e.performance, e.salaire)"
+            + " from Employe e where e.matricule > ?1 order by e.matricule")
+    List<EmployeResume> findResumesApresMatricule(String apresMatricule, Pageable pageable);
+
+    /**
+     * Parcours de tous les employés au fil de l'eau, par paquets de 500 lignes. Doit être appelé dans une
+     * transaction et le flux doit être fermé après utilisation. Sur MySQL, les paquets supposent la propriété
+     * de connexion useCursorFetch, sans laquelle le driver charge tout le résultat en mémoire.
+     */
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    @Query("select e from Employe e order by e.id")
+    Stream<Employe> streamAll();
+
+    /**
+     * Partie du matricule suivant sa première lettre, privée de ses chiffres : vide si cette partie n'est faite que de chiffres
+     */
+    String MATRICULE_SANS_CHIFFRES = "function('replace', function('replace', function('replace', function('replace', function('replace',"
+            + " function('replace', function('replace', function('replace', function('replace', function('replace', substring(matricule, 2),"
+            + " '0', ''), '1', ''), '2', ''), '3', ''), '4', ''), '5', ''), '6', ''), '7', ''), '8', ''), '9', '')";
+
+    /**
+     * Renseigne le type et le numéro des matricules des employés enregistrés avant l'ajout de ces colonnes, selon les
+     * mêmes règles que {@link Employe#setMatricule(String)} : le numéro reste null si la suite du matricule n'est pas
+     * faite uniquement de chiffres. Au delà de 9 chiffres, la largeur maximale des matricules, il reste aussi null.
+     *
+     * @return le nombre d'employés mis à jour
+     */
+    @Modifying
+    @Transactional
+    @CacheEvict(cacheNames = CACHE_EMPLOYES, allEntries = true)
+    @Query("update Employe set typeMatricule = substring(matricule, 1, 1), numeroMatricule = case"
+            + " when length(matricule) between 2 and 10 and " + MATRICULE_SANS_CHIFFRES + " = ''"
+            + " then cast(substring(matricule, 2) as integer) else null end"
+            + " where typeMatricule is null and length(matricule) > 0")
+    int migrerMatricules();
+
+    /**
+     * Passe à 0 la version des employés enregistrés avant l'ajout du verrouillage optimiste : une version nulle
+     * ferait échouer leur première sauvegarde et resterait nulle après une mise à jour en BDD
+     *
+     * @return le nombre d'employés mis à jour
+     */
+    @Modifying
+    @Transactional
+    @CacheEvict(cacheNames = CACHE_EMPLOYES, allEntries = true)
+    @Query("update Employe set version = 0 where version is null")
+    int initialiserVersions();
 }
@@ -0,0 +1,59 @@
+package com.ipiecoles.java.java350.repository;
+
+import com.ipiecoles.java.java350.model.Employe;
+import com.ipiecoles.java.java350.model.FiltreEmploye;
+import com.ipiecoles.java.java350.model.RapportAugmentation;
+import org.springframework.cache.annotation.CacheEvict;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface EmployeRepositoryCustom {
+
+    /**
+     * Insère les employés en BDD par lots JDBC de la taille indiquée.
+     *
+     * @param employes Les nouveaux employés à insérer
+     * @param tailleLot Le nombre d'insertions envoyées à la BDD en une seule fois
+     */
+    void insererParLots(List<Employe> employes, int tailleLot);
+
+    /**
+     * Charge en une requête les employés dont les matricules sont donnés, leur applique la modification
+     * puis envoie les mises à jour à la BDD par lots JDBC, le tout dans une seule transaction.
+     *
+     * @param matricules Les matricules des employés à modifier
+     * @param modification La modification à appliquer à chaque employé
+     * @param tailleLot Le nombre de mises à jour envoyées à la BDD en une seule fois
+     *
+     * @return les employés trouvés et modifiés
+     */
+    @CacheEvict(cacheNames = EmployeRepository.CACHE_EMPLOYES, allEntries = true)
+    List<Employe> modifierParLots(Collection<String> matricules, Consumer<Employe> modification, int tailleLot);
+
+    /**
+     * Augmente le salaire d'un employé par une seule requête de mise à jour, sans charger l'entité.
+     * La version est incrémentée.
+     *
+     * @param matricule Le matricule de l'employé
+     * @param pourcentage Le pourcentage d'augmentation (cf. {@link Employe#facteurAugmentation(double)})
+     *
+     * @return le rapport, sans employé si le matricule n'existe pas
+     */
+    @CacheEvict(cacheNames = EmployeRepository.CACHE_EMPLOYES, key = "#p0")
+    RapportAugmentation augmenterSalaire(String matricule, double pourcentage);
+
+    /**
+     * Augmente le salaire de tous les employés du segment par une seule requête de mise à jour, sans charger
+     * les entités. La version est incrémentée. L'augmentation de la masse salariale est calculée par la BDD,
+     * dans la même transaction, à partir des salaires lus juste avant la mise à jour.
+     *
+     * @param segment Le filtre désignant les employés à augmenter
+     * @param pourcentage Le pourcentage d'augmentation (cf. {@link Employe#facteurAugmentation(double)})
+     *
+     * @return le rapport donnant le nombre d'employés augmentés et l'augmentation de la masse salariale
+     */
+    @CacheEvict(cacheNames = EmployeRepository.CACHE_EMPLOYES, allEntries = true)
+    RapportAugmentation augmenterSalaires(FiltreEmploye segment, double pourcentage);
+}
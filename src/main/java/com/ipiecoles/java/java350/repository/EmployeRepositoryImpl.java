@@ -0,0 +1,108 @@
+package com.ipiecoles.java.java350.repository;
+
+import com.ipiecoles.java.java350.model.Employe;
+import com.ipiecoles.java.java350.model.FiltreEmploye;
+import com.ipiecoles.java.java350.model.RapportAugmentation;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+public class EmployeRepositoryImpl implements EmployeRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Le contexte de persistance est vidé après chaque lot pour que la mémoire consommée
+     * ne dépende pas du nombre d'employés insérés.
+     */
+    @Override
+    @Transactional
+    public void insererParLots(List<Employe> employes, int tailleLot) {
+        Session session = entityManager.unwrap(Session.class);
+        Integer tailleLotPrecedente = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(tailleLot);
+        try {
+            int i = 0;
+            for(Employe employe : employes){
+                entityManager.persist(employe);
+                if(++i % tailleLot == 0){
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+        } finally {
+            session.setJdbcBatchSize(tailleLotPrecedente);
+        }
+    }
+
+    @Override
+    @Transactional
+    public List<Employe> modifierParLots(Collection<String> matricules, Consumer<Employe> modification, int tailleLot) {
+        if(matricules.isEmpty()){
+            return Collections.emptyList();
+        }
+        Session session = entityManager.unwrap(Session.class);
+        Integer tailleLotPrecedente = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(tailleLot);
+        try {
+            List<Employe> employes = entityManager.createQuery("select e from Employe e where e.matricule in :matricules", Employe.class)
+                    .setParameter("matricules", matricules)
+                    .getResultList();
+            employes.forEach(modification);
+            entityManager.flush();
+            entityManager.clear();
+            return employes;
+        } finally {
+            session.setJdbcBatchSize(tailleLotPrecedente);
+        }
+    }
+
+    @Override
+    @Transactional
+    public RapportAugmentation augmenterSalaire(String matricule, double pourcentage) {
+        return augmenter((cb, employe) -> cb.equal(employe.get("matricule"), matricule), pourcentage);
+    }
+
+    @Override
+    @Transactional
+    public RapportAugmentation augmenterSalaires(FiltreEmploye segment, double pourcentage) {
+        return augmenter(segment::predicat, pourcentage);
+    }
+
+    /**
+     * Somme des salaires concernés puis mise à jour, chacune en une requête sur les employés retenus par la condition
+     */
+    private RapportAugmentation augmenter(BiFunction<CriteriaBuilder, Root<Employe>, Predicate> condition, double pourcentage) {
+        double facteur = Employe.facteurAugmentation(pourcentage);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Double> masseSalariale = cb.createQuery(Double.class);
+        Root<Employe> employe = masseSalariale.from(Employe.class);
+        masseSalariale.select(cb.sum(employe.<Double>get("salaire"))).where(condition.apply(cb, employe));
+        Double masseSalarialeAvant = entityManager.createQuery(masseSalariale).getSingleResult();
+
+        CriteriaUpdate<Employe> augmentation = cb.createCriteriaUpdate(Employe.class);
+        Root<Employe> employeModifie = augmentation.from(Employe.class);
+        augmentation.set(employeModifie.<Double>get("salaire"), cb.prod(employeModifie.<Double>get("salaire"), facteur))
+                .set(employeModifie.<Long>get("version"), cb.sum(cb.coalesce(employeModifie.<Long>get("version"), 0L), 1L))
+                .where(condition.apply(cb, employeModifie));
+        int nbEmployes = entityManager.createQuery(augmentation).executeUpdate();
+
+        return new RapportAugmentation(pourcentage, nbEmployes, masseSalarialeAvant == null ? 0 : masseSalarialeAvant * (facteur - 1));
+    }
+}
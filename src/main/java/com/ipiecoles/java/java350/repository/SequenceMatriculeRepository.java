@@ -0,0 +1,9 @@
+package com.ipiecoles.java.java350.repository;
+
+import com.ipiecoles.java.java350.model.SequenceMatricule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SequenceMatriculeRepository extends JpaRepository<SequenceMatricule, String>, SequenceMatriculeRepositoryCustom {
+}
@@ -0,0 +1,17 @@
+package com.ipiecoles.java.java350.repository;
+
+import java.util.function.IntSupplier;
+
+public interface SequenceMatriculeRepositoryCustom {
+
+    /**
+     * Réserve de manière atomique un bloc de numéros consécutifs dans la séquence donnée.
+     *
+     * @param nom Le nom de la séquence
+     * @param taille Le nombre de numéros à réserver
+     * @param valeurInitiale Fournit le premier numéro si la séquence n'existe pas encore en BDD
+     *
+     * @return le premier numéro du bloc réservé
+     */
+    int reserver(String nom, int taille, IntSupplier valeurInitiale);
+}
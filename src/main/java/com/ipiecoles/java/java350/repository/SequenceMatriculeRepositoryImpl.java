@@ -0,0 +1,33 @@
+package com.ipiecoles.java.java350.repository;
+
+import com.ipiecoles.java.java350.model.SequenceMatricule;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceContext;
+import java.util.function.IntSupplier;
+
+public class SequenceMatriculeRepositoryImpl implements SequenceMatriculeRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * La réservation se fait dans sa propre transaction, avec un verrou sur la ligne de la séquence,
+     * pour que le bloc soit acquis même si la transaction appelante est annulée par la suite.
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int reserver(String nom, int taille, IntSupplier valeurInitiale) {
+        SequenceMatricule sequence = entityManager.find(SequenceMatricule.class, nom, LockModeType.PESSIMISTIC_WRITE);
+        if(sequence == null){
+            sequence = new SequenceMatricule(nom, valeurInitiale.getAsInt());
+            entityManager.persist(sequence);
+        }
+        int debut = sequence.getProchainNumero();
+        sequence.setProchainNumero(debut + taille);
+        return debut;
+    }
+}
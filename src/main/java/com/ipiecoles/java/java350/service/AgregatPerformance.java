@@ -0,0 +1,140 @@
+package com.ipiecoles.java.java350.service;
+
+import com.ipiecoles.java.java350.repository.EmployeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Somme et nombre des performances des employés, par première lettre de matricule (C, M, T...),
+ * tenus à jour à chaque sauvegarde d'une performance par {@link EmployeService}. La moyenne
+ * d'un type d'employé est ainsi obtenue sans requête.
+ *
+ * Les modifications faites sans passer par {@link EmployeService} ne sont pas prises en compte :
+ * l'agrégat est reconstruit à partir de la BDD à sa première utilisation puis périodiquement,
+ * et les écarts constatés sont tracés.
+ */
+@Component
+public class AgregatPerformance {
+    private Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    @Autowired
+    private EmployeRepository employeRepository;
+
+    private volatile Map<Character, Compteur> compteurs = new ConcurrentHashMap<>();
+
+    private volatile boolean initialise = false;
+
+    /**
+     * Méthode renvoyant la moyenne des performances des employés dont le matricule commence par le préfixe donné
+     *
+     * @param prefixe La première lettre du matricule
+     *
+     * @return la moyenne, ou null s'il n'y a aucun employé de ce type
+     */
+    public Double moyenne(String prefixe) {
+        if(!initialise){
+            reconcilier();
+        }
+        Compteur compteur = compteurs.get(prefixe.charAt(0));
+        return compteur == null ? null : compteur.moyenne();
+    }
+
+    /**
+     * Prise en compte de la performance d'un nouvel employé
+     */
+    public void ajouter(String matricule, Integer performance) {
+        modifier(matricule, null, performance);
+    }
+
+    /**
+     * Prise en compte du changement de performance d'un employé
+     *
+     * @param matricule Le matricule de l'employé
+     * @param anciennePerformance La performance avant modification, null pour un nouvel employé
+     * @param nouvellePerformance La performance sauvegardée
+     */
+    public void modifier(String matricule, Integer anciennePerformance, Integer nouvellePerformance) {
+        if(!initialise || matricule == null || matricule.isEmpty()){
+            //La reconstruction prendra directement en compte la valeur en BDD
+            return;
+        }
+        compteurs.computeIfAbsent(matricule.charAt(0), c -> new Compteur()).modifier(anciennePerformance, nouvellePerformance);
+    }
+
+    /**
+     * Reconstruction de l'agrégat à partir de la BDD. Les mises à jour concurrentes à la reconstruction
+     * peuvent être perdues : elles seront rattrapées à la prochaine réconciliation.
+     *
+     * @return l'écart constaté sur la moyenne de chaque préfixe dont la moyenne a dérivé
+     */
+    @Scheduled(cron = "${java350.performance.reconciliation.cron:0 0 2 * * *}")
+    public synchronized Map<String, Double> reconcilier() {
+        Map<Character, Compteur> reconstruits = new ConcurrentHashMap<>();
+        for(Object[] ligne : employeRepository.sommePerformanceParPremiereLettreMatricule()){
+            String prefixe = (String) ligne[0];
+            if(prefixe != null && !prefixe.isEmpty() && ligne[1] != null){
+                reconstruits.put(prefixe.charAt(0), new Compteur(((Number) ligne[1]).longValue(), ((Number) ligne[2]).longValue()));
+            }
+        }
+
+        Map<String, Double> ecarts = new HashMap<>();
+        if(initialise){
+            Set<Character> prefixes = new HashSet<>(compteurs.keySet());
+            prefixes.addAll(reconstruits.keySet());
+            for(Character prefixe : prefixes){
+                Double avant = moyenneDe(compteurs.get(prefixe));
+                Double apres = moyenneDe(reconstruits.get(prefixe));
+                double ecart = (apres == null ? 0d : apres) - (avant == null ? 0d : avant);
+                if(ecart != 0d){
+                    logger.warn("Dérive de la moyenne des performances du préfixe {} : {} au lieu de {}", prefixe, avant, apres);
+                    ecarts.put(prefixe.toString(), ecart);
+                }
+            }
+        }
+        compteurs = reconstruits;
+        initialise = true;
+        logger.info("Réconciliation de l'agrégat des performances terminée, {} préfixe(s) en écart", ecarts.size());
+        return ecarts;
+    }
+
+    private static Double moyenneDe(Compteur compteur) {
+        return compteur == null ? null : compteur.moyenne();
+    }
+
+    private static final class Compteur {
+        private long somme;
+        private long nombre;
+
+        private Compteur() {
+        }
+
+        private Compteur(long somme, long nombre) {
+            this.somme = somme;
+            this.nombre = nombre;
+        }
+
+        private synchronized void modifier(Integer anciennePerformance, Integer nouvellePerformance) {
+            if(anciennePerformance != null){
+                somme -= anciennePerformance;
+                nombre--;
+            }
+            if(nouvellePerformance != null){
+                somme += nouvellePerformance;
+                nombre++;
+            }
+        }
+
+        private synchronized Double moyenne() {
+            return nombre == 0 ? null : (double) somme / nombre;
+        }
+    }
+}
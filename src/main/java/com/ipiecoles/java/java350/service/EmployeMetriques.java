@@ -0,0 +1,158 @@
+package com.ipiecoles.java.java350.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Temps d'exécution (avec percentiles) et erreurs des opérations de {@link EmployeService} et des appels
+ * qu'elles font aux repositories et services. Les mesures sont publiées dans le {@link MeterRegistry} de
+ * l'application et peuvent être obtenues sous forme de texte via {@link #rapport()}, également tracé à l'arrêt.
+ *
+ * Désactivées (java350.metriques.actives = false), les mesures se limitent à la lecture d'un booléen.
+ */
+@Component
+public class EmployeMetriques {
+    public static final String TIMER = "java350.employe.operations";
+    public static final String COMPTEUR_ERREURS = "java350.employe.erreurs";
+
+    public enum Operation {
+        EMBAUCHE("embauche"),
+        CALCUL_PERFORMANCE("calcul_performance"),
+        PROCHAIN_MATRICULE("prochain_matricule"),
+        FIND_BY_MATRICULE("find_by_matricule"),
+        MOYENNE_PERFORMANCE("moyenne_performance"),
+        SAVE("save");
+
+        private final String nom;
+
+        Operation(String nom) {
+            this.nom = nom;
+        }
+
+        public String getNom() {
+            return nom;
+        }
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(EmployeMetriques.class);
+
+    private final MeterRegistry registry;
+
+    private final boolean actives;
+
+    private final Map<Operation, Timer> timers = new EnumMap<>(Operation.class);
+
+    public EmployeMetriques(MeterRegistry registry, @Value("${java350.metriques.actives:true}") boolean actives) {
+        this.registry = registry;
+        this.actives = actives && registry != null;
+        if(this.actives){
+            for(Operation operation : Operation.values()){
+                timers.put(operation, Timer.builder(TIMER)
+                        .tag("operation", operation.getNom())
+                        .publishPercentiles(0.5, 0.95, 0.99)
+                        .publishPercentileHistogram()
+                        .register(registry));
+            }
+        }
+    }
+
+    /**
+     * Instance sans aucune mesure, utilisée tant qu'aucune instance n'a été injectée
+     */
+    public static EmployeMetriques desactivees() {
+        return new EmployeMetriques(null, false);
+    }
+
+    public boolean isActives() {
+        return actives;
+    }
+
+    /**
+     * @return l'instant de début d'une mesure, à transmettre à {@link #fin(Operation, long)}
+     */
+    public long debut() {
+        return actives ? System.nanoTime() : 0L;
+    }
+
+    public void fin(Operation operation, long debut) {
+        if(actives){
+            timers.get(operation).record(System.nanoTime() - debut, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Mesure du temps d'un appel
+     */
+    public <T> T mesurer(Operation operation, Supplier<T> appel) {
+        if(!actives){
+            return appel.get();
+        }
+        long debut = System.nanoTime();
+        try {
+            return appel.get();
+        } finally {
+            timers.get(operation).record(System.nanoTime() - debut, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Comptage d'une erreur, par opération et par motif
+     *
+     * @param operation L'opération en erreur
+     * @param motif Le motif de l'erreur (cf. {@link com.ipiecoles.java.java350.exception.EmployeException#getMotif()})
+     */
+    public void erreur(Operation operation, String motif) {
+        if(actives){
+            registry.counter(COMPTEUR_ERREURS, "operation", operation.getNom(), "motif", motif).increment();
+        }
+    }
+
+    /**
+     * @return une ligne par opération (nombre d'appels, moyenne, maximum et percentiles en microsecondes)
+     * puis une ligne par compteur d'erreurs
+     */
+    public String rapport() {
+        if(!actives){
+            return "Métriques désactivées";
+        }
+        StringBuilder rapport = new StringBuilder();
+        for(Map.Entry<Operation, Timer> entree : timers.entrySet()){
+            HistogramSnapshot snapshot = entree.getValue().takeSnapshot();
+            rapport.append(entree.getKey().getNom())
+                    .append(" : nombre=").append(snapshot.count())
+                    .append(" moyenne=").append(Math.round(snapshot.mean(TimeUnit.MICROSECONDS))).append("us")
+                    .append(" max=").append(Math.round(snapshot.max(TimeUnit.MICROSECONDS))).append("us");
+            for(ValueAtPercentile percentile : snapshot.percentileValues()){
+                rapport.append(" p").append(Math.round(percentile.percentile() * 100))
+                        .append('=').append(Math.round(percentile.value(TimeUnit.MICROSECONDS))).append("us");
+            }
+            rapport.append('\n');
+        }
+        for(Counter compteur : registry.find(COMPTEUR_ERREURS).counters()){
+            rapport.append("erreurs ").append(compteur.getId().getTag("operation"))
+                    .append(' ').append(compteur.getId().getTag("motif"))
+                    .append(" : ").append(Math.round(compteur.count())).append('\n');
+        }
+        return rapport.toString();
+    }
+
+    @PreDestroy
+    public void tracerRapport() {
+        if(actives){
+            logger.info("Métriques de EmployeService :\n{}", rapport());
+        }
+    }
+}
@@ -1,26 +1,107 @@
 package com.ipiecoles.java.java350.service;
 
 import com.ipiecoles.java.java350.exception.EmployeException;
+import com.ipiecoles.java.java350.model.BilanCommercial;
+import com.ipiecoles.java.java350.model.DemandeEmbauche;
 import com.ipiecoles.java.java350.model.Employe;
 import com.ipiecoles.java.java350.model.Entreprise;
+import com.ipiecoles.java.java350.model.FiltreEmploye;
 import com.ipiecoles.java.java350.model.NiveauEtude;
 import com.ipiecoles.java.java350.model.Poste;
+import com.ipiecoles.java.java350.model.RapportAugmentation;
+import com.ipiecoles.java.java350.model.RapportEmbauche;
+import com.ipiecoles.java.java350.model.RapportPerformance;
+import com.ipiecoles.java.java350.model.ResultatEmbauche;
+import com.ipiecoles.java.java350.model.SituationEmploye;
 import com.ipiecoles.java.java350.repository.EmployeRepository;
+import com.ipiecoles.java.java350.service.EmployeMetriques.Operation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
 import javax.persistence.EntityExistsException;
+import java.time.Clock;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
 
 @Service
 public class EmployeService {
+    public static final String MOTIF_LIMITE_MATRICULES = "limite_matricules";
+    public static final String MOTIF_MATRICULE_EXISTANT = "matricule_existant";
+    public static final String MOTIF_MATRICULE_INCONNU = "matricule_inconnu";
+    public static final String MOTIF_MATRICULE_INVALIDE = "matricule_invalide";
+    public static final String MOTIF_CA_INVALIDE = "ca_invalide";
+    public static final String MOTIF_OBJECTIF_INVALIDE = "objectif_invalide";
+    public static final String MOTIF_MODIFICATION_CONCURRENTE = "modification_concurrente";
+    public static final String MOTIF_POURCENTAGE_INVALIDE = "pourcentage_invalide";
+    public static final String MOTIF_DEMANDE_INCOMPLETE = "demande_incomplete";
+    private static final String MESSAGE_DEMANDE_INCOMPLETE = "Le poste et le niveau d'étude sont obligatoires !";
+
     private Logger logger = LoggerFactory.getLogger(this.getClass());
 
     @Autowired
     private EmployeRepository employeRepository;
 
+    @Autowired
+    private MatriculeService matriculeService;
+
+    @Autowired
+    private AgregatPerformance agregatPerformance;
+
+    @Autowired
+    private InstantaneEffectif instantaneEffectif = InstantaneEffectif.desactive();
+
+    @Autowired
+    private StatistiquesEffectifService statistiquesEffectifService;
+
+    @Autowired
+    private EmployeMetriques employeMetriques = EmployeMetriques.desactivees();
+
+    @Autowired(required = false)
+    private Clock clock = Clock.systemDefaultZone();
+
+    /** Nombre de chiffres des nouveaux matricules : chaque type d'employé dispose de 10^chiffres numéros */
+    @Value("${java350.matricule.chiffres:5}")
+    private int chiffresMatricule = 5;
+
+    @Value("${java350.embauche.taille-lot:50}")
+    private int tailleLot = 50;
+
+    @Value("${java350.performance.taille-lot:500}")
+    private int tailleLotPerformance = 500;
+
+    @Value("${java350.performance.tentatives:3}")
+    private int nbTentativesPerformance = 3;
+
+    @Value("${java350.performance.delai-tentative-ms:20}")
+    private long delaiTentativePerformance = 20;
+
+    @Value("${java350.performance.mise-a-jour-atomique:false}")
+    private boolean miseAJourAtomique = false;
+
+    /**
+     * Avec moins de 5 chiffres, les numéros des matricules existants pourraient dépasser la limite ; au-delà de 9,
+     * les numéros ne tiennent plus dans la colonne numeroMatricule
+     */
+    @PostConstruct
+    void verifierChiffresMatricule() {
+        if(chiffresMatricule < 5 || chiffresMatricule > 9){
+            throw new IllegalStateException("java350.matricule.chiffres doit être compris entre 5 et 9 : " + chiffresMatricule);
+        }
+    }
+
     /**
      * Méthode enregistrant un nouvel employé dans l'entreprise
      *
@@ -30,47 +111,251 @@ public class EmployeService {
      * @param niveauEtude Le niveau d'étude de l'employé
      * @param tempsPartiel Le pourcentage d'activité en cas de temps partiel
      *
-     * @throws EmployeException Si on arrive au bout des matricules possibles
+     * @return le matricule attribué au nouvel employé
+     *
+     * @throws EmployeException Si le poste ou le niveau d'étude manque, ou si on arrive au bout des matricules possibles
      * @throws EntityExistsException Si le matricule correspond à un employé existant
      */
-    public void embaucheEmploye(String nom, String prenom, Poste poste, NiveauEtude niveauEtude, Double tempsPartiel) throws EmployeException, EntityExistsException {
+    public String embaucheEmploye(String nom, String prenom, Poste poste, NiveauEtude niveauEtude, Double tempsPartiel) throws EmployeException, EntityExistsException {
+        long debut = employeMetriques.debut();
+        try {
+            return realiserEmbauche(nom, prenom, poste, niveauEtude, tempsPartiel);
+        } catch (EmployeException e) {
+            employeMetriques.erreur(Operation.EMBAUCHE, e.getMotif());
+            throw e;
+        } catch (EntityExistsException e) {
+            employeMetriques.erreur(Operation.EMBAUCHE, MOTIF_MATRICULE_EXISTANT);
+            throw e;
+        } finally {
+            employeMetriques.fin(Operation.EMBAUCHE, debut);
+        }
+    }
+
+    private String realiserEmbauche(String nom, String prenom, Poste poste, NiveauEtude niveauEtude, Double tempsPartiel) throws EmployeException {
         logger.info("Début d'embauche pour {} au poste de {} avec un taux d'activité de {}", prenom, poste, tempsPartiel);
+        //Vérification avant de consommer un numéro de matricule
+        if(poste == null || niveauEtude == null){
+            throw new EmployeException(MESSAGE_DEMANDE_INCOMPLETE, MOTIF_DEMANDE_INCOMPLETE);
+        }
 
         //Récupération du type d'employé à partir du poste
-        String typeEmploye = poste.name().substring(0,1);
+        String typeEmploye = typeEmploye(poste);
 
-        //Récupération du dernier matricule...
-        String lastMatricule = employeRepository.findLastMatricule();
-        if(lastMatricule == null){
-            lastMatricule = Entreprise.MATRICULE_INITIAL;
-        }
-        //... et incrémentation
-        Integer numeroMatricule = Integer.parseInt(lastMatricule) + 1;
-        if(numeroMatricule >= 100000){
-            logger.error("Limite des 100000 matricules atteinte !");
-            throw new EmployeException("Limite des 100000 matricules atteinte !");
+        //Attribution du prochain numéro de matricule de ce type d'employé
+        Integer numeroMatricule = employeMetriques.mesurer(Operation.PROCHAIN_MATRICULE, () -> matriculeService.prochainNumero(typeEmploye));
+        if(numeroMatricule >= limiteMatricules()){
+            logger.error(messageLimiteMatricules());
+            throw new EmployeException(messageLimiteMatricules(), MOTIF_LIMITE_MATRICULES);
         }
-        //On complète le numéro avec des 0 à gauche
-        String matricule = "00000" + numeroMatricule;
-        matricule = typeEmploye + matricule.substring(matricule.length() - 5);
+        String matricule = formaterMatricule(typeEmploye, numeroMatricule);
 
         //On vérifie l'existence d'un employé avec ce matricule
-        if(employeRepository.findByMatricule(matricule) != null){
-            logger.error("L'employé de matricule " + matricule + " existe déjà en BDD");
+        if(employeMetriques.mesurer(Operation.FIND_BY_MATRICULE, () -> employeRepository.findByMatricule(matricule)) != null){
+            logger.error("L'employé de matricule {} existe déjà en BDD", matricule);
             throw new EntityExistsException("L'employé de matricule " + matricule + " existe déjà en BDD");
         }
 
         //Calcul du salaire
-        Double salaire = Entreprise.COEFF_SALAIRE_ETUDES.get(niveauEtude) * Entreprise.SALAIRE_BASE;
-        if(tempsPartiel != null){
-            salaire = salaire * tempsPartiel;
-        }
+        Double salaire = calculSalaire(niveauEtude, tempsPartiel);
 
         //Création et sauvegarde en BDD de l'employé.
-        Employe employe = new Employe(nom, prenom, matricule, LocalDate.now(), salaire, Entreprise.PERFORMANCE_BASE, tempsPartiel);
+        Employe employe = new Employe(nom, prenom, matricule, LocalDate.now(clock), salaire, Entreprise.PERFORMANCE_BASE, tempsPartiel);
+
+        employeMetriques.mesurer(Operation.SAVE, () -> employeRepository.save(employe));
+        agregatPerformance.ajouter(matricule, employe.getPerformance());
+        instantaneEffectif.enregistrer(employe);
+        return matricule;
+    }
+
+    /**
+     * Méthode enregistrant en une seule fois un ensemble de nouveaux employés. Une plage de matricules
+     * consécutifs est réservée par type d'employé pour toutes les demandes valides de ce type, puis les employés
+     * sont insérés par lots JDBC.
+     * Les matricules provenant d'une plage tout juste réservée, aucune vérification d'existence n'est faite.
+     *
+     * @param demandes Les demandes d'embauche
+     *
+     * @return le rapport donnant, pour chaque demande, le matricule attribué ou le motif du rejet
+     */
+    public RapportEmbauche embaucheEmployes(List<DemandeEmbauche> demandes) {
+        logger.info("Début d'embauche groupée de {} employés", demandes.size());
+        long debut = System.nanoTime();
+
+        //Validation des demandes et décompte par poste
+        int nbValides = 0;
+        int[] nbParPoste = new int[Poste.values().length];
+        for(DemandeEmbauche demande : demandes){
+            if(demande.getPoste() != null && demande.getNiveauEtude() != null){
+                nbValides++;
+                nbParPoste[demande.getPoste().ordinal()]++;
+            }
+        }
+
+        //Réservation d'une seule plage de matricules par poste pour toutes les demandes valides de ce poste
+        int[] numerosMatricule = new int[nbParPoste.length];
+        for(Poste poste : Poste.values()){
+            if(nbParPoste[poste.ordinal()] > 0){
+                numerosMatricule[poste.ordinal()] = matriculeService.reserverNumeros(typeEmploye(poste), nbParPoste[poste.ordinal()]);
+            }
+        }
+        long limite = limiteMatricules();
+
+        LocalDate dateEmbauche = LocalDate.now(clock);
+        List<ResultatEmbauche> resultats = new ArrayList<>(demandes.size());
+        List<Employe> employes = new ArrayList<>(nbValides);
+        for(int ligne = 0; ligne < demandes.size(); ligne++){
+            DemandeEmbauche demande = demandes.get(ligne);
+            if(demande.getPoste() == null || demande.getNiveauEtude() == null){
+                resultats.add(ResultatEmbauche.echec(ligne, MESSAGE_DEMANDE_INCOMPLETE));
+            }
+            else if(numerosMatricule[demande.getPoste().ordinal()] >= limite){
+                resultats.add(ResultatEmbauche.echec(ligne, messageLimiteMatricules()));
+            }
+            else {
+                String matricule = formaterMatricule(typeEmploye(demande.getPoste()), numerosMatricule[demande.getPoste().ordinal()]++);
+                employes.add(new Employe(demande.getNom(), demande.getPrenom(), matricule, dateEmbauche,
+                        calculSalaire(demande.getNiveauEtude(), demande.getTempsPartiel()), Entreprise.PERFORMANCE_BASE, demande.getTempsPartiel()));
+                resultats.add(ResultatEmbauche.succes(ligne, matricule));
+            }
+        }
+
+        employeRepository.insererParLots(employes, tailleLot);
+        for(Employe employe : employes){
+            agregatPerformance.ajouter(employe.getMatricule(), employe.getPerformance());
+            instantaneEffectif.enregistrer(employe);
+        }
+
+        RapportEmbauche rapport = new RapportEmbauche(resultats, System.nanoTime() - debut);
+        logger.info("Fin d'embauche groupée : {} embauches, {} rejets, {} embauches/s", rapport.getNbEmbauches(),
+                rapport.getNbRejets(), Math.round(rapport.getDebit()));
+        return rapport;
+    }
+
+    /**
+     * Méthode évaluant l'ancienneté, les congés, les RTT et la prime annuelle d'un employé à la date du jour
+     *
+     * @param matricule Le matricule de l'employé
+     *
+     * @throws EmployeException Si le matricule n'existe pas
+     */
+    public SituationEmploye situationEmploye(String matricule) throws EmployeException {
+        return situationEmploye(matricule, LocalDate.now(clock));
+    }
+
+    /**
+     * Méthode évaluant l'ancienneté, les congés, les RTT et la prime annuelle d'un employé à une date de
+     * référence, passée ou future
+     *
+     * @param matricule Le matricule de l'employé
+     * @param dateReference La date à laquelle la situation est évaluée
+     *
+     * @throws EmployeException Si le matricule n'existe pas
+     */
+    public SituationEmploye situationEmploye(String matricule, LocalDate dateReference) throws EmployeException {
+        Employe employe = employeRepository.findByMatricule(matricule);
+        if(employe == null){
+            throw new EmployeException("Le matricule " + matricule + " n'existe pas !", MOTIF_MATRICULE_INCONNU);
+        }
+        return SituationEmploye.de(employe, dateReference);
+    }
+
+    /**
+     * Méthode augmentant le salaire d'un employé, par une seule requête de mise à jour en BDD
+     *
+     * @param matricule Le matricule de l'employé
+     * @param pourcentage Le pourcentage d'augmentation (10 pour 10 %)
+     *
+     * @return le rapport donnant l'augmentation de la masse salariale
+     *
+     * @throws EmployeException Si le pourcentage est négatif ou si le matricule n'existe pas
+     */
+    public RapportAugmentation augmenterSalaire(String matricule, double pourcentage) throws EmployeException {
+        verifierPourcentage(pourcentage);
+        RapportAugmentation rapport = employeRepository.augmenterSalaire(matricule, pourcentage);
+        if(rapport.getNbEmployes() == 0){
+            throw new EmployeException("Le matricule " + matricule + " n'existe pas !", MOTIF_MATRICULE_INCONNU);
+        }
+        instantaneEffectif.augmenterSalaire(matricule, Employe.facteurAugmentation(pourcentage));
+        statistiquesEffectifService.invaliderStatistiques();
+        logger.info("Salaire du matricule {} augmenté de {} %", matricule, pourcentage);
+        return rapport;
+    }
+
+    /**
+     * Méthode augmentant le salaire de tout un segment d'employés (première lettre du matricule, intervalle de
+     * performance, tranche de salaire d'un niveau d'étude...), par une seule requête de mise à jour en BDD :
+     * les employés ne sont pas chargés. Les statistiques de l'effectif sont ensuite invalidées.
+     *
+     * @param segment Le filtre désignant les employés à augmenter
+     * @param pourcentage Le pourcentage d'augmentation (10 pour 10 %)
+     *
+     * @return le rapport donnant le nombre d'employés augmentés et l'augmentation de la masse salariale
+     *
+     * @throws EmployeException Si le pourcentage est négatif
+     */
+    public RapportAugmentation augmenterSalaires(FiltreEmploye segment, double pourcentage) throws EmployeException {
+        verifierPourcentage(pourcentage);
+        long debut = System.nanoTime();
+        RapportAugmentation rapport = employeRepository.augmenterSalaires(segment, pourcentage);
+        //L'instantané contient encore les anciens salaires : le segment y désigne les mêmes employés qu'en BDD
+        instantaneEffectif.augmenterSalaires(segment, Employe.facteurAugmentation(pourcentage));
+        statistiquesEffectifService.invaliderStatistiques();
+        logger.info("Salaire de {} employés augmenté de {} %, masse salariale augmentée de {} en {} ms", rapport.getNbEmployes(),
+                pourcentage, rapport.getAugmentationMasseSalariale(), (System.nanoTime() - debut) / 1_000_000);
+        return rapport;
+    }
+
+    private void verifierPourcentage(double pourcentage) throws EmployeException {
+        if(!(pourcentage >= 0)){
+            logger.error("Le pourcentage d'augmentation doit être positif ou nul !");
+            throw new EmployeException("Le pourcentage d'augmentation doit être positif ou nul !", MOTIF_POURCENTAGE_INVALIDE);
+        }
+    }
+
+    /**
+     * Le type d'employé est la première lettre du poste
+     */
+    private static String typeEmploye(Poste poste) {
+        return poste.name().substring(0,1);
+    }
+
+    /**
+     * On complète le numéro avec des 0 à gauche et on le préfixe par le type d'employé. Les matricules déjà
+     * attribués avec moins de chiffres restent valides : leur numéro est inférieur à ceux des nouveaux matricules.
+     */
+    private String formaterMatricule(String typeEmploye, int numeroMatricule) {
+        String numero = Integer.toString(numeroMatricule);
+        StringBuilder matricule = new StringBuilder(typeEmploye.length() + chiffresMatricule).append(typeEmploye);
+        for(int i = numero.length(); i < chiffresMatricule; i++){
+            matricule.append('0');
+        }
+        return matricule.append(numero).toString();
+    }
 
-        employeRepository.save(employe);
+    /**
+     * @return le nombre de numéros de matricule de chaque type d'employé
+     */
+    private long limiteMatricules() {
+        long limite = 1;
+        for(int i = 0; i < chiffresMatricule; i++){
+            limite *= 10;
+        }
+        return limite;
+    }
+
+    private String messageLimiteMatricules() {
+        return "Limite des " + limiteMatricules() + " matricules atteinte !";
+    }
 
+    /**
+     * Le salaire dépend du niveau d'étude, au pro rata du temps partiel
+     */
+    private static Double calculSalaire(NiveauEtude niveauEtude, Double tempsPartiel) {
+        Double salaire = Entreprise.COEFF_SALAIRE_ETUDES.get(niveauEtude) * Entreprise.SALAIRE_BASE;
+        if(tempsPartiel != null){
+            salaire = salaire * tempsPartiel;
+        }
+        return salaire;
     }
 
 
@@ -93,54 +378,282 @@ public class EmployeService {
      * @throws EmployeException Si le matricule est null ou ne commence pas par un C
      */
     public void calculPerformanceCommercial(String matricule, Long caTraite, Long objectifCa) throws EmployeException {
+        long debut = employeMetriques.debut();
+        try {
+            realiserCalculPerformance(matricule, caTraite, objectifCa);
+        } catch (EmployeException e) {
+            employeMetriques.erreur(Operation.CALCUL_PERFORMANCE, e.getMotif());
+            throw e;
+        } finally {
+            employeMetriques.fin(Operation.CALCUL_PERFORMANCE, debut);
+        }
+    }
+
+    private void realiserCalculPerformance(String matricule, Long caTraite, Long objectifCa) throws EmployeException {
         logger.info("Calcul de la performance de l'employé matriculé {} donc le CA est de {} et l'objectif de CA {}", matricule, caTraite
         , objectifCa);
+        verifierParametresPerformance(matricule, caTraite, objectifCa);
+        if(miseAJourAtomique){
+            modifierPerformanceAtomique(matricule, caTraite, objectifCa);
+            return;
+        }
+
+        for(int tentative = 1; ; tentative++){
+            try {
+                modifierPerformance(matricule, caTraite, objectifCa);
+                return;
+            } catch (ObjectOptimisticLockingFailureException e) {
+                //L'employé a été modifié depuis sa lecture : il est relu en BDD à la tentative suivante
+                employeRepository.oublier(matricule);
+                if(tentative >= nbTentativesPerformance){
+                    logger.error("Modifications concurrentes de la performance du matricule {}, abandon après {} tentatives", matricule, tentative);
+                    throw new EmployeException("La performance du matricule " + matricule + " est modifiée simultanément, réessayez plus tard !",
+                            MOTIF_MODIFICATION_CONCURRENTE);
+                }
+                logger.warn("Modification concurrente de la performance du matricule {}, tentative {} sur {}", matricule, tentative + 1, nbTentativesPerformance);
+                attendreAvantTentative(tentative);
+            }
+        }
+    }
+
+    /**
+     * Lecture, calcul et sauvegarde de la performance : la sauvegarde échoue si l'employé a été modifié depuis sa lecture
+     */
+    private void modifierPerformance(String matricule, Long caTraite, Long objectifCa) throws EmployeException {
+        //Recherche de l'employé dans la base
+        Employe employe = employeMetriques.mesurer(Operation.FIND_BY_MATRICULE, () -> employeRepository.findByMatricule(matricule));
+        if(employe == null){
+            throw new EmployeException("Le matricule " + matricule + " n'existe pas !", MOTIF_MATRICULE_INCONNU);
+        }
+
+        Double performanceMoyenne = employeMetriques.mesurer(Operation.MOYENNE_PERFORMANCE, () -> agregatPerformance.moyenne("C"));
+        Integer performance = calculPerformance(employe.getPerformance(), caTraite, objectifCa, performanceMoyenne);
+
+        //Affectation et sauvegarde
+        Integer anciennePerformance = employe.getPerformance();
+        employe.setPerformance(performance);
+        employeMetriques.mesurer(Operation.SAVE, () -> employeRepository.save(employe));
+        agregatPerformance.modifier(matricule, anciennePerformance, performance);
+        instantaneEffectif.enregistrer(employe);
+    }
+
+    /**
+     * Calcul et sauvegarde de la performance par une seule requête de mise à jour, qui part de la valeur en BDD :
+     * aucune modification concurrente ne peut être perdue. L'agrégat est tenu à jour à partir de la performance lue
+     * avant la requête, lue en BDD et non dans le cache ; en cas de modification concurrente, son écart est corrigé
+     * à la réconciliation suivante.
+     */
+    private void modifierPerformanceAtomique(String matricule, Long caTraite, Long objectifCa) throws EmployeException {
+        Employe employe = employeMetriques.mesurer(Operation.FIND_BY_MATRICULE, () -> employeRepository.readByMatricule(matricule));
+        if(employe == null){
+            throw new EmployeException("Le matricule " + matricule + " n'existe pas !", MOTIF_MATRICULE_INCONNU);
+        }
+        Double performanceMoyenne = employeMetriques.mesurer(Operation.MOYENNE_PERFORMANCE, () -> agregatPerformance.moyenne("C"));
+        //Une performance entière dépasse la moyenne si et seulement si elle dépasse sa partie entière
+        int seuilBonus = performanceMoyenne == null ? Integer.MAX_VALUE : (int) Math.floor(performanceMoyenne);
+
+        int cas = casPerformance(caTraite, objectifCa);
+        int variation = cas == 2 ? -2 : cas == 4 ? 1 : cas == 5 ? 4 : 0;
+        int seuil = cas == 1 ? Integer.MAX_VALUE : cas <= 3 ? Entreprise.PERFORMANCE_BASE : Integer.MIN_VALUE;
+        int plancher = Entreprise.PERFORMANCE_BASE > seuilBonus ? Entreprise.PERFORMANCE_BASE + 1 : Entreprise.PERFORMANCE_BASE;
+
+        int nbModifies = employeMetriques.mesurer(Operation.SAVE, () -> employeRepository.modifierPerformance(matricule, variation, seuil, plancher, seuilBonus));
+        if(nbModifies == 0){
+            throw new EmployeException("Le matricule " + matricule + " n'existe pas !", MOTIF_MATRICULE_INCONNU);
+        }
+        Integer performance = calculPerformance(employe.getPerformance(), caTraite, objectifCa, performanceMoyenne);
+        agregatPerformance.modifier(matricule, employe.getPerformance(), performance);
+        instantaneEffectif.modifierPerformance(matricule, performance);
+    }
+
+    private void attendreAvantTentative(int tentative) throws EmployeException {
+        //Attente doublée à chaque tentative, avec une part aléatoire pour que les threads en conflit ne se retrouvent pas
+        long delai = delaiTentativePerformance << (tentative - 1);
+        try {
+            Thread.sleep(delai + ThreadLocalRandom.current().nextLong(delai + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EmployeException("Calcul de la performance interrompu !", MOTIF_MODIFICATION_CONCURRENTE);
+        }
+    }
+
+    /**
+     * Méthode recalculant en masse la performance des commerciaux, selon les mêmes règles que
+     * {@link #calculPerformanceCommercial(String, Long, Long)}. Les bilans sont traités par lots :
+     * les employés d'un lot sont chargés en une requête et mis à jour par lots JDBC.
+     *
+     * La moyenne des performances des commerciaux est lue une seule fois avant le traitement, si bien
+     * que le résultat ne dépend pas de l'ordre des bilans.
+     *
+     * Un matricule présent dans plusieurs bilans n'est traité qu'une fois, d'après son premier bilan : les suivants
+     * sont rejetés, même s'ils tombent dans un autre lot. Les matricules déjà lus sont pour cela retenus pendant tout
+     * le traitement, soit au plus un par commercial présent dans les bilans.
+     *
+     * Un lot en conflit avec une autre modification est retenté ; s'il échoue encore, ses bilans sont rejetés et les lots
+     * déjà sauvegardés le restent.
+     *
+     * @param bilans Les chiffres d'affaires et objectifs de l'année, un bilan par commercial
+     *
+     * @return le rapport donnant le nombre de commerciaux mis à jour et les bilans rejetés
+     */
+    public RapportPerformance calculPerformanceCommerciaux(Stream<BilanCommercial> bilans) {
+        logger.info("Début du calcul en masse de la performance des commerciaux");
+        long debut = System.nanoTime();
+        Double performanceMoyenne = agregatPerformance.moyenne("C");
+
+        RapportPerformance rapport = new RapportPerformance();
+        Map<String, BilanCommercial> lot = new HashMap<>();
+        Set<String> matriculesLus = new HashSet<>();
+        Iterator<BilanCommercial> iterator = bilans.iterator();
+        while(iterator.hasNext()){
+            BilanCommercial bilan = iterator.next();
+            try {
+                verifierParametresPerformance(bilan.getMatricule(), bilan.getCaTraite(), bilan.getObjectifCa());
+                if(matriculesLus.add(bilan.getMatricule())){
+                    lot.put(bilan.getMatricule(), bilan);
+                }
+                else {
+                    rapport.ajouterErreur(bilan.getMatricule(), "Le matricule " + bilan.getMatricule() + " a plusieurs bilans !");
+                }
+            } catch (EmployeException e) {
+                rapport.ajouterErreur(bilan.getMatricule(), e.getMessage());
+            }
+            if(lot.size() == tailleLotPerformance){
+                traiterLotPerformance(lot, performanceMoyenne, rapport);
+                lot.clear();
+            }
+        }
+        traiterLotPerformance(lot, performanceMoyenne, rapport);
+
+        rapport.setDureeNanos(System.nanoTime() - debut);
+        logger.info("Fin du calcul en masse de la performance des commerciaux : {} mis à jour, {} rejets",
+                rapport.getNbMisesAJour(), rapport.getErreurs().size());
+        return rapport;
+    }
+
+    /**
+     * Mise à jour d'un lot, en une transaction. Si un employé du lot a été modifié entre sa lecture et sa sauvegarde,
+     * le lot entier est annulé puis relu et recalculé, comme dans {@link #calculPerformanceCommercial(String, Long, Long)} ;
+     * après la dernière tentative, chaque matricule du lot est rejeté et le traitement passe au lot suivant.
+     */
+    private void traiterLotPerformance(Map<String, BilanCommercial> lot, Double performanceMoyenne, RapportPerformance rapport) {
+        if(lot.isEmpty()){
+            return;
+        }
+        for(int tentative = 1; ; tentative++){
+            try {
+                modifierLotPerformance(lot, performanceMoyenne, rapport);
+                return;
+            } catch (ObjectOptimisticLockingFailureException e) {
+                if(tentative >= nbTentativesPerformance){
+                    logger.error("Modifications concurrentes d'un lot de {} commerciaux, abandon après {} tentatives", lot.size(), tentative);
+                    rejeterLotPerformance(lot, rapport);
+                    return;
+                }
+                logger.warn("Modification concurrente d'un lot de {} commerciaux, tentative {} sur {}", lot.size(), tentative + 1, nbTentativesPerformance);
+                try {
+                    attendreAvantTentative(tentative);
+                } catch (EmployeException interrompu) {
+                    rejeterLotPerformance(lot, rapport);
+                    return;
+                }
+            }
+        }
+    }
+
+    private static void rejeterLotPerformance(Map<String, BilanCommercial> lot, RapportPerformance rapport) {
+        for(String matricule : lot.keySet()){
+            rapport.ajouterErreur(matricule, "La performance du matricule " + matricule + " est modifiée simultanément, réessayez plus tard !");
+        }
+    }
+
+    private void modifierLotPerformance(Map<String, BilanCommercial> lot, Double performanceMoyenne, RapportPerformance rapport) {
+        Map<String, Integer> anciennesPerformances = new HashMap<>();
+        List<Employe> employes = employeRepository.modifierParLots(lot.keySet(), employe -> {
+            BilanCommercial bilan = lot.get(employe.getMatricule());
+            anciennesPerformances.put(employe.getMatricule(), employe.getPerformance());
+            employe.setPerformance(calculPerformance(employe.getPerformance(), bilan.getCaTraite(), bilan.getObjectifCa(), performanceMoyenne));
+        }, tailleLotPerformance);
+
+        for(Employe employe : employes){
+            agregatPerformance.modifier(employe.getMatricule(), anciennesPerformances.get(employe.getMatricule()), employe.getPerformance());
+            instantaneEffectif.enregistrer(employe);
+        }
+        rapport.ajouterMisesAJour(employes.size());
+        if(employes.size() < lot.size()){
+            for(String matricule : lot.keySet()){
+                if(!anciennesPerformances.containsKey(matricule)){
+                    rapport.ajouterErreur(matricule, "Le matricule " + matricule + " n'existe pas !");
+                }
+            }
+        }
+    }
+
+    private void verifierParametresPerformance(String matricule, Long caTraite, Long objectifCa) throws EmployeException {
         //Vérification des paramètres d'entrée
         if(caTraite == null || caTraite < 0){
             logger.error("Le chiffre d'affaire traité ne peut être négatif ou null !");
-            throw new EmployeException("Le chiffre d'affaire traité ne peut être négatif ou null !");
+            throw new EmployeException("Le chiffre d'affaire traité ne peut être négatif ou null !", MOTIF_CA_INVALIDE);
         }
         if(objectifCa == null || objectifCa < 0){
             logger.error("L'objectif de chiffre d'affaire ne peut être négatif ou null !");
-            throw new EmployeException("L'objectif de chiffre d'affaire ne peut être négatif ou null !");
+            throw new EmployeException("L'objectif de chiffre d'affaire ne peut être négatif ou null !", MOTIF_OBJECTIF_INVALIDE);
         }
         if(matricule == null || !matricule.startsWith("C")){
             logger.error("Le matricule ne peut être null et doit commencer par un C !");
-            throw new EmployeException("Le matricule ne peut être null et doit commencer par un C !");
-        }
-        //Recherche de l'employé dans la base
-        Employe employe = employeRepository.findByMatricule(matricule);
-        if(employe == null){
-            throw new EmployeException("Le matricule " + matricule + " n'existe pas !");
+            throw new EmployeException("Le matricule ne peut être null et doit commencer par un C !", MOTIF_MATRICULE_INVALIDE);
         }
+    }
 
+    /**
+     * Application des 5 cas de calcul de la performance, puis du bonus par rapport à la moyenne des commerciaux
+     */
+    private static Integer calculPerformance(Integer performanceActuelle, Long caTraite, Long objectifCa, Double performanceMoyenne) {
         Integer performance = Entreprise.PERFORMANCE_BASE;
+        switch (casPerformance(caTraite, objectifCa)){
+            case 2:
+                performance = Math.max(Entreprise.PERFORMANCE_BASE, performanceActuelle - 2);
+                break;
+            case 3:
+                performance = Math.max(Entreprise.PERFORMANCE_BASE, performanceActuelle);
+                break;
+            case 4:
+                performance = performanceActuelle + 1;
+                break;
+            case 5:
+                performance = performanceActuelle + 4;
+                break;
+            default:
+                //Si autre cas, on reste à la performance de base.
+        }
+
+        //Bonus si la performance est supérieure à la moyenne des performances des commerciaux
+        if(performanceMoyenne != null && performance > performanceMoyenne){
+            performance++;
+        }
+        return performance;
+    }
+
+    /**
+     * @return le numéro du cas de calcul (1 à 5) correspondant à l'écart entre le chiffre d'affaire et l'objectif
+     */
+    private static int casPerformance(Long caTraite, Long objectifCa) {
         //Cas 2
         if(caTraite >= objectifCa*0.8 && caTraite < objectifCa*0.95){
-            performance = Math.max(Entreprise.PERFORMANCE_BASE, employe.getPerformance() - 2);
+            return 2;
         }
         //Cas 3
         else if(caTraite >= objectifCa*0.95 && caTraite <= objectifCa*1.05){
-            performance = Math.max(Entreprise.PERFORMANCE_BASE, employe.getPerformance());
+            return 3;
         }
         //Cas 4
         else if(caTraite <= objectifCa*1.2 && caTraite > objectifCa*1.05){
-            performance = employe.getPerformance() + 1;
+            return 4;
         }
         //Cas 5
         else if(caTraite > objectifCa*1.2){
-            performance = employe.getPerformance() + 4;
+            return 5;
         }
-        //Si autre cas, on reste à la performance de base.
-
-        //Calcul de la performance moyenne
-        Double performanceMoyenne = employeRepository.avgPerformanceWhereMatriculeStartsWith("C");
-        if(performanceMoyenne != null && performance > performanceMoyenne){
-            performance++;
-        }
-
-        //Affectation et sauvegarde
-        employe.setPerformance(performance);
-        employeRepository.save(employe);
+        return 1;
     }
 }
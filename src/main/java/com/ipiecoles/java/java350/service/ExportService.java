@@ -0,0 +1,167 @@
+package com.ipiecoles.java.java350.service;
+
+import com.ipiecoles.java.java350.model.Employe;
+import com.ipiecoles.java.java350.model.SituationEmploye;
+import com.ipiecoles.java.java350.repository.EmployeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Export de tout l'effectif avec les données calculées (congés, RTT, prime annuelle). Les employés sont lus
+ * au fil de l'eau et détachés du contexte de persistance dès qu'ils ont été écrits : la mémoire consommée
+ * ne dépend pas du nombre d'employés.
+ */
+@Service
+public class ExportService {
+    static final String ENTETE_CSV = "matricule;nom;prenom;dateEmbauche;salaire;performance;tempsPartiel;nbConges;nbRtt;primeAnnuelle";
+    private static final String[] CHAMPS = ENTETE_CSV.split(";");
+
+    private Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    @Autowired
+    private EmployeRepository employeRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired(required = false)
+    private Clock clock = Clock.systemDefaultZone();
+
+    /**
+     * Méthode exportant tous les employés au format CSV, séparateur point-virgule, avec une ligne d'entête
+     *
+     * @param writer La destination de l'export
+     *
+     * @return le nombre d'employés exportés
+     */
+    @Transactional(readOnly = true)
+    public long exporterCsv(Writer writer) throws IOException {
+        writer.write(ENTETE_CSV);
+        writer.write('\n');
+        return exporter(writer, this::ecrireCsv);
+    }
+
+    /**
+     * Méthode exportant tous les employés au format JSON, un objet par ligne
+     *
+     * @param writer La destination de l'export
+     *
+     * @return le nombre d'employés exportés
+     */
+    @Transactional(readOnly = true)
+    public long exporterJsonLignes(Writer writer) throws IOException {
+        return exporter(writer, this::ecrireJson);
+    }
+
+    private long exporter(Writer writer, FormatLigne format) throws IOException {
+        LocalDate dateReference = LocalDate.now(clock);
+        long nbEmployes = 0;
+        try(Stream<Employe> employes = employeRepository.streamAll()){
+            Iterator<Employe> iterator = employes.iterator();
+            while(iterator.hasNext()){
+                Employe employe = iterator.next();
+                format.ecrire(writer, employe, dateReference);
+                entityManager.detach(employe);
+                nbEmployes++;
+            }
+        }
+        writer.flush();
+        logger.info("Export de {} employés terminé", nbEmployes);
+        return nbEmployes;
+    }
+
+    private void ecrireCsv(Writer writer, Employe employe, LocalDate dateReference) throws IOException {
+        Object[] valeurs = valeurs(employe, dateReference);
+        for(int i = 0; i < valeurs.length; i++){
+            if(i > 0){
+                writer.write(';');
+            }
+            if(valeurs[i] != null){
+                String valeur = valeurs[i].toString();
+                if(valeur.indexOf(';') >= 0 || valeur.indexOf('"') >= 0 || valeur.indexOf('\n') >= 0){
+                    valeur = '"' + valeur.replace("\"", "\"\"") + '"';
+                }
+                writer.write(valeur);
+            }
+        }
+        writer.write('\n');
+    }
+
+    private void ecrireJson(Writer writer, Employe employe, LocalDate dateReference) throws IOException {
+        Object[] valeurs = valeurs(employe, dateReference);
+        writer.write('{');
+        for(int i = 0; i < valeurs.length; i++){
+            if(i > 0){
+                writer.write(',');
+            }
+            writer.write('"');
+            writer.write(CHAMPS[i]);
+            writer.write("\":");
+            if(valeurs[i] == null){
+                writer.write("null");
+            }
+            else if(valeurs[i] instanceof Number){
+                writer.write(valeurs[i].toString());
+            }
+            else {
+                writer.write('"');
+                writer.write(echapperJson(valeurs[i].toString()));
+                writer.write('"');
+            }
+        }
+        writer.write("}\n");
+    }
+
+    /**
+     * Valeurs exportées, dans l'ordre de {@link #ENTETE_CSV}
+     */
+    private static Object[] valeurs(Employe employe, LocalDate dateReference) {
+        SituationEmploye situation = SituationEmploye.de(employe, dateReference);
+        return new Object[]{
+                employe.getMatricule(),
+                employe.getNom(),
+                employe.getPrenom(),
+                employe.getDateEmbauche(),
+                employe.getSalaire(),
+                employe.getPerformance(),
+                employe.getTempsPartiel(),
+                situation.getNbConges(),
+                situation.getNbRtt(),
+                situation.getPrimeAnnuelle()
+        };
+    }
+
+    private static String echapperJson(String valeur) {
+        StringBuilder sb = new StringBuilder(valeur.length() + 8);
+        for(int i = 0; i < valeur.length(); i++){
+            char c = valeur.charAt(i);
+            if(c == '"' || c == '\\'){
+                sb.append('\\').append(c);
+            }
+            else if(c < 0x20){
+                sb.append(String.format("\\u%04x", (int) c));
+            }
+            else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    @FunctionalInterface
+    private interface FormatLigne {
+        void ecrire(Writer writer, Employe employe, LocalDate dateReference) throws IOException;
+    }
+}
@@ -0,0 +1,488 @@
+package com.ipiecoles.java.java350.service;
+
+import com.ipiecoles.java.java350.model.DemandeEmbauche;
+import com.ipiecoles.java.java350.model.NiveauEtude;
+import com.ipiecoles.java.java350.model.Poste;
+import com.ipiecoles.java.java350.model.RapportEmbauche;
+import com.ipiecoles.java.java350.model.RapportImport;
+import com.ipiecoles.java.java350.model.ResultatEmbauche;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Import d'employés depuis un fichier CSV (UTF-8, séparateur point-virgule) de colonnes
+ * nom;prenom;poste;niveauEtude;tempsPartiel, avec une ligne d'entête facultative.
+ *
+ * Le fichier est lu par un thread dédié, par blocs, et découpé directement sur les octets : seuls le nom et le
+ * prénom deviennent des chaînes, le poste, le niveau d'étude et le taux d'activité sont reconnus sans en créer.
+ * Les demandes valides sont transmises par lots, au travers d'une file bornée, au thread appelant qui les embauche
+ * avec {@link EmployeService#embaucheEmployes(List)} : la lecture attend quand les insertions prennent du retard,
+ * si bien que la mémoire consommée ne dépend pas de la taille du fichier.
+ *
+ * Les lignes rejetées sont écrites dans un fichier de rejets (ligne;motif;contenu). Les champs peuvent être
+ * entourés de guillemets mais ne peuvent contenir de saut de ligne. Une marque d'ordre des octets (BOM) en tête
+ * de fichier est ignorée.
+ */
+@Service
+public class ImportService {
+    static final String ENTETE_CSV = "nom;prenom;poste;niveauEtude;tempsPartiel";
+    static final String ENTETE_REJETS = "ligne;motif;contenu";
+    private static final int NB_CHAMPS = 5;
+    private static final long INTERVALLE_PROGRESSION_NANOS = 5_000_000_000L;
+    private static final byte[][] NOMS_POSTES = noms(Poste.values());
+    private static final byte[][] NOMS_NIVEAUX_ETUDE = noms(NiveauEtude.values());
+    private static final byte[] BOM_UTF8 = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+    /** Marque la fin de la lecture dans la file des lots */
+    private static final Lot FIN = new Lot(0);
+
+    private Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    @Autowired
+    private EmployeService employeService;
+
+    @Value("${java350.import.taille-lot:1000}")
+    private int tailleLot = 1000;
+
+    @Value("${java350.import.lots-en-attente:4}")
+    private int nbLotsEnAttente = 4;
+
+    @Value("${java350.import.taille-tampon:1048576}")
+    private int tailleTampon = 1 << 20;
+
+    /**
+     * Méthode important les employés du fichier
+     *
+     * @param fichier Le fichier CSV à importer
+     * @param fichierRejets Le fichier, créé ou remplacé, recevant les lignes rejetées et leur motif
+     *
+     * @return le rapport donnant le nombre de lignes lues, d'embauches et de rejets
+     *
+     * @throws IOException Si le fichier ne peut être lu ou le fichier de rejets écrit
+     */
+    public RapportImport importerCsv(Path fichier, Path fichierRejets) throws IOException {
+        logger.info("Début d'import des employés du fichier {}", fichier);
+        long debut = System.nanoTime();
+        BlockingQueue<Lot> file = new ArrayBlockingQueue<>(nbLotsEnAttente);
+        ExecutorService lecteur = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "import-csv");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try(Writer rejets = Files.newBufferedWriter(fichierRejets, StandardCharsets.UTF_8)){
+            Future<Long> lecture = lecteur.submit(() -> lire(fichier, file));
+            rejets.write(ENTETE_REJETS);
+            rejets.write('\n');
+
+            long nbEmbauches = 0;
+            long nbRejets = 0;
+            long nbLignes = 0;
+            long derniereProgression = debut;
+            for(Lot lot = prendre(file); lot != FIN; lot = prendre(file)){
+                for(String rejet : lot.rejets){
+                    rejets.write(rejet);
+                    rejets.write('\n');
+                }
+                nbRejets += lot.rejets.size();
+                if(!lot.demandes.isEmpty()){
+                    RapportEmbauche rapport = employeService.embaucheEmployes(lot.demandes);
+                    for(ResultatEmbauche resultat : rapport.getResultats()){
+                        if(!resultat.isSucces()){
+                            rejets.write(rejet(lot.lignes[resultat.getLigne()], resultat.getErreur(), ligneCsv(lot.demandes.get(resultat.getLigne()))));
+                            rejets.write('\n');
+                        }
+                    }
+                    nbEmbauches += rapport.getNbEmbauches();
+                    nbRejets += rapport.getNbRejets();
+                }
+                nbLignes = lot.derniereLigne;
+                long maintenant = System.nanoTime();
+                if(maintenant - derniereProgression >= INTERVALLE_PROGRESSION_NANOS){
+                    derniereProgression = maintenant;
+                    logger.info("Import en cours : {} lignes lues, {} embauches, {} rejets, {} lignes/s", nbLignes, nbEmbauches, nbRejets,
+                            Math.round(nbLignes * 1_000_000_000d / (maintenant - debut)));
+                }
+            }
+            nbLignes = attendre(lecture);
+
+            RapportImport rapport = new RapportImport(nbLignes, nbEmbauches, nbRejets, System.nanoTime() - debut);
+            logger.info("Fin d'import du fichier {} : {} lignes, {} embauches, {} rejets, {} lignes/s", fichier, rapport.getNbLignes(),
+                    rapport.getNbEmbauches(), rapport.getNbRejets(), Math.round(rapport.getDebit()));
+            return rapport;
+        } finally {
+            //Arrêt de la lecture si l'import a échoué : le thread de lecture attend peut-être une place dans la file
+            lecteur.shutdownNow();
+        }
+    }
+
+    private static Lot prendre(BlockingQueue<Lot> file) throws IOException {
+        try {
+            return file.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrompu", e);
+        }
+    }
+
+    private static long attendre(Future<Long> lecture) throws IOException {
+        try {
+            return lecture.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrompu", e);
+        } catch (ExecutionException e) {
+            if(e.getCause() instanceof IOException){
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException("Erreur de lecture du fichier à importer", e.getCause());
+        }
+    }
+
+    /**
+     * Lecture du fichier par blocs et découpage en lignes, exécutés par le thread de lecture. Le lot {@link #FIN}
+     * est toujours ajouté à la file, même en cas d'erreur, pour que le thread appelant cesse d'attendre, sauf si la
+     * lecture a été interrompue : l'import a alors échoué, plus personne ne lit la file et l'ajout attendrait indéfiniment.
+     *
+     * @return le nombre de lignes de données lues
+     */
+    private long lire(Path fichier, BlockingQueue<Lot> file) throws IOException, InterruptedException {
+        Lecture lecture = new Lecture(file);
+        try(FileChannel canal = FileChannel.open(fichier, StandardOpenOption.READ)){
+            ByteBuffer tampon = ByteBuffer.allocate(tailleTampon);
+            byte[] octets = tampon.array();
+            boolean ligneTropLongue = false;
+            boolean finFichier = false;
+            while(!finFichier){
+                finFichier = canal.read(tampon) < 0;
+                int limite = tampon.position();
+                int debutLigne = 0;
+                for(int i = 0; i < limite; i++){
+                    if(octets[i] == '\n'){
+                        if(!ligneTropLongue){
+                            lecture.ligne(octets, debutLigne, i);
+                        }
+                        ligneTropLongue = false;
+                        debutLigne = i + 1;
+                    }
+                }
+                if(finFichier && debutLigne < limite && !ligneTropLongue){
+                    lecture.ligne(octets, debutLigne, limite);
+                    debutLigne = limite;
+                }
+                if(debutLigne == 0 && limite == octets.length){
+                    //Le tampon ne contient qu'un morceau de ligne : elle est rejetée et ignorée jusqu'au prochain saut de ligne
+                    if(!ligneTropLongue){
+                        lecture.ligneTropLongue(octets);
+                    }
+                    ligneTropLongue = true;
+                    debutLigne = limite;
+                }
+                System.arraycopy(octets, debutLigne, octets, 0, limite - debutLigne);
+                tampon.position(limite - debutLigne);
+            }
+            lecture.envoyer();
+            return lecture.numeroLigne;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        } finally {
+            if(!Thread.currentThread().isInterrupted()){
+                file.put(FIN);
+            }
+        }
+    }
+
+    /**
+     * État de la lecture : numéro de la ligne courante et lot en cours de constitution
+     */
+    private final class Lecture {
+        private final BlockingQueue<Lot> file;
+        private final int[] bornes = new int[NB_CHAMPS * 2];
+        private Lot lot = new Lot(tailleLot);
+        private long numeroLigne;
+        private boolean premiereLigne = true;
+
+        private Lecture(BlockingQueue<Lot> file) {
+            this.file = file;
+        }
+
+        private void ligne(byte[] octets, int debut, int fin) throws InterruptedException {
+            analyser(octets, debut, fin);
+            //Les rejets sont eux aussi transmis par lots, pour qu'un fichier entièrement invalide ne remplisse pas la mémoire
+            if(lot.demandes.size() == tailleLot || lot.rejets.size() == tailleLot){
+                envoyer();
+            }
+        }
+
+        private void ligneTropLongue(byte[] octets) throws InterruptedException {
+            premiereLigne = false;
+            numeroLigne++;
+            rejeter("Ligne de plus de " + octets.length + " octets", octets, 0, Math.min(octets.length, 200));
+            if(lot.rejets.size() == tailleLot){
+                envoyer();
+            }
+        }
+
+        private void analyser(byte[] octets, int debut, int fin) {
+            if(fin > debut && octets[fin - 1] == '\r'){
+                fin--;
+            }
+            if(premiereLigne){
+                premiereLigne = false;
+                //Marque d'ordre des octets (BOM) ajoutée en tête de fichier par certains tableurs
+                if(commencePar(octets, debut, fin, BOM_UTF8)){
+                    debut += BOM_UTF8.length;
+                }
+                if(commencePar(octets, debut, fin, "nom;")){
+                    return;
+                }
+            }
+            numeroLigne++;
+            if(fin == debut){
+                return;
+            }
+            if(decouper(octets, debut, fin, bornes) != NB_CHAMPS){
+                rejeter(NB_CHAMPS + " champs attendus", octets, debut, fin);
+                return;
+            }
+            for(int champ = 2; champ < NB_CHAMPS; champ++){
+                sansGuillemets(octets, bornes, champ);
+            }
+            Poste poste = enumeration(Poste.values(), NOMS_POSTES, octets, bornes[4], bornes[5]);
+            if(poste == null){
+                rejeter("Poste inconnu", octets, debut, fin);
+                return;
+            }
+            NiveauEtude niveauEtude = enumeration(NiveauEtude.values(), NOMS_NIVEAUX_ETUDE, octets, bornes[6], bornes[7]);
+            if(niveauEtude == null){
+                rejeter("Niveau d'étude inconnu", octets, debut, fin);
+                return;
+            }
+            double tempsPartiel = bornes[8] == bornes[9] ? 1.0 : decimal(octets, bornes[8], bornes[9]);
+            if(!(tempsPartiel > 0 && tempsPartiel <= 1)){
+                rejeter("Le taux d'activité doit être compris entre 0 exclu et 1", octets, debut, fin);
+                return;
+            }
+            lot.lignes[lot.demandes.size()] = numeroLigne;
+            lot.demandes.add(new DemandeEmbauche(texte(octets, bornes[0], bornes[1]), texte(octets, bornes[2], bornes[3]),
+                    poste, niveauEtude, tempsPartiel));
+        }
+
+        private void rejeter(String motif, byte[] octets, int debut, int fin) {
+            lot.rejets.add(rejet(numeroLigne, motif, new String(octets, debut, fin - debut, StandardCharsets.UTF_8)));
+        }
+
+        /**
+         * Ajout du lot à la file, en attendant qu'une place s'y libère si les embauches ont pris du retard
+         */
+        private void envoyer() throws InterruptedException {
+            lot.derniereLigne = numeroLigne;
+            file.put(lot);
+            lot = new Lot(tailleLot);
+        }
+    }
+
+    /**
+     * Demandes valides d'une suite de lignes, avec leur numéro de ligne, et lignes rejetées
+     */
+    private static final class Lot {
+        private final List<DemandeEmbauche> demandes;
+        private final long[] lignes;
+        private final List<String> rejets = new ArrayList<>();
+        private long derniereLigne;
+
+        private Lot(int taille) {
+            demandes = new ArrayList<>(taille);
+            lignes = new long[taille];
+        }
+    }
+
+    /**
+     * Recherche des champs de la ligne, séparés par des points-virgules. Un champ entouré de guillemets peut contenir
+     * des points-virgules et des guillemets doublés ; ses bornes incluent les guillemets.
+     *
+     * @param bornes Reçoit le début et la fin de chaque champ
+     *
+     * @return le nombre de champs, ou -1 s'il y en a trop ou si des guillemets ne sont pas fermés
+     */
+    static int decouper(byte[] octets, int debut, int fin, int[] bornes) {
+        int nbChamps = 0;
+        int i = debut;
+        while(true){
+            if(nbChamps * 2 >= bornes.length){
+                return -1;
+            }
+            int debutChamp = i;
+            if(i < fin && octets[i] == '"'){
+                i++;
+                while(i < fin && !(octets[i] == '"' && (i + 1 == fin || octets[i + 1] != '"'))){
+                    i += octets[i] == '"' ? 2 : 1;
+                }
+                if(i == fin){
+                    return -1;
+                }
+                i++;
+                if(i < fin && octets[i] != ';'){
+                    return -1;
+                }
+            }
+            else {
+                while(i < fin && octets[i] != ';'){
+                    i++;
+                }
+            }
+            bornes[nbChamps * 2] = debutChamp;
+            bornes[nbChamps * 2 + 1] = i;
+            nbChamps++;
+            if(i == fin){
+                return nbChamps;
+            }
+            i++;
+        }
+    }
+
+    /**
+     * Retrait des guillemets entourant le champ, pour reconnaître son contenu sans créer de chaîne
+     */
+    static void sansGuillemets(byte[] octets, int[] bornes, int champ) {
+        int debut = bornes[champ * 2];
+        if(bornes[champ * 2 + 1] > debut && octets[debut] == '"'){
+            bornes[champ * 2]++;
+            bornes[champ * 2 + 1]--;
+        }
+    }
+
+    /**
+     * @return le texte du champ, sans ses guillemets éventuels, ou null si le champ est vide
+     */
+    static String texte(byte[] octets, int debut, int fin) {
+        if(fin == debut){
+            return null;
+        }
+        if(octets[debut] == '"'){
+            return new String(octets, debut + 1, fin - debut - 2, StandardCharsets.UTF_8).replace("\"\"", "\"");
+        }
+        return new String(octets, debut, fin - debut, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return la valeur de l'énumération dont le nom correspond au champ, sans tenir compte de la casse, ou null
+     */
+    static <E extends Enum<E>> E enumeration(E[] valeurs, byte[][] noms, byte[] octets, int debut, int fin) {
+        for(int v = 0; v < noms.length; v++){
+            byte[] nom = noms[v];
+            if(nom.length != fin - debut){
+                continue;
+            }
+            int i = 0;
+            while(i < nom.length && (octets[debut + i] & 0xDF) == nom[i]){
+                i++;
+            }
+            if(i == nom.length){
+                return valeurs[v];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return le nombre décimal du champ (point ou virgule décimale), NaN s'il n'est pas valide
+     */
+    static double decimal(byte[] octets, int debut, int fin) {
+        long chiffres = 0;
+        long diviseur = 1;
+        boolean separateur = false;
+        if(fin - debut > 18){
+            return Double.NaN;
+        }
+        for(int i = debut; i < fin; i++){
+            byte octet = octets[i];
+            if(octet >= '0' && octet <= '9'){
+                chiffres = chiffres * 10 + (octet - '0');
+                if(separateur){
+                    diviseur *= 10;
+                }
+            }
+            else if((octet == '.' || octet == ',') && !separateur && i > debut){
+                separateur = true;
+            }
+            else {
+                return Double.NaN;
+            }
+        }
+        return (double) chiffres / diviseur;
+    }
+
+    private static boolean commencePar(byte[] octets, int debut, int fin, byte[] prefixe) {
+        if(fin - debut < prefixe.length){
+            return false;
+        }
+        for(int i = 0; i < prefixe.length; i++){
+            if(octets[debut + i] != prefixe[i]){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean commencePar(byte[] octets, int debut, int fin, String prefixe) {
+        if(fin - debut < prefixe.length()){
+            return false;
+        }
+        for(int i = 0; i < prefixe.length(); i++){
+            if(Character.toLowerCase((char) octets[debut + i]) != prefixe.charAt(i)){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Les noms des valeurs, en majuscules ASCII, pour les comparer aux octets sans tenir compte de la casse
+     */
+    private static byte[][] noms(Enum<?>[] valeurs) {
+        byte[][] noms = new byte[valeurs.length][];
+        for(int i = 0; i < valeurs.length; i++){
+            noms[i] = valeurs[i].name().getBytes(StandardCharsets.US_ASCII);
+        }
+        return noms;
+    }
+
+    private static String rejet(long ligne, String motif, String contenu) {
+        return ligne + ";" + motif + ";" + contenu;
+    }
+
+    private static String ligneCsv(DemandeEmbauche demande) {
+        return champCsv(demande.getNom()) + ";" + champCsv(demande.getPrenom()) + ";" + demande.getPoste() + ";"
+                + demande.getNiveauEtude() + ";" + demande.getTempsPartiel();
+    }
+
+    private static String champCsv(String valeur) {
+        if(valeur == null){
+            return "";
+        }
+        if(valeur.indexOf(';') >= 0 || valeur.indexOf('"') >= 0){
+            return '"' + valeur.replace("\"", "\"\"") + '"';
+        }
+        return valeur;
+    }
+}
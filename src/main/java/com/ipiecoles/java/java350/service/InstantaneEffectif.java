@@ -0,0 +1,371 @@
+package com.ipiecoles.java.java350.service;
+
+import com.ipiecoles.java.java350.model.Employe;
+import com.ipiecoles.java.java350.model.FiltreEmploye;
+import com.ipiecoles.java.java350.model.StatistiquesGroupe;
+import com.ipiecoles.java.java350.repository.EmployeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Copie en mémoire des données numériques de tout l'effectif, rangées par colonnes de types primitifs
+ * (première lettre du matricule, performance, salaire, taux d'activité, jour d'embauche), pour répondre
+ * aux filtres et agrégats sans requête ni entité. Les employés sont retrouvés par matricule grâce à un
+ * index à adressage ouvert, sans objet par employé.
+ *
+ * Activée par java350.instantane.actif. L'instantané est tenu à jour à chaque sauvegarde faite par
+ * {@link EmployeService} ; les autres modifications ne sont prises en compte qu'au rechargement suivant,
+ * au démarrage puis périodiquement.
+ */
+@Component
+public class InstantaneEffectif {
+    private Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    @Autowired
+    private EmployeRepository employeRepository;
+
+    @Value("${java350.instantane.actif:false}")
+    private boolean actif = false;
+
+    private final ReadWriteLock verrou = new ReentrantReadWriteLock();
+
+    private Colonnes colonnes = new Colonnes(16);
+
+    /**
+     * @return un instantané inactif, pour les classes créées sans Spring
+     */
+    public static InstantaneEffectif desactive() {
+        return new InstantaneEffectif();
+    }
+
+    public boolean isActif() {
+        return actif;
+    }
+
+    /**
+     * Rechargement de l'instantané à partir de la BDD. Les sauvegardes concurrentes au rechargement peuvent
+     * être perdues : elles seront rattrapées au rechargement suivant.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${java350.instantane.rechargement.cron:0 30 2 * * *}")
+    @Transactional(readOnly = true)
+    public void recharger() {
+        if(!actif){
+            return;
+        }
+        long debut = System.nanoTime();
+        Colonnes nouvelles = new Colonnes(1024);
+        try(Stream<Object[]> lignes = employeRepository.streamDonneesInstantane()){
+            lignes.forEach(ligne -> nouvelles.enregistrer((String) ligne[0], (Integer) ligne[1], (Double) ligne[2],
+                    (Double) ligne[3], (LocalDate) ligne[4]));
+        }
+        verrou.writeLock().lock();
+        try {
+            colonnes = nouvelles;
+        } finally {
+            verrou.writeLock().unlock();
+        }
+        logger.info("Instantané de {} employés chargé en {} ms, {} octets par employé", nouvelles.taille,
+                (System.nanoTime() - debut) / 1_000_000, Math.round(octetsParEmploye()));
+    }
+
+    /**
+     * Prise en compte d'un employé nouveau ou modifié
+     */
+    public void enregistrer(Employe employe) {
+        if(!actif || employe.getMatricule() == null){
+            return;
+        }
+        verrou.writeLock().lock();
+        try {
+            colonnes.enregistrer(employe.getMatricule(), employe.getPerformance(), employe.getSalaire(), employe.getTempsPartiel(),
+                    employe.getDateEmbauche());
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Prise en compte de la nouvelle performance d'un employé, sauvegardée sans relire l'entité
+     */
+    public void modifierPerformance(String matricule, Integer performance) {
+        if(!actif){
+            return;
+        }
+        verrou.writeLock().lock();
+        try {
+            int ligne = colonnes.ligne(matricule);
+            if(ligne >= 0){
+                colonnes.performances[ligne] = performance == null ? Integer.MIN_VALUE : performance;
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Prise en compte de l'augmentation de salaire d'un employé, faite en BDD sans relire l'entité
+     *
+     * @param facteur Le facteur appliqué au salaire (cf. {@link Employe#facteurAugmentation(double)})
+     */
+    public void augmenterSalaire(String matricule, double facteur) {
+        if(!actif){
+            return;
+        }
+        verrou.writeLock().lock();
+        try {
+            int ligne = colonnes.ligne(matricule);
+            if(ligne >= 0){
+                colonnes.salaires[ligne] = colonnes.salaires[ligne] * facteur;
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Prise en compte de l'augmentation de salaire des employés retenus par le filtre, faite en BDD sans relire les entités
+     *
+     * @param facteur Le facteur appliqué au salaire (cf. {@link Employe#facteurAugmentation(double)})
+     */
+    public void augmenterSalaires(FiltreEmploye filtre, double facteur) {
+        if(!actif){
+            return;
+        }
+        verrou.writeLock().lock();
+        try {
+            Colonnes c = colonnes;
+            for(int i = 0; i < c.taille; i++){
+                if(filtre.accepte(c.prefixes[i], c.performances[i], c.salaires[i], c.tempsPartiels[i], c.joursEmbauche[i])){
+                    c.salaires[i] = c.salaires[i] * facteur;
+                }
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    public int getTaille() {
+        verrou.readLock().lock();
+        try {
+            return colonnes.taille;
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return la performance de l'employé, null s'il n'est pas dans l'instantané ou si elle n'est pas renseignée
+     */
+    public Integer performance(String matricule) {
+        verrou.readLock().lock();
+        try {
+            int ligne = colonnes.ligne(matricule);
+            return ligne < 0 || colonnes.performances[ligne] == Integer.MIN_VALUE ? null : colonnes.performances[ligne];
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    public long compter(FiltreEmploye filtre) {
+        verrou.readLock().lock();
+        try {
+            Colonnes c = colonnes;
+            long nombre = 0;
+            for(int i = 0; i < c.taille; i++){
+                if(filtre.accepte(c.prefixes[i], c.performances[i], c.salaires[i], c.tempsPartiels[i], c.joursEmbauche[i])){
+                    nombre++;
+                }
+            }
+            return nombre;
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return les matricules des employés retenus par le filtre, dans l'ordre de chargement
+     */
+    public List<String> matricules(FiltreEmploye filtre) {
+        verrou.readLock().lock();
+        try {
+            Colonnes c = colonnes;
+            List<String> matricules = new ArrayList<>();
+            for(int i = 0; i < c.taille; i++){
+                if(filtre.accepte(c.prefixes[i], c.performances[i], c.salaires[i], c.tempsPartiels[i], c.joursEmbauche[i])){
+                    matricules.add(c.matricules[i]);
+                }
+            }
+            return matricules;
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /**
+     * Méthode agrégeant les employés retenus par le filtre. Les salaires et performances non renseignés sont
+     * exclus des moyennes et de la masse salariale, comme le fait la BDD.
+     *
+     * @return le nombre d'employés, le salaire moyen, la masse salariale et la performance moyenne, sans clé
+     */
+    public StatistiquesGroupe agreger(FiltreEmploye filtre) {
+        verrou.readLock().lock();
+        try {
+            Colonnes c = colonnes;
+            long nombre = 0;
+            long nbSalaires = 0;
+            double masseSalariale = 0;
+            long nbPerformances = 0;
+            long sommePerformances = 0;
+            for(int i = 0; i < c.taille; i++){
+                if(filtre.accepte(c.prefixes[i], c.performances[i], c.salaires[i], c.tempsPartiels[i], c.joursEmbauche[i])){
+                    nombre++;
+                    if(!Double.isNaN(c.salaires[i])){
+                        nbSalaires++;
+                        masseSalariale += c.salaires[i];
+                    }
+                    if(c.performances[i] != Integer.MIN_VALUE){
+                        nbPerformances++;
+                        sommePerformances += c.performances[i];
+                    }
+                }
+            }
+            return new StatistiquesGroupe(null, nombre, nbSalaires == 0 ? null : masseSalariale / nbSalaires,
+                    nbSalaires == 0 ? null : masseSalariale, nbPerformances == 0 ? null : (double) sommePerformances / nbPerformances);
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /**
+     * Estimation de la mémoire occupée par employé : colonnes et index à leur capacité courante, plus le matricule
+     * (en-têtes d'objet de 12 octets, références compressées de 4 octets)
+     *
+     * @return le nombre d'octets par employé, 0 si l'instantané est vide
+     */
+    public double octetsParEmploye() {
+        verrou.readLock().lock();
+        try {
+            Colonnes c = colonnes;
+            if(c.taille == 0){
+                return 0;
+            }
+            long octetsMatricules = 0;
+            for(int i = 0; i < c.taille; i++){
+                //String (12 + 4 + 4 + 1, aligné sur 8) et son tableau d'octets (16 + longueur, aligné sur 8)
+                octetsMatricules += 24 + aligner(16 + c.matricules[i].length());
+            }
+            long octetsColonnes = (long) c.matricules.length * (4 + 1 + 4 + 8 + 8 + 4) + (long) c.index.length * 4;
+            return (double) (octetsColonnes + octetsMatricules) / c.taille;
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    private static long aligner(long octets) {
+        return (octets + 7) & ~7L;
+    }
+
+    /**
+     * Colonnes de l'instantané. L'index associe au hash du matricule le numéro de ligne plus un (0 : case vide) ;
+     * il reste rempli au plus à moitié pour que les collisions soient rares.
+     */
+    private static final class Colonnes {
+        private String[] matricules;
+        private byte[] prefixes;
+        private int[] performances;
+        private double[] salaires;
+        private double[] tempsPartiels;
+        private int[] joursEmbauche;
+        private int[] index;
+        private int taille;
+
+        private Colonnes(int capacite) {
+            matricules = new String[capacite];
+            prefixes = new byte[capacite];
+            performances = new int[capacite];
+            salaires = new double[capacite];
+            tempsPartiels = new double[capacite];
+            joursEmbauche = new int[capacite];
+            index = new int[capacite * 2];
+        }
+
+        private int ligne(String matricule) {
+            if(matricule == null){
+                return -1;
+            }
+            int masque = index.length - 1;
+            for(int position = melanger(matricule.hashCode()) & masque; index[position] != 0; position = (position + 1) & masque){
+                int ligne = index[position] - 1;
+                if(matricules[ligne].equals(matricule)){
+                    return ligne;
+                }
+            }
+            return -1;
+        }
+
+        private void enregistrer(String matricule, Integer performance, Double salaire, Double tempsPartiel, LocalDate dateEmbauche) {
+            int ligne = ligne(matricule);
+            if(ligne < 0){
+                if(taille == matricules.length){
+                    agrandir();
+                }
+                ligne = taille++;
+                matricules[ligne] = matricule;
+                indexer(ligne);
+            }
+            prefixes[ligne] = matricule.isEmpty() ? 0 : (byte) matricule.charAt(0);
+            performances[ligne] = performance == null ? Integer.MIN_VALUE : performance;
+            salaires[ligne] = salaire == null ? Double.NaN : salaire;
+            tempsPartiels[ligne] = tempsPartiel == null ? Double.NaN : tempsPartiel;
+            joursEmbauche[ligne] = dateEmbauche == null ? Integer.MIN_VALUE : (int) dateEmbauche.toEpochDay();
+        }
+
+        private void indexer(int ligne) {
+            int masque = index.length - 1;
+            int position = melanger(matricules[ligne].hashCode()) & masque;
+            while(index[position] != 0){
+                position = (position + 1) & masque;
+            }
+            index[position] = ligne + 1;
+        }
+
+        private void agrandir() {
+            int capacite = matricules.length * 2;
+            matricules = Arrays.copyOf(matricules, capacite);
+            prefixes = Arrays.copyOf(prefixes, capacite);
+            performances = Arrays.copyOf(performances, capacite);
+            salaires = Arrays.copyOf(salaires, capacite);
+            tempsPartiels = Arrays.copyOf(tempsPartiels, capacite);
+            joursEmbauche = Arrays.copyOf(joursEmbauche, capacite);
+            index = new int[capacite * 2];
+            for(int i = 0; i < taille; i++){
+                indexer(i);
+            }
+        }
+
+        /**
+         * Les matricules ne diffèrent que par leurs derniers chiffres : leurs hash sont mélangés pour être
+         * répartis dans tout l'index
+         */
+        private static int melanger(int hash) {
+            int h = hash * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
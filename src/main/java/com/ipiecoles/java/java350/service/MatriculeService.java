@@ -0,0 +1,109 @@
+package com.ipiecoles.java.java350.service;
+
+import com.ipiecoles.java.java350.model.Entreprise;
+import com.ipiecoles.java.java350.repository.EmployeRepository;
+import com.ipiecoles.java.java350.repository.SequenceMatriculeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Distribution des numéros de matricule selon le principe hi/lo : un bloc de numéros est réservé
+ * en BDD, puis les numéros du bloc sont distribués en mémoire sans aucun accès à la base.
+ * Les numéros d'un bloc non entièrement consommé avant un arrêt de l'application sont perdus,
+ * mais ne sont jamais réattribués.
+ *
+ * Chaque type d'employé (première lettre du matricule : T, M, C...) a sa propre séquence, si bien que
+ * les techniciens, managers et commerciaux disposent chacun de tous les numéros possibles.
+ */
+@Service
+public class MatriculeService {
+    /** Préfixe du nom des séquences en BDD, suivi du type d'employé */
+    static final String SEQUENCE_MATRICULE = "matricule_";
+
+    private Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    @Autowired
+    private SequenceMatriculeRepository sequenceMatriculeRepository;
+
+    @Autowired
+    private EmployeRepository employeRepository;
+
+    @Value("${java350.matricule.taille-bloc:50}")
+    private int tailleBloc = 50;
+
+    /** Bloc courant de chaque type d'employé */
+    private final Map<String, Bloc> blocs = new ConcurrentHashMap<>();
+
+    /**
+     * Méthode fournissant le prochain numéro de matricule disponible pour un type d'employé. Seul l'épuisement
+     * du bloc courant de ce type provoque un accès à la BDD.
+     *
+     * @param typeEmploye La première lettre du matricule
+     *
+     * @return le numéro de matricule, sans préfixe ni complétion par des 0
+     */
+    public int prochainNumero(String typeEmploye) {
+        while(true){
+            Bloc bloc = blocs.getOrDefault(typeEmploye, Bloc.VIDE);
+            int numero = bloc.suivant.getAndIncrement();
+            if(numero < bloc.fin){
+                return numero;
+            }
+            synchronized (this){
+                //Un autre thread a pu recharger le bloc pendant l'attente du verrou
+                if(blocs.getOrDefault(typeEmploye, Bloc.VIDE) == bloc){
+                    int debut = sequenceMatriculeRepository.reserver(SEQUENCE_MATRICULE + typeEmploye, tailleBloc, () -> numeroInitial(typeEmploye));
+                    if(logger.isDebugEnabled()){
+                        logger.debug("Réservation du bloc de matricules {} [{}, {}[", typeEmploye, debut, debut + tailleBloc);
+                    }
+                    blocs.put(typeEmploye, new Bloc(debut, debut + tailleBloc));
+                }
+            }
+        }
+    }
+
+    /**
+     * Méthode réservant directement en BDD une plage de numéros consécutifs d'un type d'employé, pour les embauches groupées.
+     *
+     * @param typeEmploye La première lettre du matricule
+     * @param nombre Le nombre de numéros à réserver
+     *
+     * @return le premier numéro de la plage
+     */
+    public int reserverNumeros(String typeEmploye, int nombre) {
+        int debut = sequenceMatriculeRepository.reserver(SEQUENCE_MATRICULE + typeEmploye, nombre, () -> numeroInitial(typeEmploye));
+        if(logger.isDebugEnabled()){
+            logger.debug("Réservation de la plage de matricules {} [{}, {}[", typeEmploye, debut, debut + nombre);
+        }
+        return debut;
+    }
+
+    /**
+     * Initialisation de la séquence d'un type d'employé à partir des matricules de ce type déjà présents en BDD,
+     * lors de sa première utilisation. Les numéros sont ceux de l'ancienne séquence commune à tous les types
+     * comme ceux des séquences par type, quel que soit leur nombre de chiffres.
+     */
+    private int numeroInitial(String typeEmploye) {
+        Integer dernierNumero = employeRepository.findLastNumeroMatricule(typeEmploye);
+        return (dernierNumero == null ? Integer.parseInt(Entreprise.MATRICULE_INITIAL) : dernierNumero) + 1;
+    }
+
+    private static final class Bloc {
+        private static final Bloc VIDE = new Bloc(0, 0);
+
+        private final AtomicInteger suivant;
+        private final int fin;
+
+        private Bloc(int debut, int fin) {
+            this.suivant = new AtomicInteger(debut);
+            this.fin = fin;
+        }
+    }
+}
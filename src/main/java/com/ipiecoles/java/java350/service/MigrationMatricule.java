@@ -0,0 +1,34 @@
+package com.ipiecoles.java.java350.service;
+
+import com.ipiecoles.java.java350.repository.EmployeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Au démarrage, renseigne les colonnes indexées du matricule (type et numéro) et la version des employés qui ne
+ * les ont pas encore, par exemple ceux insérés par une version précédente de l'application. Voir aussi
+ * db/migration-matricule.sql et db/migration-version.sql pour la mise à jour du schéma MySQL.
+ */
+@Component
+public class MigrationMatricule implements ApplicationRunner {
+    private Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    @Autowired
+    private EmployeRepository employeRepository;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int nbEmployes = employeRepository.migrerMatricules();
+        if(nbEmployes > 0){
+            logger.info("Migration du type et du numéro de matricule de {} employés", nbEmployes);
+        }
+        int nbVersions = employeRepository.initialiserVersions();
+        if(nbVersions > 0){
+            logger.info("Initialisation de la version de {} employés", nbVersions);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.ipiecoles.java.java350.service;
+
+import com.ipiecoles.java.java350.model.EffectifColonnes;
+import com.ipiecoles.java.java350.repository.EmployeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Service
+public class PrimeService {
+    private Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    @Autowired
+    private EmployeRepository employeRepository;
+
+    @Value("${java350.prime.seuil-parallele:100000}")
+    private int seuilParallele = 100000;
+
+    /**
+     * Méthode chargeant de la BDD les seules données nécessaires au calcul de la prime annuelle de tous les employés
+     *
+     * @return l'effectif rangé par colonnes
+     */
+    public EffectifColonnes chargerEffectif() {
+        List<Object[]> lignes = employeRepository.findDonneesPrimes();
+        EffectifColonnes effectif = new EffectifColonnes(lignes.size());
+        for(Object[] ligne : lignes){
+            effectif.ajouter((String) ligne[0], (Integer) ligne[1], (LocalDate) ligne[2], (Double) ligne[3]);
+        }
+        return effectif;
+    }
+
+    /**
+     * Méthode calculant la prime annuelle de tous les employés de l'effectif. Au delà du seuil configuré,
+     * le calcul est réparti sur plusieurs threads. Les employés sans temps partiel n'ont pas de prime (NaN)
+     * et sont signalés dans les logs.
+     *
+     * @param effectif L'effectif
+     * @param anneeReference L'année à laquelle l'ancienneté est calculée
+     *
+     * @return la prime de chaque employé, dans l'ordre de l'effectif
+     */
+    public double[] calculerPrimes(EffectifColonnes effectif, int anneeReference) {
+        logger.info("Calcul de la prime annuelle de {} employés pour l'année {}", effectif.getTaille(), anneeReference);
+        double[] primes = effectif.getTaille() >= seuilParallele
+                ? effectif.calculerPrimesEnParallele(anneeReference)
+                : effectif.calculerPrimes(anneeReference);
+        for(int i = 0; i < primes.length; i++){
+            if(Double.isNaN(primes[i])){
+                logger.warn("Prime annuelle non calculée pour l'employé {} : temps partiel non renseigné", effectif.getMatricule(i));
+            }
+        }
+        return primes;
+    }
+}
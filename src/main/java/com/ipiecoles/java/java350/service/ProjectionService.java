@@ -0,0 +1,82 @@
+package com.ipiecoles.java.java350.service;
+
+import com.ipiecoles.java.java350.model.CohorteEmploye;
+import com.ipiecoles.java.java350.model.ProjectionAnnuelle;
+import com.ipiecoles.java.java350.model.SituationEmploye;
+import com.ipiecoles.java.java350.repository.EmployeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Projection sur plusieurs années des budgets de primes, congés et RTT de tout l'effectif, à effectif et
+ * performances constants. L'effectif est lu regroupé en cohortes par la BDD (cf. {@link CohorteEmploye}) :
+ * le coût du calcul dépend du nombre de cohortes et d'années, pas du nombre d'employés.
+ */
+@Service
+public class ProjectionService {
+    private Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    @Autowired
+    private EmployeRepository employeRepository;
+
+    @Autowired(required = false)
+    private Clock clock = Clock.systemDefaultZone();
+
+    /**
+     * Méthode projetant les budgets de l'effectif sur l'année en cours et les suivantes
+     *
+     * @param nbAnnees Le nombre d'années projetées, année en cours comprise
+     *
+     * @return une projection par année, dans l'ordre chronologique
+     */
+    public List<ProjectionAnnuelle> projeter(int nbAnnees) {
+        int anneeDebut = LocalDate.now(clock).getYear();
+        long debut = System.nanoTime();
+        List<CohorteEmploye> cohortes = employeRepository.findCohortes();
+        List<ProjectionAnnuelle> projections = projeter(cohortes, anneeDebut, nbAnnees);
+        logger.info("Projection de {} cohortes sur {} ans à partir de {} calculée en {} ms", cohortes.size(), nbAnnees, anneeDebut,
+                (System.nanoTime() - debut) / 1_000_000);
+        return projections;
+    }
+
+    /**
+     * Méthode projetant les budgets d'un ensemble de cohortes, selon les règles de {@link SituationEmploye}
+     * évaluées au 1er janvier de chaque année
+     *
+     * @param cohortes Les cohortes de l'effectif
+     * @param anneeDebut La première année projetée
+     * @param nbAnnees Le nombre d'années projetées
+     *
+     * @return une projection par année, dans l'ordre chronologique
+     */
+    public static List<ProjectionAnnuelle> projeter(Collection<CohorteEmploye> cohortes, int anneeDebut, int nbAnnees) {
+        List<ProjectionAnnuelle> projections = new ArrayList<>(Math.max(nbAnnees, 0));
+        for(int annee = anneeDebut; annee < anneeDebut + nbAnnees; annee++){
+            LocalDate dateReference = LocalDate.of(annee, 1, 1);
+            long nbEmployes = 0;
+            double totalPrimes = 0;
+            long totalConges = 0;
+            long totalRtt = 0;
+            for(CohorteEmploye cohorte : cohortes){
+                long nombre = cohorte.getNbEmployes();
+                SituationEmploye situation = cohorte.situation(dateReference);
+                nbEmployes += nombre;
+                totalConges += nombre * situation.getNbConges();
+                if(situation.getPrimeAnnuelle() != null){
+                    totalPrimes += nombre * situation.getPrimeAnnuelle();
+                    totalRtt += nombre * situation.getNbRtt();
+                }
+            }
+            projections.add(new ProjectionAnnuelle(annee, nbEmployes, totalPrimes, totalConges, totalRtt));
+        }
+        return projections;
+    }
+}
@@ -0,0 +1,211 @@
+package com.ipiecoles.java.java350.service;
+
+import com.ipiecoles.java.java350.exception.EmployeException;
+import com.ipiecoles.java.java350.model.BilanCommercial;
+import com.ipiecoles.java.java350.model.RapportPerformance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Revue de la performance d'un ensemble de commerciaux, chaque bilan étant traité par
+ * {@link EmployeService#calculPerformanceCommercial(String, Long, Long)} sur un pool de threads.
+ *
+ * Le nombre de revues en cours est borné par le parallélisme configuré et par la taille du pool de connexions,
+ * toutes demandes de revue confondues : la lecture des bilans est suspendue tant qu'aucune place ne s'est libérée,
+ * si bien qu'aucune revue n'attend une connexion et que les bilans ne sont pas tous chargés en mémoire.
+ *
+ * Les threads virtuels sont utilisés quand la JVM les propose (Java 21 et plus), des threads classiques sinon.
+ */
+@Service
+public class RevuePerformanceService {
+    private Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    @Autowired
+    private EmployeService employeService;
+
+    @Value("${java350.revue.parallelisme:4}")
+    private int parallelisme = 4;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int taillePoolConnexions = 10;
+
+    private ExecutorService executor;
+
+    private int nbRevuesSimultanees;
+
+    /**
+     * Places de revue, partagées par tous les appels à {@link #reviserCommerciaux(Stream)}
+     */
+    private Semaphore places;
+
+    @PostConstruct
+    public void demarrer() {
+        nbRevuesSimultanees = Math.max(1, Math.min(parallelisme, taillePoolConnexions));
+        places = new Semaphore(nbRevuesSimultanees);
+        executor = creerExecutorThreadsVirtuels();
+        if(executor == null){
+            AtomicInteger numero = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(nbRevuesSimultanees, runnable -> {
+                Thread thread = new Thread(runnable, "revue-performance-" + numero.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            logger.info("Revues de performance sur {} threads", nbRevuesSimultanees);
+        }
+        else {
+            logger.info("Revues de performance sur threads virtuels, {} revues simultanées au plus", nbRevuesSimultanees);
+        }
+    }
+
+    @PreDestroy
+    public void arreter() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Méthode calculant la performance de chaque commercial d'après son bilan. Un matricule présent dans
+     * plusieurs bilans est rejeté, ses revues simultanées ne pouvant qu'écraser l'une l'autre. Les matricules
+     * lus sont pour cela retenus jusqu'à la fin de la revue : la mémoire consommée croît avec le nombre de
+     * matricules distincts des bilans, au plus un par commercial si les bilans sont valides.
+     *
+     * @param bilans Les chiffres d'affaires et objectifs de l'année, un bilan par commercial
+     *
+     * @return le rapport donnant le nombre de commerciaux mis à jour et le motif de rejet de chaque bilan en erreur
+     *
+     * @throws InterruptedException Si le thread est interrompu en attendant une place ou la fin des revues : les revues
+     * de l'appel non terminées sont alors annulées et le thread reste interrompu
+     */
+    public RapportPerformance reviserCommerciaux(Stream<BilanCommercial> bilans) throws InterruptedException {
+        logger.info("Début de la revue des performances des commerciaux, {} revues simultanées", nbRevuesSimultanees);
+        long debut = System.nanoTime();
+        RapportPerformance rapport = new RapportPerformance();
+        Semaphore terminees = new Semaphore(0);
+        int nbSoumises = 0;
+        Set<String> matricules = new HashSet<>();
+
+        //Revues de cet appel non terminées, au plus une par place de revue
+        List<Revue> enCours = new ArrayList<>();
+        try {
+            Iterator<BilanCommercial> iterator = bilans.iterator();
+            while(iterator.hasNext()){
+                BilanCommercial bilan = iterator.next();
+                if(!matricules.add(bilan.getMatricule())){
+                    synchronized (rapport){
+                        rapport.ajouterErreur(bilan.getMatricule(), "Le matricule " + bilan.getMatricule() + " a plusieurs bilans !");
+                    }
+                    continue;
+                }
+                places.acquire();
+                Revue revue = new Revue(bilan, rapport, terminees);
+                try {
+                    executor.execute(revue);
+                } catch (RuntimeException e) {
+                    places.release();
+                    throw e;
+                }
+                enCours.removeIf(Revue::isDone);
+                enCours.add(revue);
+                nbSoumises++;
+            }
+            //Attente de la fin des seules revues de cet appel, les places pouvant être prises par d'autres appels
+            terminees.acquire(nbSoumises);
+        } catch (InterruptedException e) {
+            //Les revues en attente ne commenceront pas, celles en cours sont interrompues
+            logger.warn("Revue des performances des commerciaux interrompue, {} revues annulées", enCours.size());
+            enCours.forEach(revue -> revue.cancel(true));
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+
+        rapport.setDureeNanos(System.nanoTime() - debut);
+        logger.info("Fin de la revue des performances des commerciaux : {} mis à jour, {} rejets",
+                rapport.getNbMisesAJour(), rapport.getErreurs().size());
+        return rapport;
+    }
+
+    private void reviser(BilanCommercial bilan, RapportPerformance rapport) {
+        try {
+            employeService.calculPerformanceCommercial(bilan.getMatricule(), bilan.getCaTraite(), bilan.getObjectifCa());
+            synchronized (rapport){
+                rapport.ajouterMisesAJour(1);
+            }
+        } catch (EmployeException | RuntimeException e) {
+            synchronized (rapport){
+                rapport.ajouterErreur(bilan.getMatricule(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Revue d'un bilan soumise au pool. Sa place est libérée à la fin de la revue ou, si la revue est annulée
+     * avant d'avoir commencé, dès son annulation : celui qui passe le premier prise à vrai en a la charge.
+     */
+    private final class Revue extends FutureTask<Void> {
+        private final AtomicBoolean prise = new AtomicBoolean();
+        private final Semaphore terminees;
+
+        private Revue(BilanCommercial bilan, RapportPerformance rapport, Semaphore terminees) {
+            super(() -> reviser(bilan, rapport), null);
+            this.terminees = terminees;
+        }
+
+        @Override
+        public void run() {
+            if(!prise.compareAndSet(false, true)){
+                return;
+            }
+            try {
+                super.run();
+            } finally {
+                liberer();
+            }
+        }
+
+        @Override
+        protected void done() {
+            if(isCancelled() && prise.compareAndSet(false, true)){
+                liberer();
+            }
+        }
+
+        private void liberer() {
+            places.release();
+            terminees.release();
+        }
+    }
+
+    public int getNbRevuesSimultanees() {
+        return nbRevuesSimultanees;
+    }
+
+    /**
+     * Recherche par réflexion de Executors.newVirtualThreadPerTaskExecutor, absente de Java 8
+     */
+    private static ExecutorService creerExecutorThreadsVirtuels() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
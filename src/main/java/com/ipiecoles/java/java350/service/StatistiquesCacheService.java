@@ -0,0 +1,46 @@
+package com.ipiecoles.java.java350.service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compteurs des caches applicatifs (succès, défauts, évictions). Seuls les caches Caffeine tiennent
+ * ces compteurs : avec une autre implémentation (spring.cache.type), aucune statistique n'est renvoyée.
+ */
+@Service
+public class StatistiquesCacheService {
+    public static final String SUCCES = "succes";
+    public static final String DEFAUTS = "defauts";
+    public static final String EVICTIONS = "evictions";
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    /**
+     * Méthode renvoyant les compteurs d'un cache
+     *
+     * @param nomCache Le nom du cache
+     *
+     * @return les compteurs succes, defauts et evictions, ou une map vide si le cache n'existe pas
+     * ou ne tient pas de statistiques
+     */
+    public Map<String, Long> statistiques(String nomCache) {
+        Cache cache = cacheManager.getCache(nomCache);
+        if(cache == null || !(cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache)){
+            return Collections.emptyMap();
+        }
+        CacheStats stats = ((com.github.benmanes.caffeine.cache.Cache<?, ?>) cache.getNativeCache()).stats();
+        Map<String, Long> compteurs = new LinkedHashMap<>();
+        compteurs.put(SUCCES, stats.hitCount());
+        compteurs.put(DEFAUTS, stats.missCount());
+        compteurs.put(EVICTIONS, stats.evictionCount());
+        return compteurs;
+    }
+}
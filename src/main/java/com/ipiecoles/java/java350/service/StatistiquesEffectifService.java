@@ -0,0 +1,63 @@
+package com.ipiecoles.java.java350.service;
+
+import com.ipiecoles.java.java350.model.StatistiquesEffectif;
+import com.ipiecoles.java.java350.repository.EmployeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Statistiques de l'effectif (effectifs, masse salariale, distribution des performances) destinées aux
+ * tableaux de bord. Les regroupements sont calculés par la BDD et l'instantané obtenu est conservé dans le
+ * cache {@link #CACHE_STATISTIQUES} : les rafraîchissements successifs d'un tableau de bord ne relisent pas
+ * la table. L'instantané n'est pas invalidé à chaque embauche ; il expire selon spring.cache.caffeine.spec
+ * ou sur demande ({@link #invaliderStatistiques()}).
+ */
+@Service
+public class StatistiquesEffectifService {
+    public static final String CACHE_STATISTIQUES = "statistiques";
+
+    private Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    @Autowired
+    private EmployeRepository employeRepository;
+
+    /**
+     * Méthode renvoyant l'instantané courant des statistiques de l'effectif, calculé en une seule transaction
+     * en lecture seule s'il n'est pas en cache
+     *
+     * @return les statistiques de l'effectif
+     */
+    @Cacheable(cacheNames = CACHE_STATISTIQUES, key = "'effectif'")
+    @Transactional(readOnly = true)
+    public StatistiquesEffectif statistiques() {
+        long debut = System.nanoTime();
+        Map<String, Map<Integer, Long>> histogramme = new TreeMap<>();
+        for(Object[] ligne : employeRepository.histogrammePerformances()){
+            histogramme.computeIfAbsent((String) ligne[0], t -> new TreeMap<>()).put((Integer) ligne[1], ((Number) ligne[2]).longValue());
+        }
+        StatistiquesEffectif statistiques = new StatistiquesEffectif(LocalDateTime.now(),
+                employeRepository.statistiquesParTypeMatricule(),
+                employeRepository.statistiquesParTempsPartiel(),
+                employeRepository.statistiquesParAnneeEmbauche(),
+                histogramme);
+        logger.info("Statistiques de l'effectif calculées en {} ms", (System.nanoTime() - debut) / 1_000_000);
+        return statistiques;
+    }
+
+    /**
+     * Méthode supprimant l'instantané en cache : le prochain appel à {@link #statistiques()} le recalcule
+     */
+    @CacheEvict(cacheNames = CACHE_STATISTIQUES, allEntries = true)
+    public void invaliderStatistiques() {
+        logger.info("Invalidation des statistiques de l'effectif");
+    }
+}
@@ -0,0 +1,16 @@
+-- Découpage du matricule en colonnes indexées (MySQL)
+-- Le type (première lettre) et le numéro du matricule sont dupliqués dans des colonnes dédiées
+-- pour que la recherche du dernier matricule d'un type et la moyenne des performances par type utilisent un index.
+-- Le numéro reste NULL si la suite du matricule n'est pas faite uniquement de chiffres (cf. Employe.setMatricule).
+
+ALTER TABLE employe
+    ADD COLUMN type_matricule VARCHAR(1),
+    ADD COLUMN numero_matricule INTEGER;
+
+UPDATE employe
+SET type_matricule = SUBSTRING(matricule, 1, 1),
+    numero_matricule = CASE WHEN SUBSTRING(matricule, 2) REGEXP '^[0-9]{1,9}$' THEN CAST(SUBSTRING(matricule, 2) AS UNSIGNED) END
+WHERE matricule IS NOT NULL;
+
+ALTER TABLE employe ADD CONSTRAINT uk_employe_matricule UNIQUE (matricule);
+CREATE INDEX idx_employe_type_numero_matricule ON employe (type_matricule, numero_matricule);
@@ -0,0 +1,8 @@
+-- Identifiants des employés réservés par blocs de 50 (MySQL)
+-- MySQL n'ayant pas de séquence, Hibernate lit et incrémente la table employe_seq. La valeur stockée est
+-- la borne haute du prochain bloc : elle doit dépasser de 50 le plus grand identifiant existant.
+-- L'ancienne table hibernate_sequence (GenerationType.AUTO) n'est plus utilisée.
+
+CREATE TABLE employe_seq (next_val BIGINT);
+
+INSERT INTO employe_seq (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM employe;
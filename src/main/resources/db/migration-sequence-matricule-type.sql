@@ -0,0 +1,14 @@
+-- Séquences de matricules par type d'employé (MySQL)
+-- L'ancienne séquence 'matricule', commune à tous les types, est remplacée par une séquence par première lettre
+-- ('matricule_T', 'matricule_M', 'matricule_C'). Sans cette migration, chaque séquence est créée à sa première
+-- utilisation à partir du plus grand numéro de son type ; la migration les crée d'avance et retire l'ancienne.
+-- À exécuter application arrêtée : les blocs réservés par une instance encore démarrée seraient ignorés.
+-- Les matricules existants ne sont pas modifiés, quel que soit java350.matricule.chiffres.
+
+INSERT INTO sequence_matricule (nom, prochain_numero)
+SELECT CONCAT('matricule_', type_matricule), MAX(numero_matricule) + 1
+FROM employe
+WHERE type_matricule IS NOT NULL AND numero_matricule IS NOT NULL
+GROUP BY type_matricule;
+
+DELETE FROM sequence_matricule WHERE nom = 'matricule';
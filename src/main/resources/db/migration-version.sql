@@ -0,0 +1,4 @@
+-- Verrouillage optimiste des employés (MySQL)
+-- Les lignes existantes démarrent à la version 0 : une version nulle ferait échouer leur première mise à jour.
+
+ALTER TABLE employe ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
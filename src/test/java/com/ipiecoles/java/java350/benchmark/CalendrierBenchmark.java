@@ -0,0 +1,67 @@
+package com.ipiecoles.java.java350.benchmark;
+
+import com.ipiecoles.java.java350.model.CalendrierAnnuel;
+import com.ipiecoles.java.java350.model.Employe;
+import com.ipiecoles.java.java350.model.Entreprise;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Comparaison du calcul des RTT avec le calendrier annuel conservé par {@link Entreprise#calendrier(int)}
+ * et avec un calendrier recalculé à chaque appel (liste des jours fériés, jours de week-end).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CalendrierBenchmark {
+    private static final int NB_EMPLOYES = 1000;
+
+    private Employe[] employes;
+    private LocalDate[] dates;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        double[] tempsPartiels = {1.0, 0.8, 0.5};
+        employes = new Employe[NB_EMPLOYES];
+        dates = new LocalDate[NB_EMPLOYES];
+        for(int i = 0; i < NB_EMPLOYES; i++){
+            employes[i] = new Employe("Nom", "Prénom", "T" + i, LocalDate.of(2000, 1, 1), Entreprise.SALAIRE_BASE, 1, tempsPartiels[random.nextInt(tempsPartiels.length)]);
+            dates[i] = LocalDate.of(2019 + random.nextInt(22), 1 + random.nextInt(12), 1);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NB_EMPLOYES)
+    public void getNbRttAvecCache(Blackhole blackhole) {
+        for(int i = 0; i < NB_EMPLOYES; i++){
+            blackhole.consume(employes[i].getNbRtt(dates[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NB_EMPLOYES)
+    public void getNbRttSansCache(Blackhole blackhole) {
+        for(int i = 0; i < NB_EMPLOYES; i++){
+            CalendrierAnnuel calendrier = CalendrierAnnuel.calculer(dates[i].getYear());
+            blackhole.consume((int) Math.ceil(calendrier.getNbRttTempsPlein() * employes[i].getTempsPartiel()));
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.ipiecoles.java.java350.benchmark;
+
+import com.ipiecoles.java.java350.Java350Application;
+import com.ipiecoles.java.java350.model.DemandeEmbauche;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Test de charge de l'API REST : démarre l'application sur un port libre avec une base H2 embarquée, envoie les
+ * requêtes de chaque point d'accès depuis plusieurs clients simultanés puis affiche, par point d'accès, le débit
+ * et les latences médiane et 99e centile.
+ *
+ * Arguments : nombre de requêtes par point d'accès (2000 par défaut), nombre de clients simultanés (16 par défaut).
+ * Lancement : mvn -P charge verify
+ */
+public class ChargeApi {
+    private static final Pattern MATRICULE = Pattern.compile("\"matricule\":\"([A-Z0-9]+)\"");
+    private static final int TAILLE_LOT = 100;
+
+    private final String url;
+    private final int nbRequetes;
+    private final int concurrence;
+
+    private ChargeApi(String url, int nbRequetes, int concurrence) {
+        this.url = url;
+        this.nbRequetes = nbRequetes;
+        this.concurrence = concurrence;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int nbRequetes = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int concurrence = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Java350Application.class)
+                .properties("server.port=0", "logging.level.com.ipiecoles.java=warn")
+                .run();
+        try {
+            int port = context.getEnvironment().getProperty("local.server.port", Integer.class);
+            new ChargeApi("http://localhost:" + port, nbRequetes, concurrence).executer();
+        } finally {
+            context.close();
+        }
+    }
+
+    private void executer() throws Exception {
+        System.out.printf("%d requêtes par point d'accès, %d clients simultanés%n", nbRequetes, concurrence);
+        System.out.printf("%-40s %8s %8s %10s %10s %10s%n", "Point d'accès", "Succès", "Erreurs", "Req/s", "p50 (ms)", "p99 (ms)");
+
+        List<DemandeEmbauche> demandes = DonneesBenchmark.demandes(nbRequetes, 42);
+        String[] matricules = new String[nbRequetes];
+        mesurer("POST /employes", nbRequetes, i -> {
+            Reponse reponse = envoyer("POST", "/employes", json(demandes.get(i)));
+            Matcher matcher = MATRICULE.matcher(reponse.corps);
+            if(matcher.find()){
+                matricules[i] = matcher.group(1);
+            }
+            return reponse.statut;
+        });
+        String[] embauches = Arrays.stream(matricules).filter(m -> m != null).toArray(String[]::new);
+        String[] commerciaux = Arrays.stream(embauches).filter(m -> m.startsWith("C")).toArray(String[]::new);
+        if(commerciaux.length == 0){
+            System.out.println("Aucune embauche réussie, arrêt du test");
+            return;
+        }
+
+        mesurer("GET /employes/{matricule}", nbRequetes, i -> envoyer("GET", "/employes/" + embauches[i % embauches.length], null).statut);
+        mesurer("GET /employes/{matricule}/situation", nbRequetes,
+                i -> envoyer("GET", "/employes/" + embauches[i % embauches.length] + "/situation?date=2030-01-01", null).statut);
+        Random random = new Random(42);
+        mesurer("POST /employes/{matricule}/performance", nbRequetes, i -> envoyer("POST", "/employes/" + commerciaux[i % commerciaux.length]
+                + "/performance?caTraite=" + (800 + random.nextInt(500)) + "&objectifCa=1000", null).statut);
+
+        int nbLots = Math.max(nbRequetes / TAILLE_LOT, 1);
+        mesurer("POST /employes/lot (" + TAILLE_LOT + " demandes)", nbLots, i -> {
+            StringBuilder corps = new StringBuilder("[");
+            for(DemandeEmbauche demande : DonneesBenchmark.demandes(TAILLE_LOT, i)){
+                corps.append(corps.length() > 1 ? "," : "").append(json(demande));
+            }
+            return envoyer("POST", "/employes/lot", corps.append(']').toString()).statut;
+        });
+        mesurer("POST /employes/performances (" + TAILLE_LOT + " bilans)", nbLots, i -> {
+            StringBuilder corps = new StringBuilder("[");
+            for(int j = 0; j < TAILLE_LOT; j++){
+                corps.append(j > 0 ? "," : "").append(String.format("{\"matricule\":\"%s\",\"caTraite\":%d,\"objectifCa\":1000}",
+                        commerciaux[(i * TAILLE_LOT + j) % commerciaux.length], 800 + j * 5));
+            }
+            return envoyer("POST", "/employes/performances", corps.append(']').toString()).statut;
+        });
+    }
+
+    /**
+     * Envoi de nombre requêtes par les clients simultanés, la requête i étant construite et envoyée par requete
+     */
+    private void mesurer(String nom, int nombre, Requete requete) throws Exception {
+        long[] latences = new long[nombre];
+        AtomicInteger nbSucces = new AtomicInteger();
+        AtomicInteger suivante = new AtomicInteger();
+        ExecutorService clients = Executors.newFixedThreadPool(concurrence);
+        long debut = System.nanoTime();
+        List<Future<?>> resultats = new ArrayList<>();
+        for(int c = 0; c < concurrence; c++){
+            resultats.add(clients.submit(() -> {
+                for(int i = suivante.getAndIncrement(); i < nombre; i = suivante.getAndIncrement()){
+                    long debutRequete = System.nanoTime();
+                    int statut;
+                    try {
+                        statut = requete.envoyer(i);
+                    } catch (IOException e) {
+                        statut = -1;
+                    }
+                    latences[i] = System.nanoTime() - debutRequete;
+                    if(statut >= 200 && statut < 300){
+                        nbSucces.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        for(Future<?> resultat : resultats){
+            resultat.get();
+        }
+        long duree = System.nanoTime() - debut;
+        clients.shutdown();
+
+        Arrays.sort(latences);
+        System.out.printf("%-40s %8d %8d %10.0f %10.2f %10.2f%n", nom, nbSucces.get(), nombre - nbSucces.get(),
+                nombre * 1e9 / duree, centile(latences, 0.50), centile(latences, 0.99));
+    }
+
+    private static double centile(long[] latencesTriees, double centile) {
+        int index = (int) Math.ceil(centile * latencesTriees.length) - 1;
+        return latencesTriees[Math.max(index, 0)] / 1e6;
+    }
+
+    private Reponse envoyer(String methode, String chemin, String corps) throws IOException {
+        HttpURLConnection connexion = (HttpURLConnection) new URL(url + chemin).openConnection();
+        connexion.setRequestMethod(methode);
+        if(corps != null){
+            connexion.setDoOutput(true);
+            connexion.setRequestProperty("Content-Type", "application/json");
+            try(OutputStream out = connexion.getOutputStream()){
+                out.write(corps.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int statut = connexion.getResponseCode();
+        //Lecture complète de la réponse pour que la connexion soit réutilisée
+        InputStream in = statut < 400 ? connexion.getInputStream() : connexion.getErrorStream();
+        ByteArrayOutputStream lu = new ByteArrayOutputStream();
+        if(in != null){
+            try(InputStream flux = in){
+                byte[] tampon = new byte[4096];
+                for(int n = flux.read(tampon); n >= 0; n = flux.read(tampon)){
+                    lu.write(tampon, 0, n);
+                }
+            }
+        }
+        return new Reponse(statut, new String(lu.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    private static String json(DemandeEmbauche demande) {
+        return String.format("{\"nom\":\"%s\",\"prenom\":\"%s\",\"poste\":\"%s\",\"niveauEtude\":\"%s\",\"tempsPartiel\":%s}",
+                demande.getNom(), demande.getPrenom(), demande.getPoste(), demande.getNiveauEtude(), demande.getTempsPartiel());
+    }
+
+    @FunctionalInterface
+    private interface Requete {
+        int envoyer(int i) throws IOException;
+    }
+
+    private static final class Reponse {
+        private final int statut;
+        private final String corps;
+
+        private Reponse(int statut, String corps) {
+            this.statut = statut;
+            this.corps = corps;
+        }
+    }
+}
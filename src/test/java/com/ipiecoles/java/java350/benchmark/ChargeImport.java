@@ -0,0 +1,92 @@
+package com.ipiecoles.java.java350.benchmark;
+
+import com.ipiecoles.java.java350.Java350Application;
+import com.ipiecoles.java.java350.model.NiveauEtude;
+import com.ipiecoles.java.java350.model.Poste;
+import com.ipiecoles.java.java350.model.RapportImport;
+import com.ipiecoles.java.java350.service.ImportService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Test de charge de l'import CSV : démarre l'application avec une base H2 sur disque puis importe des fichiers
+ * générés de tailles croissantes (une ligne invalide sur cent). Pour chaque fichier sont affichés le débit et le
+ * plus grand volume du tas mesuré après un GC pendant l'import, qui ne doit pas croître avec la taille du fichier.
+ *
+ * Arguments : nombres de lignes des fichiers (10000 et 80000 par défaut, moins de 100000 au total pour ne pas
+ * épuiser les matricules). Lancement : mvn -P charge verify
+ */
+public class ChargeImport {
+    private static final String[] TEMPS_PARTIELS = {"1.0", "1.0", "1.0", "0.8", "0,5"};
+
+    public static void main(String[] args) throws Exception {
+        int[] tailles = args.length > 0 ? new int[args.length] : new int[]{10_000, 80_000};
+        for(int i = 0; i < args.length; i++){
+            tailles[i] = Integer.parseInt(args[i]);
+        }
+        //Base H2 sur disque, cache de pages limité à 1 Mo : les employés insérés n'occupent pas le tas
+        Path repertoire = Files.createTempDirectory("charge-import");
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Java350Application.class)
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.com.ipiecoles.java=warn", "spring.datasource.url=jdbc:h2:file:" + repertoire.resolve("java350") + ";CACHE_SIZE=1024")
+                .run();
+        try {
+            ImportService importService = context.getBean(ImportService.class);
+            System.out.printf("%10s %10s %10s %10s %12s %18s%n", "Lignes", "Embauches", "Rejets", "Durée (s)", "Lignes/s", "Tas après GC (Mo)");
+            for(int taille : tailles){
+                Path fichier = generer(repertoire.resolve("employes-" + taille + ".csv"), taille, taille);
+                AtomicLong tasMax = new AtomicLong();
+                Thread mesure = new Thread(() -> mesurerTas(tasMax), "mesure-tas");
+                mesure.setDaemon(true);
+                mesure.start();
+                RapportImport rapport = importService.importerCsv(fichier, repertoire.resolve("rejets-" + taille + ".csv"));
+                mesure.interrupt();
+                mesure.join();
+                System.out.printf("%10d %10d %10d %10.1f %12.0f %18.1f%n", rapport.getNbLignes(), rapport.getNbEmbauches(), rapport.getNbRejets(),
+                        rapport.getDureeNanos() / 1e9, rapport.getDebit(), tasMax.get() / 1e6);
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * Volume du tas après GC, relevé chaque seconde jusqu'à l'interruption du thread
+     */
+    private static void mesurerTas(AtomicLong tasMax) {
+        Runtime runtime = Runtime.getRuntime();
+        while(!Thread.currentThread().isInterrupted()){
+            System.gc();
+            tasMax.accumulateAndGet(runtime.totalMemory() - runtime.freeMemory(), Math::max);
+            try {
+                Thread.sleep(1000);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private static Path generer(Path fichier, int nbLignes, long graine) throws IOException {
+        Random random = new Random(graine);
+        Poste[] postes = Poste.values();
+        NiveauEtude[] niveauxEtude = NiveauEtude.values();
+        try(BufferedWriter writer = Files.newBufferedWriter(fichier, StandardCharsets.UTF_8)){
+            writer.write("nom;prenom;poste;niveauEtude;tempsPartiel\n");
+            for(int i = 0; i < nbLignes; i++){
+                String poste = random.nextInt(100) == 0 ? "PILOTE" : postes[random.nextInt(postes.length)].name();
+                writer.write("Nom" + i + ";Prénom" + i + ";" + poste + ";" + niveauxEtude[random.nextInt(niveauxEtude.length)] + ";"
+                        + TEMPS_PARTIELS[random.nextInt(TEMPS_PARTIELS.length)] + "\n");
+            }
+        }
+        return fichier;
+    }
+}
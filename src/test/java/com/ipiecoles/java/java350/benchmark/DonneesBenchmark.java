@@ -0,0 +1,84 @@
+package com.ipiecoles.java.java350.benchmark;
+
+import com.ipiecoles.java.java350.Java350Application;
+import com.ipiecoles.java.java350.exception.EmployeException;
+import com.ipiecoles.java.java350.model.DemandeEmbauche;
+import com.ipiecoles.java.java350.model.Employe;
+import com.ipiecoles.java.java350.model.Entreprise;
+import com.ipiecoles.java.java350.model.NiveauEtude;
+import com.ipiecoles.java.java350.model.Poste;
+import com.ipiecoles.java.java350.repository.EmployeRepository;
+import com.ipiecoles.java.java350.repository.SequenceMatriculeRepository;
+import com.ipiecoles.java.java350.service.EmployeService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Jeux de données des benchmarks, représentatifs de l'effectif : techniciens, managers et commerciaux,
+ * temps pleins et temps partiels, embauches réparties sur cinquante ans, performances variées.
+ * Une même graine donne toujours les mêmes données, pour que les résultats de deux exécutions soient comparables.
+ *
+ * Démarrage de l'application et remise à zéro de la base pour les benchmarks d'embauche.
+ */
+final class DonneesBenchmark {
+    private static final String[] PREFIXES = {"T", "M", "C"};
+    private static final Double[] TEMPS_PARTIELS = {1.0, 1.0, 1.0, 0.8, 0.5};
+
+    private DonneesBenchmark() {
+    }
+
+    static List<Employe> employes(int nombre, long graine) {
+        Random random = new Random(graine);
+        List<Employe> employes = new ArrayList<>(nombre);
+        for(int i = 0; i < nombre; i++){
+            LocalDate dateEmbauche = LocalDate.of(1970, 1, 1).plusDays(random.nextInt(50 * 365));
+            //Une performance sur dix n'est pas renseignée, une sur trois est la performance de base
+            Integer performance = random.nextInt(10) == 0 ? null : random.nextInt(3) == 0 ? Entreprise.PERFORMANCE_BASE : 1 + random.nextInt(10);
+            employes.add(new Employe("Nom" + i, "Prénom" + i, PREFIXES[random.nextInt(PREFIXES.length)] + String.format("%05d", i % 100000),
+                    dateEmbauche, Entreprise.SALAIRE_BASE, performance, TEMPS_PARTIELS[random.nextInt(TEMPS_PARTIELS.length)]));
+        }
+        return employes;
+    }
+
+    static List<DemandeEmbauche> demandes(int nombre, long graine) {
+        Random random = new Random(graine);
+        Poste[] postes = Poste.values();
+        NiveauEtude[] niveauxEtude = NiveauEtude.values();
+        List<DemandeEmbauche> demandes = new ArrayList<>(nombre);
+        for(int i = 0; i < nombre; i++){
+            demandes.add(new DemandeEmbauche("Nom" + i, "Prénom" + i, postes[random.nextInt(postes.length)],
+                    niveauxEtude[random.nextInt(niveauxEtude.length)], TEMPS_PARTIELS[random.nextInt(TEMPS_PARTIELS.length)]));
+        }
+        return demandes;
+    }
+
+    /**
+     * Démarrage de l'application sans serveur web, sur la base H2 embarquée
+     */
+    static ConfigurableApplicationContext demarrerApplication() {
+        return new SpringApplicationBuilder(Java350Application.class).web(WebApplicationType.NONE).run();
+    }
+
+    /**
+     * Suppression des employés et des séquences des matricules, pour ne jamais atteindre la limite des matricules
+     */
+    static void viderEmployes(ConfigurableApplicationContext context) {
+        context.getBean(EmployeRepository.class).deleteAllInBatch();
+        context.getBean(SequenceMatriculeRepository.class).deleteAllInBatch();
+    }
+
+    /**
+     * Embauche des demandes une à une par {@link EmployeService#embaucheEmploye}
+     */
+    static void embaucherUneAUne(EmployeService employeService, List<DemandeEmbauche> demandes) throws EmployeException {
+        for(DemandeEmbauche demande : demandes){
+            employeService.embaucheEmploye(demande.getNom(), demande.getPrenom(), demande.getPoste(), demande.getNiveauEtude(), demande.getTempsPartiel());
+        }
+    }
+}
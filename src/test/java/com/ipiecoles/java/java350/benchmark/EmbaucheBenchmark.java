@@ -0,0 +1,72 @@
+package com.ipiecoles.java.java350.benchmark;
+
+import com.ipiecoles.java.java350.exception.EmployeException;
+import com.ipiecoles.java.java350.model.DemandeEmbauche;
+import com.ipiecoles.java.java350.model.RapportEmbauche;
+import com.ipiecoles.java.java350.service.EmployeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Embauche d'employés sur une base H2 embarquée : appels successifs à {@link EmployeService#embaucheEmploye}
+ * et embauche groupée {@link EmployeService#embaucheEmployes}. Le temps mesuré est celui d'une embauche.
+ *
+ * La base et la séquence des matricules sont vidées à chaque itération pour ne jamais atteindre la limite des matricules.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EmbaucheBenchmark {
+    private static final int NB_EMBAUCHES = 100;
+
+    private ConfigurableApplicationContext context;
+    private EmployeService employeService;
+    private List<DemandeEmbauche> demandes;
+
+    @Setup(Level.Trial)
+    public void demarrer() {
+        context = DonneesBenchmark.demarrerApplication();
+        employeService = context.getBean(EmployeService.class);
+        demandes = DonneesBenchmark.demandes(NB_EMBAUCHES, 42);
+    }
+
+    @Setup(Level.Iteration)
+    public void viderBase() {
+        DonneesBenchmark.viderEmployes(context);
+    }
+
+    @TearDown(Level.Trial)
+    public void arreter() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NB_EMBAUCHES)
+    public void embaucheUnitaire() throws EmployeException {
+        DonneesBenchmark.embaucherUneAUne(employeService, demandes);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NB_EMBAUCHES)
+    public RapportEmbauche embaucheGroupee() {
+        return employeService.embaucheEmployes(demandes);
+    }
+}
@@ -0,0 +1,71 @@
+package com.ipiecoles.java.java350.benchmark;
+
+import com.ipiecoles.java.java350.model.Employe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calculs unitaires de {@link Employe} sur un effectif mélangé (cf. {@link DonneesBenchmark}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EmployeBenchmark {
+    private static final int NB_EMPLOYES = 1000;
+
+    private Employe[] employes;
+    private LocalDate[] dates;
+
+    @Setup
+    public void setUp() {
+        List<Employe> liste = DonneesBenchmark.employes(NB_EMPLOYES, 42);
+        employes = liste.toArray(new Employe[0]);
+        Random random = new Random(42);
+        dates = new LocalDate[NB_EMPLOYES];
+        for(int i = 0; i < NB_EMPLOYES; i++){
+            dates[i] = LocalDate.of(1990 + random.nextInt(50), 1 + random.nextInt(12), 1);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NB_EMPLOYES)
+    public void getNbRtt(Blackhole blackhole) {
+        for(int i = 0; i < NB_EMPLOYES; i++){
+            blackhole.consume(employes[i].getNbRtt(dates[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NB_EMPLOYES)
+    public void getPrimeAnnuelle(Blackhole blackhole) {
+        for(int i = 0; i < NB_EMPLOYES; i++){
+            blackhole.consume(employes[i].getPrimeAnnuelle());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NB_EMPLOYES)
+    public void getNbConges(Blackhole blackhole) {
+        for(int i = 0; i < NB_EMPLOYES; i++){
+            blackhole.consume(employes[i].getNbConges());
+        }
+    }
+}
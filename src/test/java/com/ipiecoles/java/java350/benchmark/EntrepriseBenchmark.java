@@ -0,0 +1,57 @@
+package com.ipiecoles.java.java350.benchmark;
+
+import com.ipiecoles.java.java350.model.Entreprise;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calcul des jours fériés et de la date de Pâques, sur un siècle d'années.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EntrepriseBenchmark {
+    private static final int NB_ANNEES = 100;
+
+    private LocalDate[] dates;
+
+    @Setup
+    public void setUp() {
+        dates = new LocalDate[NB_ANNEES];
+        for(int i = 0; i < NB_ANNEES; i++){
+            dates[i] = LocalDate.of(1970 + i, 6, 1);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NB_ANNEES)
+    public void joursFeries(Blackhole blackhole) {
+        for(LocalDate date : dates){
+            blackhole.consume(Entreprise.joursFeries(date));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NB_ANNEES)
+    public void datePaque(Blackhole blackhole) {
+        for(LocalDate date : dates){
+            blackhole.consume(Entreprise.datePaque(date.getYear()));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.ipiecoles.java.java350.benchmark;
+
+import com.ipiecoles.java.java350.model.Employe;
+import com.ipiecoles.java.java350.model.FiltreEmploye;
+import com.ipiecoles.java.java350.service.InstantaneEffectif;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtre « commerciaux de performance 5 ou plus » et « temps partiels embauchés avant 2000 » sur un million
+ * d'employés : parcours des entités {@link Employe} en mémoire, puis parcours des colonnes de {@link InstantaneEffectif}.
+ * La mémoire occupée par les entités et par l'instantané est affichée à la préparation ; les matricules étant
+ * partagés avec les entités, la mesure de l'instantané ne compte que ses colonnes et son index.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class InstantaneEffectifBenchmark {
+    private static final int NB_EMPLOYES = 1_000_000;
+    private static final LocalDate AN_2000 = LocalDate.of(2000, 1, 1);
+
+    private List<Employe> employes;
+    private InstantaneEffectif instantane;
+    private FiltreEmploye commerciauxPerformants;
+    private FiltreEmploye tempsPartielsAnciens;
+
+    @Setup
+    public void setUp() {
+        long avantEntites = memoireUtilisee();
+        employes = DonneesBenchmark.employes(NB_EMPLOYES, 42);
+        long entites = memoireUtilisee() - avantEntites;
+
+        instantane = InstantaneEffectif.desactive();
+        ReflectionTestUtils.setField(instantane, "actif", true);
+        long avantInstantane = memoireUtilisee();
+        for(Employe employe : employes){
+            instantane.enregistrer(employe);
+        }
+        long colonnes = memoireUtilisee() - avantInstantane;
+        System.out.printf("%nEntités : %d octets par employé, instantané : %d octets par employé (estimation : %d)%n",
+                entites / NB_EMPLOYES, colonnes / NB_EMPLOYES, Math.round(instantane.octetsParEmploye()));
+
+        commerciauxPerformants = FiltreEmploye.tous().prefixe('C').performanceMin(5);
+        tempsPartielsAnciens = FiltreEmploye.tous().tempsPartiel().embaucheAvant(AN_2000);
+    }
+
+    private static long memoireUtilisee() {
+        for(int i = 0; i < 3; i++){
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @Benchmark
+    public long commerciauxPerformantsEntites() {
+        return employes.stream().filter(e -> e.getMatricule().startsWith("C") && e.getPerformance() != null && e.getPerformance() >= 5).count();
+    }
+
+    @Benchmark
+    public long commerciauxPerformantsInstantane() {
+        return instantane.compter(commerciauxPerformants);
+    }
+
+    @Benchmark
+    public long tempsPartielsAnciensEntites() {
+        return employes.stream().filter(e -> e.getTempsPartiel() != null && e.getTempsPartiel() < 1.0
+                && e.getDateEmbauche() != null && e.getDateEmbauche().isBefore(AN_2000)).count();
+    }
+
+    @Benchmark
+    public long tempsPartielsAnciensInstantane() {
+        return instantane.compter(tempsPartielsAnciens);
+    }
+}
@@ -0,0 +1,71 @@
+package com.ipiecoles.java.java350.benchmark;
+
+import com.ipiecoles.java.java350.exception.EmployeException;
+import com.ipiecoles.java.java350.model.DemandeEmbauche;
+import com.ipiecoles.java.java350.service.EmployeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Temps d'une embauche par {@link EmployeService#embaucheEmploye} avec la configuration de logs asynchrone
+ * (logback.xml) et avec la configuration d'origine (logback-sync.xml des ressources de test) : appenders synchrones,
+ * nom de la méthode appelante, racine en debug et tous les logs de la racine écrits dans error.log.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JournalisationBenchmark {
+    private static final int NB_EMBAUCHES = 100;
+
+    private ConfigurableApplicationContext context;
+    private EmployeService employeService;
+    private List<DemandeEmbauche> demandes;
+
+    @Setup(Level.Trial)
+    public void demarrer() {
+        context = DonneesBenchmark.demarrerApplication();
+        employeService = context.getBean(EmployeService.class);
+        demandes = DonneesBenchmark.demandes(NB_EMBAUCHES, 42);
+    }
+
+    @Setup(Level.Iteration)
+    public void viderBase() {
+        DonneesBenchmark.viderEmployes(context);
+    }
+
+    @TearDown(Level.Trial)
+    public void arreter() {
+        context.close();
+    }
+
+    @Benchmark
+    @Fork(1)
+    @OperationsPerInvocation(NB_EMBAUCHES)
+    public void embaucheLogsAsynchrones() throws EmployeException {
+        DonneesBenchmark.embaucherUneAUne(employeService, demandes);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dlogging.config=classpath:logback-sync.xml")
+    @OperationsPerInvocation(NB_EMBAUCHES)
+    public void embaucheLogsSynchrones() throws EmployeException {
+        DonneesBenchmark.embaucherUneAUne(employeService, demandes);
+    }
+}
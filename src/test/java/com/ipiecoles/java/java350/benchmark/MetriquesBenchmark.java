@@ -0,0 +1,59 @@
+package com.ipiecoles.java.java350.benchmark;
+
+import com.ipiecoles.java.java350.service.EmployeMetriques;
+import com.ipiecoles.java.java350.service.EmployeMetriques.Operation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Surcoût de la mesure d'un appel par {@link EmployeMetriques}, désactivées et actives, par rapport à l'appel seul.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MetriquesBenchmark {
+
+    private EmployeMetriques desactivees;
+    private EmployeMetriques actives;
+    private String matricule;
+
+    @Setup
+    public void setUp() {
+        desactivees = new EmployeMetriques(new SimpleMeterRegistry(), false);
+        actives = new EmployeMetriques(new SimpleMeterRegistry(), true);
+        matricule = "C12345";
+    }
+
+    private String appel() {
+        return matricule.substring(1);
+    }
+
+    @Benchmark
+    public String sansMesure() {
+        return appel();
+    }
+
+    @Benchmark
+    public String mesureDesactivee() {
+        return desactivees.mesurer(Operation.FIND_BY_MATRICULE, this::appel);
+    }
+
+    @Benchmark
+    public String mesureActive() {
+        return actives.mesurer(Operation.FIND_BY_MATRICULE, this::appel);
+    }
+}
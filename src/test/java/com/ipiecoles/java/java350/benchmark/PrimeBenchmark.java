@@ -0,0 +1,75 @@
+package com.ipiecoles.java.java350.benchmark;
+
+import com.ipiecoles.java.java350.model.EffectifColonnes;
+import com.ipiecoles.java.java350.model.Employe;
+import com.ipiecoles.java.java350.model.Entreprise;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calcul de la prime annuelle de tout l'effectif : boucle sur les entités {@link Employe},
+ * puis calcul par colonnes séquentiel et parallèle.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PrimeBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int nbEmployes;
+
+    private List<Employe> employes;
+    private EffectifColonnes effectif;
+    private int anneeReference;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        String[] prefixes = {"T", "M", "C"};
+        double[] tempsPartiels = {1.0, 0.8, 0.5};
+        employes = new ArrayList<>(nbEmployes);
+        for(int i = 0; i < nbEmployes; i++){
+            employes.add(new Employe("Nom", "Prénom", prefixes[random.nextInt(3)] + i, LocalDate.of(1980 + random.nextInt(40), 1, 1),
+                    Entreprise.SALAIRE_BASE, 1 + random.nextInt(10), tempsPartiels[random.nextInt(tempsPartiels.length)]));
+        }
+        effectif = EffectifColonnes.de(employes);
+        anneeReference = LocalDate.now().getYear();
+    }
+
+    @Benchmark
+    public double getPrimeAnnuelleParEntite() {
+        double total = 0;
+        for(Employe employe : employes){
+            total += employe.getPrimeAnnuelle();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double[] calculerPrimesColonnes() {
+        return effectif.calculerPrimes(anneeReference);
+    }
+
+    @Benchmark
+    public double[] calculerPrimesColonnesEnParallele() {
+        return effectif.calculerPrimesEnParallele(anneeReference);
+    }
+}
@@ -0,0 +1,82 @@
+package com.ipiecoles.java.java350.benchmark;
+
+import com.ipiecoles.java.java350.model.Employe;
+import com.ipiecoles.java.java350.model.EmployeResume;
+import com.ipiecoles.java.java350.repository.EmployeRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lecture d'une page de 100 employés sur une base H2 embarquée de 100 000 employés : entités paginées
+ * par décalage (findAll avec un Pageable) et résumés paginés par clé, sur la première et la dernière page.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ProjectionBenchmark {
+    private static final int NB_EMPLOYES = 100000;
+    private static final int TAILLE_PAGE = 100;
+
+    @Param({"0", "999"})
+    private int page;
+
+    private ConfigurableApplicationContext context;
+    private EmployeRepository employeRepository;
+    private Long apresId;
+    private String apresMatricule;
+
+    @Setup(Level.Trial)
+    public void demarrer() {
+        context = DonneesBenchmark.demarrerApplication();
+        employeRepository = context.getBean(EmployeRepository.class);
+        employeRepository.deleteAllInBatch();
+        employeRepository.insererParLots(DonneesBenchmark.employes(NB_EMPLOYES, 42), 500);
+
+        if(page > 0){
+            List<Employe> pagePrecedenteParId = employeRepository.findAll(PageRequest.of(page - 1, TAILLE_PAGE, Sort.by("id"))).getContent();
+            apresId = pagePrecedenteParId.get(TAILLE_PAGE - 1).getId();
+            List<Employe> pagePrecedenteParMatricule = employeRepository.findAll(PageRequest.of(page - 1, TAILLE_PAGE, Sort.by("matricule"))).getContent();
+            apresMatricule = pagePrecedenteParMatricule.get(TAILLE_PAGE - 1).getMatricule();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void arreter() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Employe> entitesParDecalage() {
+        return employeRepository.findAll(PageRequest.of(page, TAILLE_PAGE, Sort.by("id"))).getContent();
+    }
+
+    @Benchmark
+    public List<EmployeResume> resumesParId() {
+        return employeRepository.findResumesParId(apresId, TAILLE_PAGE);
+    }
+
+    @Benchmark
+    public List<EmployeResume> resumesParMatricule() {
+        return employeRepository.findResumesParMatricule(apresMatricule, TAILLE_PAGE);
+    }
+}
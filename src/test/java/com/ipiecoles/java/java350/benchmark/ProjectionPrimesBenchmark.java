@@ -0,0 +1,66 @@
+package com.ipiecoles.java.java350.benchmark;
+
+import com.ipiecoles.java.java350.model.CohorteEmploye;
+import com.ipiecoles.java.java350.model.Employe;
+import com.ipiecoles.java.java350.service.ProjectionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Projection sur 10 ans des primes d'un million d'employés : calcul employé par employé, puis par cohortes
+ * (regroupement compris, la BDD le faisant en production).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ProjectionPrimesBenchmark {
+    private static final int NB_EMPLOYES = 1_000_000;
+    private static final int NB_ANNEES = 10;
+    private static final int ANNEE_DEBUT = 2020;
+
+    private List<Employe> employes;
+    private List<CohorteEmploye> cohortes;
+
+    @Setup
+    public void setUp() {
+        employes = DonneesBenchmark.employes(NB_EMPLOYES, 42);
+        cohortes = CohorteEmploye.regrouper(employes);
+    }
+
+    @Benchmark
+    public double projeterParEmploye() {
+        double total = 0;
+        for(int annee = ANNEE_DEBUT; annee < ANNEE_DEBUT + NB_ANNEES; annee++){
+            LocalDate dateReference = LocalDate.of(annee, 1, 1);
+            for(Employe employe : employes){
+                total += employe.getPrimeAnnuelle(dateReference) + employe.getNbConges(dateReference) + employe.getNbRtt(dateReference);
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Object projeterParCohorte() {
+        return ProjectionService.projeter(cohortes, ANNEE_DEBUT, NB_ANNEES);
+    }
+
+    @Benchmark
+    public Object regrouperEtProjeter() {
+        return ProjectionService.projeter(CohorteEmploye.regrouper(employes), ANNEE_DEBUT, NB_ANNEES);
+    }
+}
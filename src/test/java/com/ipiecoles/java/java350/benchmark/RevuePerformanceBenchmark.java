@@ -0,0 +1,84 @@
+package com.ipiecoles.java.java350.benchmark;
+
+import com.ipiecoles.java.java350.Java350Application;
+import com.ipiecoles.java.java350.model.BilanCommercial;
+import com.ipiecoles.java.java350.model.Employe;
+import com.ipiecoles.java.java350.model.Entreprise;
+import com.ipiecoles.java.java350.model.RapportPerformance;
+import com.ipiecoles.java.java350.repository.EmployeRepository;
+import com.ipiecoles.java.java350.service.RevuePerformanceService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Débit des revues de performance de {@link RevuePerformanceService} sur une base H2 embarquée,
+ * selon le nombre de revues traitées en parallèle.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RevuePerformanceBenchmark {
+    private static final int NB_COMMERCIAUX = 1000;
+
+    @Param({"1", "2", "4", "8"})
+    private int parallelisme;
+
+    private ConfigurableApplicationContext context;
+    private RevuePerformanceService revuePerformanceService;
+    private List<BilanCommercial> bilans;
+
+    @Setup(Level.Trial)
+    public void demarrer() {
+        context = new SpringApplicationBuilder(Java350Application.class).web(WebApplicationType.NONE)
+                .run("--java350.revue.parallelisme=" + parallelisme);
+        revuePerformanceService = context.getBean(RevuePerformanceService.class);
+        EmployeRepository employeRepository = context.getBean(EmployeRepository.class);
+        employeRepository.deleteAllInBatch();
+
+        Random random = new Random(42);
+        List<Employe> commerciaux = new ArrayList<>(NB_COMMERCIAUX);
+        bilans = new ArrayList<>(NB_COMMERCIAUX);
+        for(int i = 0; i < NB_COMMERCIAUX; i++){
+            String matricule = String.format("C%05d", i);
+            commerciaux.add(new Employe("Nom" + i, "Prénom" + i, matricule, LocalDate.of(1990 + random.nextInt(30), 1, 1),
+                    Entreprise.SALAIRE_BASE, 1 + random.nextInt(10), 1.0));
+            bilans.add(new BilanCommercial(matricule, 50000L + random.nextInt(100000), 100000L));
+        }
+        employeRepository.insererParLots(commerciaux, 500);
+    }
+
+    @TearDown(Level.Trial)
+    public void arreter() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NB_COMMERCIAUX)
+    public RapportPerformance reviserCommerciaux() throws InterruptedException {
+        return revuePerformanceService.reviserCommerciaux(bilans.stream());
+    }
+}
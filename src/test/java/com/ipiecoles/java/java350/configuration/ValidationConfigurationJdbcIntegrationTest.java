@@ -0,0 +1,113 @@
+package com.ipiecoles.java.java350.configuration;
+
+import com.ipiecoles.java.java350.model.Employe;
+import com.ipiecoles.java.java350.model.Entreprise;
+import com.ipiecoles.java.java350.repository.EmployeRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Profil de production sur H2 en mode MySQL
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@ActiveProfiles("prod")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:java350prod;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+public class ValidationConfigurationJdbcIntegrationTest {
+
+    @Autowired
+    private ValidationConfigurationJdbc validationConfigurationJdbc;
+
+    @Autowired
+    private EmployeRepository employeRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @AfterEach
+    public void tearDown(){
+        employeRepository.deleteAll();
+        ReflectionTestUtils.setField(validationConfigurationJdbc, "parallelismeRevue", 4);
+    }
+
+    @Test
+    public void testIntegrationProfilProductionValide(){
+        //Given
+
+        //When
+        List<String> anomalies = validationConfigurationJdbc.anomalies();
+
+        //Then
+        Assertions.assertEquals(new ArrayList<>(), anomalies);
+    }
+
+    @Test
+    public void testIntegrationPoolTropPetit(){
+        //Given
+        ReflectionTestUtils.setField(validationConfigurationJdbc, "parallelismeRevue", 20);
+
+        //When
+        List<String> anomalies = validationConfigurationJdbc.anomalies();
+
+        //Then
+        Assertions.assertEquals(1, anomalies.size());
+        Assertions.assertTrue(anomalies.get(0).startsWith("spring.datasource.hikari.maximum-pool-size (10)"), anomalies.get(0));
+        Assertions.assertThrows(IllegalStateException.class, () -> validationConfigurationJdbc.valider());
+    }
+
+    @Test
+    public void testIntegrationLectureParCurseurAbsente(){
+        //Given
+        Properties proprietes = ((HikariDataSource) dataSource).getDataSourceProperties();
+        Object useCursorFetch = proprietes.remove("useCursorFetch");
+
+        //When
+        List<String> anomalies;
+        try {
+            anomalies = validationConfigurationJdbc.anomalies();
+        } finally {
+            proprietes.put("useCursorFetch", useCursorFetch);
+        }
+
+        //Then
+        Assertions.assertEquals(Collections.singletonList("propriété de connexion useCursorFetch doit valoir true"), anomalies);
+    }
+
+    @Test
+    public void testIntegrationIdentifiantsReservesParBlocs(){
+        //Given
+        List<Employe> employes = new ArrayList<>();
+        for(int i = 0; i < 120; i++){
+            employes.add(new Employe("Doe", "John", "T" + (10000 + i), LocalDate.now(), Entreprise.SALAIRE_BASE, 1, 1.0));
+        }
+
+        //When
+        employeRepository.insererParLots(employes, 50);
+
+        //Then
+        long min = employes.stream().mapToLong(Employe::getId).min().getAsLong();
+        long max = employes.stream().mapToLong(Employe::getId).max().getAsLong();
+        Assertions.assertEquals(119L, max - min);
+        Assertions.assertEquals(120L, employeRepository.count());
+    }
+}
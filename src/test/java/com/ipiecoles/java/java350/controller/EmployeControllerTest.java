@@ -0,0 +1,174 @@
+package com.ipiecoles.java.java350.controller;
+
+import com.ipiecoles.java.java350.exception.EmployeException;
+import com.ipiecoles.java.java350.model.Employe;
+import com.ipiecoles.java.java350.model.Entreprise;
+import com.ipiecoles.java.java350.model.NiveauEtude;
+import com.ipiecoles.java.java350.model.Poste;
+import com.ipiecoles.java.java350.repository.EmployeRepository;
+import com.ipiecoles.java.java350.service.EmployeService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import java.time.LocalDate;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(EmployeController.class)
+@Import(ConfigurationApi.class)
+class EmployeControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeController employeController;
+
+    @MockBean
+    private EmployeService employeService;
+
+    @MockBean
+    private EmployeRepository employeRepository;
+
+    @Test
+    void embaucher() throws Exception {
+        //Given
+        Mockito.when(employeService.embaucheEmploye("Doe", "John", Poste.TECHNICIEN, NiveauEtude.MASTER, 1.0)).thenReturn("T00042");
+
+        //When
+        MvcResult resultat = mockMvc.perform(post("/employes").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nom\":\"Doe\",\"prenom\":\"John\",\"poste\":\"TECHNICIEN\",\"niveauEtude\":\"MASTER\",\"tempsPartiel\":1.0}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //Then
+        mockMvc.perform(asyncDispatch(resultat))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", "/employes/T00042"))
+                .andExpect(jsonPath("$.matricule").value("T00042"));
+    }
+
+    @Test
+    void embaucherSansPoste() throws Exception {
+        //Given
+        Mockito.when(employeService.embaucheEmploye("Doe", "John", null, NiveauEtude.MASTER, 1.0)).thenThrow(
+                new EmployeException("Le poste et le niveau d'étude sont obligatoires !", EmployeService.MOTIF_DEMANDE_INCOMPLETE));
+
+        //When
+        MvcResult resultat = mockMvc.perform(post("/employes").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nom\":\"Doe\",\"prenom\":\"John\",\"niveauEtude\":\"MASTER\",\"tempsPartiel\":1.0}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //Then
+        mockMvc.perform(asyncDispatch(resultat))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.motif").value(EmployeService.MOTIF_DEMANDE_INCOMPLETE));
+    }
+
+    @Test
+    void rechercher() throws Exception {
+        //Given
+        Mockito.when(employeRepository.findByMatricule("C00001")).thenReturn(
+                new Employe("Doe", "John", "C00001", LocalDate.now(), Entreprise.SALAIRE_BASE, 3, 1.0));
+
+        //When
+        MvcResult trouve = mockMvc.perform(get("/employes/C00001")).andExpect(request().asyncStarted()).andReturn();
+        MvcResult inconnu = mockMvc.perform(get("/employes/C99999")).andExpect(request().asyncStarted()).andReturn();
+
+        //Then
+        mockMvc.perform(asyncDispatch(trouve))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.matricule").value("C00001"))
+                .andExpect(jsonPath("$.performance").value(3));
+        mockMvc.perform(asyncDispatch(inconnu)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void calculerPerformanceMatriculeInconnu() throws Exception {
+        //Given
+        Mockito.doThrow(new EmployeException("Le matricule C00001 n'existe pas !", EmployeService.MOTIF_MATRICULE_INCONNU))
+                .when(employeService).calculPerformanceCommercial("C00001", 1000L, 1000L);
+
+        //When
+        MvcResult resultat = mockMvc.perform(post("/employes/C00001/performance").param("caTraite", "1000").param("objectifCa", "1000"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //Then
+        mockMvc.perform(asyncDispatch(resultat))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.motif").value(EmployeService.MOTIF_MATRICULE_INCONNU))
+                .andExpect(jsonPath("$.message").value("Le matricule C00001 n'existe pas !"));
+    }
+
+    @Test
+    void fileAttentePleine() throws Exception {
+        //Given
+        Executor executeur = (Executor) ReflectionTestUtils.getField(employeController, "executeurApi");
+        ReflectionTestUtils.setField(employeController, "executeurApi", (Executor) tache -> {
+            throw new RejectedExecutionException("File pleine");
+        });
+
+        try {
+            //When / Then
+            mockMvc.perform(get("/employes/C00001"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "1"))
+                    .andExpect(jsonPath("$.motif").value(GestionErreursApi.MOTIF_SURCHARGE));
+        } finally {
+            ReflectionTestUtils.setField(employeController, "executeurApi", executeur);
+        }
+    }
+
+    @Test
+    void delaiDepasseAnnuleLEmbauche() throws Exception {
+        //Given
+        Executor executeur = (Executor) ReflectionTestUtils.getField(employeController, "executeurApi");
+        Runnable[] soumise = new Runnable[1];
+        ReflectionTestUtils.setField(employeController, "executeurApi", (Executor) tache -> soumise[0] = tache);
+
+        try {
+            MvcResult resultat = mockMvc.perform(post("/employes").contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"nom\":\"Doe\",\"prenom\":\"John\",\"poste\":\"TECHNICIEN\",\"niveauEtude\":\"MASTER\",\"tempsPartiel\":1.0}"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            //When
+            MockAsyncContext contexte = (MockAsyncContext) resultat.getRequest().getAsyncContext();
+            assertNotNull(contexte);
+            for (AsyncListener listener : contexte.getListeners()) {
+                listener.onTimeout(new AsyncEvent(contexte));
+            }
+            soumise[0].run();
+
+            //Then
+            mockMvc.perform(asyncDispatch(resultat))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(jsonPath("$.motif").value(GestionErreursApi.MOTIF_DELAI_DEPASSE));
+            Mockito.verifyNoInteractions(employeService);
+        } finally {
+            ReflectionTestUtils.setField(employeController, "executeurApi", executeur);
+        }
+    }
+}
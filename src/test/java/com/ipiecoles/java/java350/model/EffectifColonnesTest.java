@@ -0,0 +1,104 @@
+package com.ipiecoles.java.java350.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+class EffectifColonnesTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "2, 'T44488', 0, 1.0",
+            "2, 'T44488', 1, 0.5",
+            "1, 'T44488', 3, 1.0",
+            "2, 'T44488', 5, 1.0",
+            "1, 'T44488', 2, 1.0",
+            "2, 'M44488', 0, 1.0",
+            "1, 'M44488', 1, 0.5",
+            "1, 'M44488', 3, 1.0",
+            "2, 'M44488', 5, 1.0",
+            ", 'C44488', 5, 0.8",
+            "7, , 5, 1.0",
+            "7, '', 5, 1.0"
+    })
+    public void calculerPrimesIdentiqueAGetPrimeAnnuelle(Integer performance, String matricule, Long nbYearsAnciennete, Double tempsPartiel){
+        //Given
+        Employe employe = new Employe("Nom", "Prénom", matricule, LocalDate.now().minusYears(nbYearsAnciennete), Entreprise.SALAIRE_BASE, performance, tempsPartiel);
+        EffectifColonnes effectif = EffectifColonnes.de(Collections.singletonList(employe));
+
+        //When
+        double[] primes = effectif.calculerPrimes(LocalDate.now().getYear());
+
+        //Then
+        Assertions.assertEquals(employe.getPrimeAnnuelle(), primes[0]);
+    }
+
+    @Test
+    public void calculerPrimesSansDateEmbauche(){
+        //Given
+        Employe employe = new Employe("Nom", "Prénom", "T00001", null, Entreprise.SALAIRE_BASE, 3, 1.0);
+        EffectifColonnes effectif = EffectifColonnes.de(Collections.singletonList(employe));
+
+        //When
+        double[] primes = effectif.calculerPrimes(LocalDate.now().getYear());
+
+        //Then
+        Assertions.assertEquals(employe.getPrimeAnnuelle(), primes[0]);
+    }
+
+    @Test
+    public void calculerPrimesSansTempsPartiel(){
+        //Given
+        Employe employe = new Employe("Nom", "Prénom", "T00001", LocalDate.now(), Entreprise.SALAIRE_BASE, 3, 1.0);
+        EffectifColonnes effectif = EffectifColonnes.de(Arrays.asList(
+                new Employe("Nom", "Prénom", "T00002", LocalDate.now(), Entreprise.SALAIRE_BASE, 3, null), employe));
+
+        //When
+        double[] primes = effectif.calculerPrimes(LocalDate.now().getYear());
+
+        //Then
+        Assertions.assertTrue(Double.isNaN(primes[0]));
+        Assertions.assertEquals(employe.getPrimeAnnuelle(), primes[1]);
+    }
+
+    @Test
+    public void calculerPrimesEffectifAleatoire(){
+        //Given
+        List<Employe> employes = genererEmployes(50_000);
+        EffectifColonnes effectif = EffectifColonnes.de(employes);
+
+        //When
+        double[] primes = effectif.calculerPrimes(LocalDate.now().getYear());
+        double[] primesParallele = effectif.calculerPrimesEnParallele(LocalDate.now().getYear());
+
+        //Then
+        Assertions.assertEquals(employes.size(), effectif.getTaille());
+        for(int i = 0; i < employes.size(); i++){
+            Assertions.assertEquals(employes.get(i).getPrimeAnnuelle(), primes[i], "Employé " + i);
+            Assertions.assertEquals(employes.get(i).getMatricule(), effectif.getMatricule(i));
+        }
+        Assertions.assertArrayEquals(primes, primesParallele);
+    }
+
+    private static List<Employe> genererEmployes(int nombre) {
+        Random random = new Random(350);
+        List<String> prefixes = Arrays.asList("T", "M", "C");
+        List<Double> tempsPartiels = Arrays.asList(1.0, 0.8, 0.5, 0.3);
+        List<Employe> employes = new ArrayList<>(nombre);
+        for(int i = 0; i < nombre; i++){
+            Integer performance = random.nextInt(20) == 0 ? null : 1 + random.nextInt(10);
+            LocalDate dateEmbauche = random.nextInt(50) == 0 ? null : LocalDate.now().minusDays(random.nextInt(365 * 45)).plusYears(random.nextInt(3));
+            employes.add(new Employe("Nom", "Prénom", prefixes.get(random.nextInt(3)) + String.format("%05d", i), dateEmbauche,
+                    Entreprise.SALAIRE_BASE, performance, tempsPartiels.get(random.nextInt(tempsPartiels.size()))));
+        }
+        return employes;
+    }
+}
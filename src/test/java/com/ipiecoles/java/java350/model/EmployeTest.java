@@ -86,4 +86,73 @@ class EmployeTest {
         Assertions.assertEquals(primeAnnuelle, prime);
 
     }
-}
\ No newline at end of file
+
+    @ParameterizedTest
+    @CsvSource({
+            "2019-01-01, 1.0, 8",
+            "2021-06-15, 1.0, 11",
+            "2022-12-31, 1.0, 10",
+            "2032-01-01, 1.0, 12",
+            "2019-01-01, 0.5, 4",
+            "2021-01-01, 0.5, 6"
+    })
+    public void getNbRtt(LocalDate date, Double tempsPartiel, Integer nbRtt){
+        //Given
+        Employe employe = new Employe("Nom", "Prénom", "T00001", LocalDate.now(), Entreprise.SALAIRE_BASE, 1, tempsPartiel);
+
+        //When
+        Integer rtt = employe.getNbRtt(date);
+
+        //Then
+        Assertions.assertEquals(nbRtt, rtt);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "2010-09-01, 2020-01-01, 10, 3300.0",
+            "2010-09-01, 2040-12-31, 30, 5300.0",
+            "2030-01-01, 2020-01-01, 0, 2300.0"
+    })
+    public void getPrimeAnnuelleDateReference(LocalDate dateEmbauche, LocalDate dateReference, Integer anciennete, Double primeAnnuelle){
+        //Given
+        Employe employe = new Employe("Nom", "Prénom", "T00001", dateEmbauche, Entreprise.SALAIRE_BASE, 2, 1.0);
+
+        //When
+        Double prime = employe.getPrimeAnnuelle(dateReference);
+
+        //Then
+        Assertions.assertEquals(anciennete, employe.getNombreAnneeAnciennete(dateReference));
+        Assertions.assertEquals(Entreprise.NB_CONGES_BASE + anciennete, employe.getNbConges(dateReference).intValue());
+        Assertions.assertEquals(primeAnnuelle, prime);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "1500.0, 10.0, 1650.0",
+            "1500.0, 0.0, 1500.0",
+            "1521.22, 2.5, 1559.2505"
+    })
+    public void augmenterSalaire(Double salaire, double pourcentage, Double salaireAugmente){
+        //Given
+        Employe employe = new Employe("Nom", "Prénom", "T00001", LocalDate.now(), salaire, 1, 1.0);
+
+        //When
+        employe.augmenterSalaire(pourcentage);
+
+        //Then
+        Assertions.assertEquals(salaireAugmente, employe.getSalaire(), 0.0001);
+    }
+
+    @Test
+    public void augmenterSalairePourcentageNegatif(){
+        //Given
+        Employe employe = new Employe("Nom", "Prénom", "T00001", LocalDate.now(), 1500.0, 1, 1.0);
+
+        //When
+        IllegalArgumentException exception = Assertions.assertThrows(IllegalArgumentException.class, () -> employe.augmenterSalaire(-5.0));
+
+        //Then
+        Assertions.assertEquals("Le pourcentage d'augmentation doit être positif ou nul !", exception.getMessage());
+        Assertions.assertEquals(1500.0, employe.getSalaire());
+    }
+}
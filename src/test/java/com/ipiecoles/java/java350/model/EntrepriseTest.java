@@ -0,0 +1,85 @@
+package com.ipiecoles.java.java350.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.time.LocalDate;
+import java.util.List;
+
+class EntrepriseTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            //Non bissextile, débute un mardi
+            "2019, 365, 104, 10",
+            //Non bissextile, débute un vendredi
+            "2021, 365, 104, 7",
+            //Non bissextile, débute un samedi
+            "2022, 365, 105, 7",
+            //Bissextile, débute un samedi
+            "2028, 366, 106, 9",
+            //Bissextile, débute un jeudi
+            "2032, 366, 104, 7"
+    })
+    public void calendrier(int annee, int nbJours, int nbJoursWeekEnd, int nbJoursFeriesSemaine){
+        //Given
+
+        //When
+        CalendrierAnnuel calendrier = Entreprise.calendrier(annee);
+
+        //Then
+        Assertions.assertEquals(annee, calendrier.getAnnee());
+        Assertions.assertEquals(nbJours, calendrier.getNbJours());
+        Assertions.assertEquals(nbJoursWeekEnd, calendrier.getNbJoursWeekEnd());
+        Assertions.assertEquals(nbJoursFeriesSemaine, calendrier.getNbJoursFeriesSemaine());
+    }
+
+    @Test
+    public void calendrierCalculeUneSeuleFois(){
+        //Given
+
+        //When
+        CalendrierAnnuel premier = Entreprise.calendrier(2021);
+        CalendrierAnnuel second = Entreprise.calendrier(2021);
+
+        //Then
+        Assertions.assertSame(premier, second);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            //Dates de l'ancienne table 2019-2040
+            "2019-04-21", "2020-04-12", "2021-04-04", "2022-04-17", "2023-04-09", "2024-03-31",
+            "2025-04-20", "2026-04-05", "2027-03-28", "2028-04-16", "2029-04-01", "2030-04-21",
+            "2031-04-13", "2032-03-28", "2033-04-17", "2034-04-09", "2035-03-25", "2036-04-13",
+            "2037-04-05", "2038-04-25", "2039-04-10", "2040-04-01",
+            //Années historiques et lointaines, dont les dates extrêmes du 22 mars et du 25 avril
+            "1583-04-10", "1818-03-22", "1886-04-25", "1961-04-02", "2000-04-23", "2285-03-22"
+    })
+    public void datePaque(LocalDate datePaque){
+        //Given
+
+        //When
+        LocalDate date = Entreprise.datePaque(datePaque.getYear());
+
+        //Then
+        Assertions.assertEquals(datePaque, date);
+    }
+
+    @Test
+    public void joursFeriesAnneeHistorique(){
+        //Given
+
+        //When
+        List<LocalDate> joursFeries = Entreprise.joursFeries(LocalDate.of(1995, 6, 1));
+
+        //Then
+        Assertions.assertEquals(11, joursFeries.size());
+        //Lundi de Pâques, Ascension et lundi de Pentecôte 1995 (Pâques le 16 avril)
+        Assertions.assertTrue(joursFeries.contains(LocalDate.of(1995, 4, 17)));
+        Assertions.assertTrue(joursFeries.contains(LocalDate.of(1995, 5, 25)));
+        Assertions.assertTrue(joursFeries.contains(LocalDate.of(1995, 6, 5)));
+    }
+}
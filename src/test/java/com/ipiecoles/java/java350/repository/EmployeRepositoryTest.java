@@ -1,24 +1,37 @@
 package com.ipiecoles.java.java350.repository;
 
+import com.ipiecoles.java.java350.model.CohorteEmploye;
 import com.ipiecoles.java.java350.model.Employe;
+import com.ipiecoles.java.java350.model.EmployeResume;
 import com.ipiecoles.java.java350.model.Entreprise;
+import com.ipiecoles.java.java350.model.FiltreEmploye;
+import com.ipiecoles.java.java350.model.NiveauEtude;
+import com.ipiecoles.java.java350.model.RapportAugmentation;
+import com.ipiecoles.java.java350.model.StatistiquesGroupe;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDate;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @DataJpaTest
+@Import(CacheEmployesParCopie.class)
 class EmployeRepositoryTest {
 
     @Autowired
     private EmployeRepository employeRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     @BeforeEach
     void setUp() {
     }
@@ -29,40 +42,389 @@ class EmployeRepositoryTest {
     }
 
     @Test
-    void findLastMatriculeBase() {
+    void findLastNumeroMatriculeBase() {
+        //Given
+        employeRepository.save(new Employe("Neymar", "Jean","T00123", LocalDate.now().minusYears(2), Entreprise.SALAIRE_BASE,1,1.0));
+        employeRepository.save(new Employe("Bruel", "Patrick","T123456", LocalDate.now(), Entreprise.SALAIRE_BASE,2,0.5));
+        employeRepository.save(new Employe("Dulac", "Jeanne","M999999", LocalDate.now().plusYears(2), Entreprise.SALAIRE_BASE,3,1.0));
+
+        //When
+        Integer numero = employeRepository.findLastNumeroMatricule("T");
+
+        //Then
+        Assertions.assertEquals(123456, numero);
+    }
+
+    @Test
+    void findLastNumeroMatriculeOneEmploye() {
         //Given
         employeRepository.save(new Employe("Neymar", "Jean","M00123", LocalDate.now().minusYears(2), Entreprise.SALAIRE_BASE,1,1.0));
-        employeRepository.save(new Employe("Bruel", "Patrick","T00123", LocalDate.now(), Entreprise.SALAIRE_BASE,2,0.5));
-        employeRepository.save(new Employe("Dulac", "Jeanne","A00123", LocalDate.now().plusYears(2), Entreprise.SALAIRE_BASE,3,1.0));
 
         //When
-        String matricule = employeRepository.findLastMatricule();
+        Integer numero = employeRepository.findLastNumeroMatricule("M");
 
         //Then
-        Assertions.assertEquals("00123", matricule);
+        Assertions.assertEquals(123, numero);
     }
 
     @Test
-    void findLastMatriculeOneEmploye() {
+    void findLastNumeroMatriculeAucunEmployeDuType() {
         //Given
         employeRepository.save(new Employe("Neymar", "Jean","M00123", LocalDate.now().minusYears(2), Entreprise.SALAIRE_BASE,1,1.0));
 
         //When
-        String matricule = employeRepository.findLastMatricule();
+        Integer numero = employeRepository.findLastNumeroMatricule("T");
+
+        //Then
+        Assertions.assertNull(numero);
+    }
+
+    @Test
+    void sommePerformanceParPremiereLettreMatricule() {
+        //Given
+        employeRepository.save(new Employe("Neymar", "Jean","C00001", LocalDate.now(), Entreprise.SALAIRE_BASE,3,1.0));
+        employeRepository.save(new Employe("Bruel", "Patrick","C00002", LocalDate.now(), Entreprise.SALAIRE_BASE,4,1.0));
+        employeRepository.save(new Employe("Dulac", "Jeanne","M00003", LocalDate.now(), Entreprise.SALAIRE_BASE,1,1.0));
+
+        //When
+        List<Object[]> sommes = employeRepository.sommePerformanceParPremiereLettreMatricule();
+
+        //Then
+        Assertions.assertEquals(2, sommes.size());
+        Object[] commerciaux = sommes.stream().filter(ligne -> "C".equals(ligne[0])).findFirst().orElseThrow(AssertionError::new);
+        Assertions.assertEquals(7L, ((Number) commerciaux[1]).longValue());
+        Assertions.assertEquals(2L, ((Number) commerciaux[2]).longValue());
+    }
+
+    @Test
+    void findDonneesPrimes() {
+        //Given
+        LocalDate dateEmbauche = LocalDate.now().minusYears(2);
+        employeRepository.save(new Employe("Neymar", "Jean","M00123", dateEmbauche, Entreprise.SALAIRE_BASE,1,0.5));
+
+        //When
+        List<Object[]> donnees = employeRepository.findDonneesPrimes();
+
+        //Then
+        Assertions.assertEquals(1, donnees.size());
+        Assertions.assertArrayEquals(new Object[]{"M00123", 1, dateEmbauche, 0.5}, donnees.get(0));
+    }
+
+    @Test
+    void avgPerformanceWhereMatriculeStartsWith() {
+        //Given
+        employeRepository.save(new Employe("Neymar", "Jean","C00001", LocalDate.now(), Entreprise.SALAIRE_BASE,3,1.0));
+        employeRepository.save(new Employe("Bruel", "Patrick","C00002", LocalDate.now(), Entreprise.SALAIRE_BASE,5,1.0));
+        employeRepository.save(new Employe("Dulac", "Jeanne","M00003", LocalDate.now(), Entreprise.SALAIRE_BASE,1,1.0));
+
+        //When
+        Double moyenne = employeRepository.avgPerformanceWhereMatriculeStartsWith("C");
+
+        //Then
+        Assertions.assertEquals(4d, moyenne);
+    }
+
+    @Test
+    void initialiserVersions() {
+        //Given
+        entityManager.createNativeQuery("insert into employe (id, matricule, version) values (998, 'C00041', null), (999, 'C00042', 3)").executeUpdate();
+
+        //When
+        int nbEmployes = employeRepository.initialiserVersions();
+        entityManager.clear();
+
+        //Then
+        Assertions.assertEquals(1, nbEmployes);
+        Assertions.assertEquals(0L, employeRepository.findByMatricule("C00041").getVersion().longValue());
+        Assertions.assertEquals(3L, employeRepository.findByMatricule("C00042").getVersion().longValue());
+    }
+
+    @Test
+    void modifierPerformanceVersionNulle() {
+        //Given
+        entityManager.createNativeQuery("insert into employe (id, matricule, performance, version) values (999, 'C00042', 2, null)").executeUpdate();
+
+        //When
+        employeRepository.modifierPerformance("C00042", 1, Integer.MIN_VALUE, Entreprise.PERFORMANCE_BASE, Integer.MAX_VALUE);
+        entityManager.clear();
+
+        //Then
+        Employe employe = employeRepository.findByMatricule("C00042");
+        Assertions.assertEquals(3, employe.getPerformance().intValue());
+        Assertions.assertEquals(1L, employe.getVersion().longValue());
+    }
+
+    @Test
+    void migrerMatricules() {
+        //Given
+        entityManager.createNativeQuery("insert into employe (id, matricule) values (999, 'C00042')").executeUpdate();
+
+        //When
+        int nbEmployes = employeRepository.migrerMatricules();
+        entityManager.clear();
+
+        //Then
+        Assertions.assertEquals(1, nbEmployes);
+        Employe employe = employeRepository.findByMatricule("C00042");
+        Assertions.assertEquals("C", employe.getTypeMatricule());
+        Assertions.assertEquals(42, employe.getNumeroMatricule().intValue());
+    }
+
+    @Test
+    void migrerMatriculesNonNumeriques() {
+        //Given
+        entityManager.createNativeQuery("insert into employe (id, matricule) values (997, 'C0004X'), (998, 'X'), (999, 'C00043')").executeUpdate();
+
+        //When
+        int nbEmployes = employeRepository.migrerMatricules();
+        entityManager.clear();
+
+        //Then
+        Assertions.assertEquals(3, nbEmployes);
+        Employe nonNumerique = employeRepository.findByMatricule("C0004X");
+        Assertions.assertEquals("C", nonNumerique.getTypeMatricule());
+        Assertions.assertNull(nonNumerique.getNumeroMatricule());
+        Assertions.assertEquals("X", employeRepository.findByMatricule("X").getTypeMatricule());
+        Assertions.assertNull(employeRepository.findByMatricule("X").getNumeroMatricule());
+        Assertions.assertEquals(43, employeRepository.findByMatricule("C00043").getNumeroMatricule().intValue());
+    }
+
+    @Test
+    void findResumesParIdParcourtToutesLesPages() {
+        //Given
+        for(int i = 0; i < 25; i++){
+            employeRepository.save(new Employe("Nom" + i, "Prénom", String.format("T%05d", 25 - i), LocalDate.now(), Entreprise.SALAIRE_BASE, i, 1.0));
+        }
+        //Les résumés ne déclenchent pas l'écriture des modifications en attente
+        entityManager.flush();
+
+        //When
+        List<EmployeResume> page1 = employeRepository.findResumesParId(null, 10);
+        List<EmployeResume> page2 = employeRepository.findResumesParId(page1.get(9).getId(), 10);
+        List<EmployeResume> page3 = employeRepository.findResumesParId(page2.get(9).getId(), 10);
+
+        //Then
+        Assertions.assertEquals(10, page1.size());
+        Assertions.assertEquals(10, page2.size());
+        Assertions.assertEquals(5, page3.size());
+        Assertions.assertEquals("Nom0", page1.get(0).getNom());
+        Assertions.assertEquals("T00025", page1.get(0).getMatricule());
+        Assertions.assertEquals(0, page1.get(0).getPerformance().intValue());
+        Assertions.assertEquals(Entreprise.SALAIRE_BASE, page1.get(0).getSalaire());
+        Assertions.assertEquals("Nom24", page3.get(4).getNom());
+    }
+
+    @Test
+    void findResumesParMatriculeParcourtToutesLesPages() {
+        //Given
+        for(int i = 0; i < 25; i++){
+            employeRepository.save(new Employe("Nom" + i, "Prénom", String.format("T%05d", 25 - i), LocalDate.now(), Entreprise.SALAIRE_BASE, i, 1.0));
+        }
+        //Les résumés ne déclenchent pas l'écriture des modifications en attente
+        entityManager.flush();
+
+        //When
+        List<EmployeResume> page1 = employeRepository.findResumesParMatricule(null, 20);
+        List<EmployeResume> page2 = employeRepository.findResumesParMatricule(page1.get(19).getMatricule(), 20);
+
+        //Then
+        Assertions.assertEquals(20, page1.size());
+        Assertions.assertEquals(5, page2.size());
+        Assertions.assertEquals("T00001", page1.get(0).getMatricule());
+        Assertions.assertEquals("T00021", page2.get(0).getMatricule());
+        Assertions.assertEquals("T00025", page2.get(4).getMatricule());
+    }
+
+    @Test
+    void planFindResumesParIdUtiliseLaClePrimaire() {
+        //Given
+
+        //When
+        String plan = plan("select id, matricule, nom, performance, salaire from employe where id > 10000 order by id limit 100");
+
+        //Then
+        Assertions.assertTrue(plan.contains("PRIMARY_KEY"), plan);
+        Assertions.assertTrue(plan.contains("ID > 10000"), plan);
+        Assertions.assertTrue(plan.contains("index sorted"), plan);
+    }
+
+    @Test
+    void planFindResumesParMatriculeUtiliseIndex() {
+        //Given
+
+        //When
+        String plan = plan("select id, matricule, nom, performance, salaire from employe where matricule > 'T10000' order by matricule limit 100");
+
+        //Then
+        Assertions.assertTrue(plan.contains("UK_EMPLOYE_MATRICULE"), plan);
+        Assertions.assertTrue(plan.contains("index sorted"), plan);
+    }
+
+    @Test
+    void planFindLastNumeroMatriculeUtiliseIndex() {
+        //Given
+
+        //When
+        String plan = plan("select max(numero_matricule) from employe where type_matricule = 'T'");
+
+        //Then
+        Assertions.assertTrue(plan.contains("IDX_EMPLOYE_TYPE_NUMERO_MATRICULE"), plan);
+    }
+
+    @Test
+    void planFindByMatriculeUtiliseIndex() {
+        //Given
+
+        //When
+        String plan = plan("select * from employe where matricule = 'C00001'");
+
+        //Then
+        Assertions.assertTrue(plan.contains("UK_EMPLOYE_MATRICULE"), plan);
+    }
+
+    @Test
+    void planAvgPerformanceUtiliseIndex() {
+        //Given
+
+        //When
+        String plan = plan("select avg(performance) from employe where type_matricule = 'C'");
+
+        //Then
+        Assertions.assertTrue(plan.contains("IDX_EMPLOYE_TYPE_NUMERO_MATRICULE"), plan);
+    }
+
+    private String plan(String requete) {
+        return (String) entityManager.createNativeQuery("explain " + requete).getSingleResult();
+    }
+
+    @Test
+    void statistiquesParTypeMatricule() {
+        //Given
+        employeRepository.save(new Employe("Neymar", "Jean","M00001", LocalDate.of(2018, 3, 1), 2000d, 1, 1.0));
+        employeRepository.save(new Employe("Bruel", "Patrick","T00002", LocalDate.of(2019, 3, 1), 1000d, 2, 0.5));
+        employeRepository.save(new Employe("Dulac", "Jeanne","T00003", LocalDate.of(2019, 6, 1), 3000d, 4, 1.0));
+
+        //When
+        List<StatistiquesGroupe> groupes = employeRepository.statistiquesParTypeMatricule();
+
+        //Then
+        assertEquals(2, groupes.size());
+        assertEquals("M", groupes.get(0).getCle());
+        assertEquals(1L, groupes.get(0).getNbEmployes());
+        StatistiquesGroupe techniciens = groupes.get(1);
+        assertEquals("T", techniciens.getCle());
+        assertEquals(2L, techniciens.getNbEmployes());
+        assertEquals(2000d, techniciens.getSalaireMoyen());
+        assertEquals(4000d, techniciens.getMasseSalariale());
+        assertEquals(3d, techniciens.getPerformanceMoyenne());
+    }
+
+    @Test
+    void statistiquesParTempsPartielEtAnneeEmbauche() {
+        //Given
+        employeRepository.save(new Employe("Neymar", "Jean","M00001", LocalDate.of(2018, 3, 1), 2000d, 1, 1.0));
+        employeRepository.save(new Employe("Bruel", "Patrick","T00002", LocalDate.of(2019, 3, 1), 1000d, 2, 0.5));
+        employeRepository.save(new Employe("Dulac", "Jeanne","T00003", LocalDate.of(2019, 6, 1), 3000d, 4, 1.0));
+
+        //When
+        List<StatistiquesGroupe> parTempsPartiel = employeRepository.statistiquesParTempsPartiel();
+        List<StatistiquesGroupe> parAnnee = employeRepository.statistiquesParAnneeEmbauche();
+
+        //Then
+        assertEquals(2, parTempsPartiel.size());
+        assertEquals(0.5, parTempsPartiel.get(0).getCle());
+        assertEquals(1000d, parTempsPartiel.get(0).getMasseSalariale());
+        assertEquals(1.0, parTempsPartiel.get(1).getCle());
+        assertEquals(2L, parTempsPartiel.get(1).getNbEmployes());
+        assertEquals(2, parAnnee.size());
+        assertEquals(2018, parAnnee.get(0).getCle());
+        assertEquals(2019, parAnnee.get(1).getCle());
+        assertEquals(2L, parAnnee.get(1).getNbEmployes());
+        assertEquals(4000d, parAnnee.get(1).getMasseSalariale());
+    }
+
+    @Test
+    void histogrammePerformances() {
+        //Given
+        employeRepository.save(new Employe("Bruel", "Patrick","T00002", LocalDate.of(2019, 3, 1), 1000d, 2, 0.5));
+        employeRepository.save(new Employe("Dulac", "Jeanne","T00003", LocalDate.of(2019, 6, 1), 3000d, 2, 1.0));
+        employeRepository.save(new Employe("Doe", "John","C00004", LocalDate.of(2019, 6, 1), 3000d, 5, 1.0));
+
+        //When
+        List<Object[]> lignes = employeRepository.histogrammePerformances();
+
+        //Then
+        assertEquals(2, lignes.size());
+        assertArrayEquals(new Object[]{"C", 5, 1L}, lignes.get(0));
+        assertArrayEquals(new Object[]{"T", 2, 2L}, lignes.get(1));
+    }
+
+    @Test
+    void findCohortes() {
+        //Given
+        employeRepository.save(new Employe("Bruel", "Patrick","T00002", LocalDate.of(2019, 3, 1), 1000d, 2, 0.5));
+        employeRepository.save(new Employe("Dulac", "Jeanne","T00003", LocalDate.of(2019, 6, 1), 3000d, 2, 0.5));
+        employeRepository.save(new Employe("Doe", "John","T00004", LocalDate.of(2020, 6, 1), 3000d, 2, 0.5));
+
+        //When
+        List<CohorteEmploye> cohortes = employeRepository.findCohortes();
+
+        //Then
+        assertEquals(2, cohortes.size());
+        CohorteEmploye cohorte2019 = cohortes.stream().filter(c -> c.getAnneeEmbauche() == 2019).findFirst().orElse(null);
+        assertNotNull(cohorte2019);
+        assertEquals("T", cohorte2019.getTypeMatricule());
+        assertEquals(2, cohorte2019.getPerformance().intValue());
+        assertEquals(0.5, cohorte2019.getTempsPartiel());
+        assertEquals(2L, cohorte2019.getNbEmployes());
+    }
+
+    @Test
+    void augmenterSalairesParSegment() {
+        //Given
+        //Salaires d'embauche BAC (1.1) et MASTER (1.4), au pro rata du temps partiel
+        Employe bacTempsPartiel = employeRepository.save(new Employe("Neymar", "Jean", "T00001", LocalDate.now(), 1.1 * Entreprise.SALAIRE_BASE * 0.8, 1, 0.8));
+        Employe bac = employeRepository.save(new Employe("Bruel", "Patrick", "T00002", LocalDate.now(), 1.1 * Entreprise.SALAIRE_BASE, 3, 1.0));
+        Employe master = employeRepository.save(new Employe("Dulac", "Jeanne", "T00003", LocalDate.now(), 1.4 * Entreprise.SALAIRE_BASE, 1, 1.0));
+        Employe commercialBac = employeRepository.save(new Employe("Doe", "John", "C00004", LocalDate.now(), 1.1 * Entreprise.SALAIRE_BASE, 1, 1.0));
+        entityManager.flush();
+        entityManager.clear();
+
+        //When
+        RapportAugmentation rapport = employeRepository.augmenterSalaires(
+                FiltreEmploye.tous().prefixe('T').performanceMax(2).niveauEtude(NiveauEtude.BAC), 10.0);
+        entityManager.clear();
 
         //Then
-        Assertions.assertEquals("00123",matricule);
+        Employe attendu = new Employe("Neymar", "Jean", "T00001", LocalDate.now(), 1.1 * Entreprise.SALAIRE_BASE * 0.8, 1, 0.8);
+        attendu.augmenterSalaire(10.0);
+        Employe augmente = employeRepository.findById(bacTempsPartiel.getId()).get();
+        Assertions.assertEquals(1, rapport.getNbEmployes());
+        Assertions.assertEquals(0.1 * 1.1 * Entreprise.SALAIRE_BASE * 0.8, rapport.getAugmentationMasseSalariale(), 0.0001);
+        Assertions.assertEquals(attendu.getSalaire(), augmente.getSalaire());
+        Assertions.assertEquals(bacTempsPartiel.getVersion() + 1, augmente.getVersion().longValue());
+        Assertions.assertEquals(bac.getSalaire(), employeRepository.findById(bac.getId()).get().getSalaire());
+        Assertions.assertEquals(master.getSalaire(), employeRepository.findById(master.getId()).get().getSalaire());
+        Assertions.assertEquals(commercialBac.getSalaire(), employeRepository.findById(commercialBac.getId()).get().getSalaire());
     }
 
     @Test
-    void findLastMatriculeNull() {
+    void augmenterSalaireParMatricule() {
         //Given
-        //Nothing to test null
+        employeRepository.save(new Employe("Neymar", "Jean", "T00001", LocalDate.now(), 2000.0, 1, 1.0));
+        entityManager.flush();
+        entityManager.clear();
 
         //When
-        String matricule = employeRepository.findLastMatricule();
+        RapportAugmentation rapport = employeRepository.augmenterSalaire("T00001", 5.0);
+        RapportAugmentation inconnu = employeRepository.augmenterSalaire("T99999", 5.0);
+        entityManager.clear();
 
         //Then
-        Assertions.assertNull(matricule);
+        Assertions.assertEquals(1, rapport.getNbEmployes());
+        Assertions.assertEquals(100.0, rapport.getAugmentationMasseSalariale(), 0.0001);
+        Assertions.assertEquals(2100.0, employeRepository.findByMatricule("T00001").getSalaire(), 0.0001);
+        Assertions.assertEquals(0, inconnu.getNbEmployes());
+        Assertions.assertEquals(0.0, inconnu.getAugmentationMasseSalariale());
     }
-}
\ No newline at end of file
+}
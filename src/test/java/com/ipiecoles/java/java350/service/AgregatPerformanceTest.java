@@ -0,0 +1,98 @@
+package com.ipiecoles.java.java350.service;
+
+import com.ipiecoles.java.java350.repository.EmployeRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+class AgregatPerformanceTest {
+
+    @InjectMocks
+    AgregatPerformance agregatPerformance;
+
+    @Mock
+    EmployeRepository employeRepository;
+
+    @Test
+    void moyenneInitialiseDepuisLaBdd() {
+        //Given
+        Mockito.when(employeRepository.sommePerformanceParPremiereLettreMatricule()).thenReturn(Arrays.asList(
+                new Object[]{"C", 7L, 2L},
+                new Object[]{"M", 3L, 3L}));
+
+        //When
+        Double moyenneCommerciaux = agregatPerformance.moyenne("C");
+        Double moyenneManagers = agregatPerformance.moyenne("M");
+        Double moyenneTechniciens = agregatPerformance.moyenne("T");
+
+        //Then
+        Assertions.assertEquals(3.5, moyenneCommerciaux);
+        Assertions.assertEquals(1.0, moyenneManagers);
+        Assertions.assertNull(moyenneTechniciens);
+        Mockito.verify(employeRepository, times(1)).sommePerformanceParPremiereLettreMatricule();
+    }
+
+    @Test
+    void moyenneTenueAJourSansRequete() {
+        //Given
+        Mockito.when(employeRepository.sommePerformanceParPremiereLettreMatricule()).thenReturn(Collections.singletonList(
+                new Object[]{"C", 4L, 2L}));
+        agregatPerformance.moyenne("C");
+
+        //When
+        agregatPerformance.ajouter("C00003", 7);
+        agregatPerformance.modifier("C00001", 1, 4);
+        agregatPerformance.ajouter("T00004", 1);
+
+        //Then
+        //(4 + 7 + 3) / 3
+        Assertions.assertEquals(14d / 3, agregatPerformance.moyenne("C"));
+        Assertions.assertEquals(1.0, agregatPerformance.moyenne("T"));
+        Mockito.verify(employeRepository, times(1)).sommePerformanceParPremiereLettreMatricule();
+    }
+
+    @Test
+    void reconcilierSignaleLaDerive() {
+        //Given
+        Mockito.when(employeRepository.sommePerformanceParPremiereLettreMatricule()).thenReturn(
+                Collections.singletonList(new Object[]{"C", 4L, 2L}))
+                .thenReturn(Arrays.asList(new Object[]{"C", 6L, 2L}, new Object[]{"M", 1L, 1L}));
+        agregatPerformance.moyenne("C");
+
+        //When
+        Map<String, Double> ecarts = agregatPerformance.reconcilier();
+
+        //Then
+        Assertions.assertEquals(2, ecarts.size());
+        Assertions.assertEquals(1.0, ecarts.get("C"));
+        Assertions.assertEquals(1.0, ecarts.get("M"));
+        Assertions.assertEquals(3.0, agregatPerformance.moyenne("C"));
+    }
+
+    @Test
+    void reconcilierSansDerive() {
+        //Given
+        Mockito.when(employeRepository.sommePerformanceParPremiereLettreMatricule()).thenReturn(
+                Collections.singletonList(new Object[]{"C", 4L, 2L}))
+                .thenReturn(Collections.singletonList(new Object[]{"C", 11L, 3L}));
+        agregatPerformance.moyenne("C");
+        agregatPerformance.ajouter("C00003", 7);
+
+        //When
+        Map<String, Double> ecarts = agregatPerformance.reconcilier();
+
+        //Then
+        Assertions.assertTrue(ecarts.isEmpty());
+    }
+}
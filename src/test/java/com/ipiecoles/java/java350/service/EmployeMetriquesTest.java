@@ -0,0 +1,78 @@
+package com.ipiecoles.java.java350.service;
+
+import com.ipiecoles.java.java350.service.EmployeMetriques.Operation;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+class EmployeMetriquesTest {
+
+    @Test
+    void mesurerEnregistreLeTempsDeLOperation() {
+        //Given
+        MeterRegistry registry = new SimpleMeterRegistry();
+        EmployeMetriques employeMetriques = new EmployeMetriques(registry, true);
+
+        //When
+        String resultat = employeMetriques.mesurer(Operation.FIND_BY_MATRICULE, () -> "T12345");
+        employeMetriques.fin(Operation.EMBAUCHE, employeMetriques.debut());
+
+        //Then
+        Timer timer = registry.get(EmployeMetriques.TIMER).tag("operation", "find_by_matricule").timer();
+        Assertions.assertEquals("T12345", resultat);
+        Assertions.assertEquals(1, timer.count());
+        Assertions.assertEquals(1, registry.get(EmployeMetriques.TIMER).tag("operation", "embauche").timer().count());
+        Assertions.assertTrue(timer.totalTime(TimeUnit.NANOSECONDS) > 0);
+    }
+
+    @Test
+    void erreurCompteeParOperationEtMotif() {
+        //Given
+        MeterRegistry registry = new SimpleMeterRegistry();
+        EmployeMetriques employeMetriques = new EmployeMetriques(registry, true);
+
+        //When
+        employeMetriques.erreur(Operation.CALCUL_PERFORMANCE, "matricule_inconnu");
+        employeMetriques.erreur(Operation.CALCUL_PERFORMANCE, "matricule_inconnu");
+        employeMetriques.erreur(Operation.EMBAUCHE, "limite_matricules");
+
+        //Then
+        Assertions.assertEquals(2.0, registry.get(EmployeMetriques.COMPTEUR_ERREURS)
+                .tags("operation", "calcul_performance", "motif", "matricule_inconnu").counter().count());
+        Assertions.assertTrue(employeMetriques.rapport().contains("erreurs embauche limite_matricules : 1"));
+    }
+
+    @Test
+    void rapportDonneNombreEtPercentiles() {
+        //Given
+        EmployeMetriques employeMetriques = new EmployeMetriques(new SimpleMeterRegistry(), true);
+        employeMetriques.mesurer(Operation.SAVE, () -> null);
+
+        //When
+        String rapport = employeMetriques.rapport();
+
+        //Then
+        Assertions.assertTrue(rapport.contains("save : nombre=1 "));
+        Assertions.assertTrue(rapport.contains(" p50="));
+        Assertions.assertTrue(rapport.contains(" p99="));
+    }
+
+    @Test
+    void desactiveesNEnregistreRien() {
+        //Given
+        MeterRegistry registry = new SimpleMeterRegistry();
+        EmployeMetriques employeMetriques = new EmployeMetriques(registry, false);
+
+        //When
+        employeMetriques.mesurer(Operation.SAVE, () -> null);
+        employeMetriques.erreur(Operation.EMBAUCHE, "limite_matricules");
+
+        //Then
+        Assertions.assertFalse(employeMetriques.isActives());
+        Assertions.assertTrue(registry.getMeters().isEmpty());
+    }
+}
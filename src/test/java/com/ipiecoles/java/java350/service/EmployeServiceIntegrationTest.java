@@ -1,22 +1,33 @@
 package com.ipiecoles.java.java350.service;
 
 import com.ipiecoles.java.java350.exception.EmployeException;
+import com.ipiecoles.java.java350.model.BilanCommercial;
+import com.ipiecoles.java.java350.model.DemandeEmbauche;
 import com.ipiecoles.java.java350.model.Employe;
 import com.ipiecoles.java.java350.model.Entreprise;
 import com.ipiecoles.java.java350.model.NiveauEtude;
 import com.ipiecoles.java.java350.model.Poste;
+import com.ipiecoles.java.java350.model.RapportEmbauche;
+import com.ipiecoles.java.java350.model.RapportPerformance;
 import com.ipiecoles.java.java350.repository.EmployeRepository;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
 
 @ExtendWith(SpringExtension.class)
 @SpringBootTest
@@ -28,6 +39,9 @@ public class EmployeServiceIntegrationTest {
     @Autowired
     private EmployeRepository employeRepository;
 
+    @Autowired
+    private AgregatPerformance agregatPerformance;
+
     @BeforeEach
     @AfterEach
     public void setup(){
@@ -58,4 +72,100 @@ public class EmployeServiceIntegrationTest {
         Assertions.assertEquals(1521.22, employe.getSalaire().doubleValue());
     }
 
+    @Test
+    public void testIntegrationEmbaucheEmployes() {
+        //Given
+        List<DemandeEmbauche> demandes = new ArrayList<>();
+        for(int i = 0; i < 120; i++){
+            demandes.add(new DemandeEmbauche("Nom" + i, "Prénom" + i, Poste.values()[i % 3], NiveauEtude.BAC, 1.0));
+        }
+
+        //When
+        RapportEmbauche rapport = employeService.embaucheEmployes(demandes);
+
+        //Then
+        Assertions.assertEquals(120, rapport.getNbEmbauches());
+        Assertions.assertEquals(120, employeRepository.count());
+        Employe employe = employeRepository.findByMatricule(rapport.getResultats().get(119).getMatricule());
+        Assertions.assertNotNull(employe);
+        Assertions.assertEquals("Nom119", employe.getNom());
+        Assertions.assertEquals(1521.22 * 1.1, employe.getSalaire().doubleValue());
+    }
+
+    @Test
+    public void testIntegrationCalculPerformanceCommerciaux() {
+        //Given
+        for(int i = 1; i <= 30; i++){
+            employeRepository.save(new Employe("Nom" + i, "Prénom" + i, String.format("C%05d", i), LocalDate.now(), Entreprise.SALAIRE_BASE, 2, 1.0));
+        }
+        agregatPerformance.reconcilier();
+
+        //When
+        RapportPerformance rapport = employeService.calculPerformanceCommerciaux(IntStream.rangeClosed(1, 31)
+                .mapToObj(i -> new BilanCommercial(String.format("C%05d", i), i % 2 == 0 ? 1300L : 1000L, 1000L)));
+
+        //Then
+        Assertions.assertEquals(30, rapport.getNbMisesAJour());
+        Assertions.assertEquals(1, rapport.getErreurs().size());
+        //Cas 5 : 2 + 4 + 1 (au dessus de la moyenne de 2 lue avant le traitement)
+        Assertions.assertEquals(7, employeRepository.findByMatricule("C00002").getPerformance().intValue());
+        //Cas 3 : la performance reste la même
+        Assertions.assertEquals(2, employeRepository.findByMatricule("C00001").getPerformance().intValue());
+    }
+
+
+    @Test
+    public void testIntegrationCalculPerformanceVersionEmpecheLaPerteDeMiseAJour() throws EmployeException {
+        //Given
+        Long id = employeRepository.save(new Employe("Neymar", "Jean", "C00001", LocalDate.now(), Entreprise.SALAIRE_BASE, 2, 1.0)).getId();
+        Employe copiePerimee = employeRepository.findById(id).get();
+        agregatPerformance.reconcilier();
+        employeService.calculPerformanceCommercial("C00001", 1300L, 1000L);
+
+        //When
+        copiePerimee.setPerformance(10);
+
+        //Then
+        Assertions.assertThrows(ObjectOptimisticLockingFailureException.class, () -> employeRepository.save(copiePerimee));
+        Employe employe = employeRepository.findByMatricule("C00001");
+        Assertions.assertEquals(7, employe.getPerformance().intValue());
+        Assertions.assertEquals(1L, employe.getVersion().longValue());
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "2, 500, 1000",
+            "5, 850, 1000",
+            "1, 850, 1000",
+            "4, 1000, 1000",
+            "1, 1000, 1000",
+            "2, 1100, 1000",
+            "7, 1100, 1000",
+            "2, 1300, 1000"
+    })
+    public void testIntegrationCalculPerformanceAtomiqueIdentiqueAuCalculStandard(Integer performance, Long caTraite, Long objectifCa) throws EmployeException {
+        //Given
+        Integer performanceStandard = calculerPerformance(performance, caTraite, objectifCa, false);
+
+        //When
+        Integer performanceAtomique = calculerPerformance(performance, caTraite, objectifCa, true);
+
+        //Then
+        Assertions.assertEquals(performanceStandard, performanceAtomique);
+        Assertions.assertEquals(1L, employeRepository.findByMatricule("C00001").getVersion().longValue());
+    }
+
+    private Integer calculerPerformance(Integer performance, Long caTraite, Long objectifCa, boolean miseAJourAtomique) throws EmployeException {
+        employeRepository.deleteAll();
+        employeRepository.save(new Employe("Neymar", "Jean", "C00001", LocalDate.now(), Entreprise.SALAIRE_BASE, performance, 1.0));
+        employeRepository.save(new Employe("Bruel", "Patrick", "C00002", LocalDate.now(), Entreprise.SALAIRE_BASE, 3, 1.0));
+        agregatPerformance.reconcilier();
+        ReflectionTestUtils.setField(employeService, "miseAJourAtomique", miseAJourAtomique);
+        try {
+            employeService.calculPerformanceCommercial("C00001", caTraite, objectifCa);
+        } finally {
+            ReflectionTestUtils.setField(employeService, "miseAJourAtomique", false);
+        }
+        return employeRepository.findByMatricule("C00001").getPerformance();
+    }
 }
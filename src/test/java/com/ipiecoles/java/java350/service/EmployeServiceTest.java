@@ -1,10 +1,19 @@
 package com.ipiecoles.java.java350.service;
 
 import com.ipiecoles.java.java350.exception.EmployeException;
+import com.ipiecoles.java.java350.model.BilanCommercial;
+import com.ipiecoles.java.java350.model.DemandeEmbauche;
 import com.ipiecoles.java.java350.model.Employe;
+import com.ipiecoles.java.java350.model.Entreprise;
+import com.ipiecoles.java.java350.model.FiltreEmploye;
 import com.ipiecoles.java.java350.model.NiveauEtude;
 import com.ipiecoles.java.java350.model.Poste;
+import com.ipiecoles.java.java350.model.RapportAugmentation;
+import com.ipiecoles.java.java350.model.RapportEmbauche;
+import com.ipiecoles.java.java350.model.RapportPerformance;
+import com.ipiecoles.java.java350.model.SituationEmploye;
 import com.ipiecoles.java.java350.repository.EmployeRepository;
+import com.ipiecoles.java.java350.repository.SequenceMatriculeRepository;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,7 +21,24 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
 import javax.persistence.EntityExistsException;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+import java.util.stream.Stream;
 
 import static org.mockito.Mockito.times;
 
@@ -25,6 +51,21 @@ class EmployeServiceTest {
     @Mock
     EmployeRepository employeRepository;
 
+    @Mock
+    MatriculeService matriculeService;
+
+    @Mock
+    AgregatPerformance agregatPerformance;
+
+    @Mock
+    InstantaneEffectif instantaneEffectif;
+
+    @Mock
+    StatistiquesEffectifService statistiquesEffectifService;
+
+    @Captor
+    ArgumentCaptor<List<Employe>> employes;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.initMocks(this.getClass());
@@ -39,7 +80,7 @@ class EmployeServiceTest {
         Poste poste = Poste.TECHNICIEN;
         Double temps = 1.0;
         Mockito.when(employeRepository.findByMatricule("T12345")).thenReturn(null);
-        Mockito.when(employeRepository.findLastMatricule()).thenReturn("12344");
+        Mockito.when(matriculeService.prochainNumero("T")).thenReturn(12345);
 
         //When
         employeService.embaucheEmploye(nom, prenom, poste,etude, temps);
@@ -56,6 +97,20 @@ class EmployeServiceTest {
         Assertions.assertEquals(1521.22, employe.getValue().getSalaire());
     }
 
+    @Test
+    void embaucheSansNiveauEtude() {
+        //Given
+
+        //When
+        EmployeException e = Assertions.assertThrows(EmployeException.class,
+                () -> employeService.embaucheEmploye("Neymar", "Jean", Poste.TECHNICIEN, null, 1.0));
+
+        //Then
+        Assertions.assertEquals(EmployeService.MOTIF_DEMANDE_INCOMPLETE, e.getMotif());
+        Assertions.assertEquals("Le poste et le niveau d'étude sont obligatoires !", e.getMessage());
+        Mockito.verifyNoInteractions(matriculeService, employeRepository);
+    }
+
     @Test
     void embaucheNewEmployeTechnicienCapTempsPleinNoLastMateicule() throws EmployeException {
         //Given
@@ -65,7 +120,7 @@ class EmployeServiceTest {
         Poste poste = Poste.TECHNICIEN;
         Double temps = 1.0;
         Mockito.when(employeRepository.findByMatricule("T00001")).thenReturn(null);
-        Mockito.when(employeRepository.findLastMatricule()).thenReturn(null);
+        Mockito.when(matriculeService.prochainNumero("T")).thenReturn(1);
 
         //When
         employeService.embaucheEmploye(nom, prenom, poste,etude, temps);
@@ -77,6 +132,39 @@ class EmployeServiceTest {
         Assertions.assertEquals("T00001", employe.getValue().getMatricule());
     }
 
+    @Test
+    void embaucheEmployeDateDeLHorloge() throws EmployeException {
+        //Given
+        ReflectionTestUtils.setField(employeService, "clock", Clock.fixed(LocalDate.of(2030, 3, 15).atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+        Mockito.when(matriculeService.prochainNumero("T")).thenReturn(12345);
+
+        //When
+        employeService.embaucheEmploye("Neymar", "Jean", Poste.TECHNICIEN, NiveauEtude.CAP, 1.0);
+        ArgumentCaptor<Employe> employe = ArgumentCaptor.forClass(Employe.class);
+        Mockito.verify(employeRepository, times(1)).save(employe.capture());
+
+        //Then
+        Assertions.assertEquals(LocalDate.of(2030, 3, 15), employe.getValue().getDateEmbauche());
+        Mockito.verify(instantaneEffectif).enregistrer(employe.getValue());
+    }
+
+    @Test
+    void situationEmployeADateDeReference() throws EmployeException {
+        //Given
+        Mockito.when(employeRepository.findByMatricule("T00001")).thenReturn(
+                new Employe("Neymar", "Jean", "T00001", LocalDate.of(2015, 6, 1), Entreprise.SALAIRE_BASE, 2, 1.0));
+
+        //When
+        SituationEmploye situation = employeService.situationEmploye("T00001", LocalDate.of(2021, 6, 15));
+
+        //Then
+        Assertions.assertEquals(6, situation.getAnciennete());
+        Assertions.assertEquals(Entreprise.NB_CONGES_BASE + 6, situation.getNbConges());
+        Assertions.assertEquals(11, situation.getNbRtt().intValue());
+        //Prime de base 1000 * (2 + 0.3) + 6 ans * 100
+        Assertions.assertEquals(2900d, situation.getPrimeAnnuelle(), 0.001);
+    }
+
     @Test
     void embaucheExistingEmployeTechnicienCapTempsPlein() {
         //Given
@@ -86,7 +174,7 @@ class EmployeServiceTest {
         Poste poste = Poste.TECHNICIEN;
         Double temps = 1.0;
         Mockito.when(employeRepository.findByMatricule("T12345")).thenReturn(new Employe());
-        Mockito.when(employeRepository.findLastMatricule()).thenReturn("12344");
+        Mockito.when(matriculeService.prochainNumero("T")).thenReturn(12345);
 
         //When
         EntityExistsException exception = Assertions.assertThrows(EntityExistsException.class, ()-> employeService.embaucheEmploye(nom, prenom, poste,etude, temps));
@@ -104,7 +192,7 @@ class EmployeServiceTest {
         Poste poste = Poste.MANAGER;
         Double temps = 0.5;
         Mockito.when(employeRepository.findByMatricule("M12345")).thenReturn(null);
-        Mockito.when(employeRepository.findLastMatricule()).thenReturn("12344");
+        Mockito.when(matriculeService.prochainNumero("M")).thenReturn(12345);
 
         //When
         employeService.embaucheEmploye(nom, prenom, poste,etude, temps);
@@ -129,13 +217,380 @@ class EmployeServiceTest {
         NiveauEtude etude = NiveauEtude.MASTER;
         Poste poste = Poste.MANAGER;
         Double temps = 0.5;
-        Mockito.when(employeRepository.findLastMatricule()).thenReturn("99999");
+        Mockito.when(matriculeService.prochainNumero("M")).thenReturn(100000);
 
         //When
         EmployeException exception = Assertions.assertThrows(EmployeException.class, ()-> employeService.embaucheEmploye(nom, prenom, poste,etude, temps));
 
         //Then
         Assertions.assertEquals("Limite des 100000 matricules atteinte !", exception.getMessage());
+        Assertions.assertEquals(EmployeService.MOTIF_LIMITE_MATRICULES, exception.getMotif());
+
+    }
+
+    @Test
+    void embaucheEmployesReserveUnePlageParPosteEtInsereParLots() {
+        //Given
+        List<DemandeEmbauche> demandes = Arrays.asList(
+                new DemandeEmbauche("Neymar", "Jean", Poste.TECHNICIEN, NiveauEtude.CAP, 1.0),
+                new DemandeEmbauche("Bruel", "Patrick", null, NiveauEtude.CAP, 1.0),
+                new DemandeEmbauche("Dulac", "Jeanne", Poste.MANAGER, NiveauEtude.MASTER, 0.5));
+        Mockito.when(matriculeService.reserverNumeros("T", 1)).thenReturn(12345);
+        Mockito.when(matriculeService.reserverNumeros("M", 1)).thenReturn(12345);
+
+        //When
+        RapportEmbauche rapport = employeService.embaucheEmployes(demandes);
+        Mockito.verify(employeRepository, times(1)).insererParLots(employes.capture(), ArgumentMatchers.anyInt());
+
+        //Then
+        Assertions.assertEquals(2, rapport.getNbEmbauches());
+        Assertions.assertEquals(1, rapport.getNbRejets());
+        Assertions.assertEquals("T12345", rapport.getResultats().get(0).getMatricule());
+        Assertions.assertEquals("Le poste et le niveau d'étude sont obligatoires !", rapport.getResultats().get(1).getErreur());
+        Assertions.assertEquals("M12345", rapport.getResultats().get(2).getMatricule());
+        Assertions.assertEquals(2, employes.getValue().size());
+        Assertions.assertEquals(1521.22, employes.getValue().get(0).getSalaire());
+        //1521.22 * 1.4 * 0.5
+        Assertions.assertEquals(1064.854, employes.getValue().get(1).getSalaire());
+    }
+
+    @Test
+    void embaucheEmployeMatriculeSeptChiffres() throws EmployeException {
+        //Given
+        ReflectionTestUtils.setField(employeService, "chiffresMatricule", 7);
+        Mockito.when(matriculeService.prochainNumero("C")).thenReturn(100000);
+
+        //When
+        String matricule = employeService.embaucheEmploye("Neymar", "Jean", Poste.COMMERCIAL, NiveauEtude.CAP, 1.0);
+
+        //Then
+        Assertions.assertEquals("C0100000", matricule);
+        Mockito.verify(employeRepository).findByMatricule("C0100000");
+    }
+
+    @Test
+    void embaucheEmployesLimiteMatriculeSeptChiffres() {
+        //Given
+        ReflectionTestUtils.setField(employeService, "chiffresMatricule", 7);
+        List<DemandeEmbauche> demandes = Arrays.asList(
+                new DemandeEmbauche("Neymar", "Jean", Poste.TECHNICIEN, NiveauEtude.CAP, 1.0),
+                new DemandeEmbauche("Dulac", "Jeanne", Poste.TECHNICIEN, NiveauEtude.MASTER, 0.5));
+        Mockito.when(matriculeService.reserverNumeros("T", 2)).thenReturn(9999999);
+
+        //When
+        RapportEmbauche rapport = employeService.embaucheEmployes(demandes);
+
+        //Then
+        Assertions.assertEquals("T9999999", rapport.getResultats().get(0).getMatricule());
+        Assertions.assertEquals("Limite des 10000000 matricules atteinte !", rapport.getResultats().get(1).getErreur());
+    }
+
+    @Test
+    void embaucheEmployesUnMillionSansDoublon() {
+        //Given
+        //Séquences par type tenues en mémoire, la BDD contenant déjà le technicien T99999 au format à 5 chiffres.
+        //Les mocks ne conservent pas leurs invocations, pour ne pas garder en mémoire le million d'employés.
+        EmployeRepository repository = Mockito.mock(EmployeRepository.class, Mockito.withSettings().stubOnly());
+        SequenceMatriculeRepository sequenceRepository = Mockito.mock(SequenceMatriculeRepository.class, Mockito.withSettings().stubOnly());
+        Map<String, AtomicInteger> sequences = new HashMap<>();
+        Mockito.when(sequenceRepository.reserver(ArgumentMatchers.anyString(), ArgumentMatchers.anyInt(), ArgumentMatchers.any()))
+                .thenAnswer(invocation -> sequences.computeIfAbsent(invocation.getArgument(0),
+                        nom -> new AtomicInteger(invocation.getArgument(2, IntSupplier.class).getAsInt())).getAndAdd(invocation.getArgument(1)));
+        Mockito.when(repository.findLastNumeroMatricule(ArgumentMatchers.anyString()))
+                .thenAnswer(invocation -> "T".equals(invocation.getArgument(0)) ? 99999 : null);
+        Map<Character, BitSet> attribues = new HashMap<>();
+        AtomicInteger nbDoublons = new AtomicInteger();
+        Mockito.doAnswer(invocation -> {
+            for(Employe employe : invocation.<List<Employe>>getArgument(0)){
+                BitSet numeros = attribues.computeIfAbsent(employe.getMatricule().charAt(0), type -> new BitSet());
+                if(numeros.get(employe.getNumeroMatricule())){
+                    nbDoublons.incrementAndGet();
+                }
+                numeros.set(employe.getNumeroMatricule());
+            }
+            return null;
+        }).when(repository).insererParLots(ArgumentMatchers.anyList(), ArgumentMatchers.anyInt());
+
+        MatriculeService matricules = new MatriculeService();
+        ReflectionTestUtils.setField(matricules, "sequenceMatriculeRepository", sequenceRepository);
+        ReflectionTestUtils.setField(matricules, "employeRepository", repository);
+        EmployeService service = new EmployeService();
+        ReflectionTestUtils.setField(service, "employeRepository", repository);
+        ReflectionTestUtils.setField(service, "matriculeService", matricules);
+        ReflectionTestUtils.setField(service, "agregatPerformance", Mockito.mock(AgregatPerformance.class, Mockito.withSettings().stubOnly()));
+        ReflectionTestUtils.setField(service, "chiffresMatricule", 7);
+        Poste[] postes = Poste.values();
+
+        //When
+        long nbEmbauches = 0;
+        String premierTechnicien = null;
+        for(int lot = 0; lot < 100; lot++){
+            List<DemandeEmbauche> demandes = new ArrayList<>(10000);
+            for(int i = 0; i < 10000; i++){
+                demandes.add(new DemandeEmbauche("Nom", "Prénom", postes[i % postes.length], NiveauEtude.CAP, 1.0));
+            }
+            RapportEmbauche rapport = service.embaucheEmployes(demandes);
+            nbEmbauches += rapport.getNbEmbauches();
+            if(premierTechnicien == null){
+                premierTechnicien = rapport.getResultats().get(0).getMatricule();
+            }
+        }
+
+        //Then
+        Assertions.assertEquals(1_000_000, nbEmbauches);
+        Assertions.assertEquals(0, nbDoublons.get());
+        Assertions.assertEquals(1_000_000, attribues.values().stream().mapToInt(BitSet::cardinality).sum());
+        //Les techniciens reprennent après le dernier matricule existant, les autres types commencent à 1
+        Assertions.assertEquals("T0100000", premierTechnicien);
+        Assertions.assertEquals(100000, attribues.get('T').nextSetBit(0));
+        Assertions.assertEquals(attribues.get('T').length() - 100000, attribues.get('T').cardinality());
+        Assertions.assertEquals(1, attribues.get('M').nextSetBit(0));
+    }
+
+    @Test
+    void verifierChiffresMatricule() {
+        //Given
+        ReflectionTestUtils.setField(employeService, "chiffresMatricule", 10);
+
+        //When
+        IllegalStateException exception = Assertions.assertThrows(IllegalStateException.class, () -> employeService.verifierChiffresMatricule());
+
+        //Then
+        Assertions.assertEquals("java350.matricule.chiffres doit être compris entre 5 et 9 : 10", exception.getMessage());
+    }
+
+    @Test
+    void embaucheEmployesLimiteMatricule() {
+        //Given
+        List<DemandeEmbauche> demandes = Arrays.asList(
+                new DemandeEmbauche("Neymar", "Jean", Poste.TECHNICIEN, NiveauEtude.CAP, 1.0),
+                new DemandeEmbauche("Dulac", "Jeanne", Poste.TECHNICIEN, NiveauEtude.MASTER, 0.5));
+        Mockito.when(matriculeService.reserverNumeros("T", 2)).thenReturn(99999);
 
+        //When
+        RapportEmbauche rapport = employeService.embaucheEmployes(demandes);
+
+        //Then
+        Assertions.assertEquals("T99999", rapport.getResultats().get(0).getMatricule());
+        Assertions.assertEquals("Limite des 100000 matricules atteinte !", rapport.getResultats().get(1).getErreur());
+    }
+
+    @Test
+    void calculPerformanceCommercialUtiliseLaMoyenneDeLAgregat() throws EmployeException {
+        //Given
+        Employe commercial = new Employe("Neymar", "Jean", "C00001", LocalDate.now(), Entreprise.SALAIRE_BASE, 2, 1.0);
+        Mockito.when(employeRepository.findByMatricule("C00001")).thenReturn(commercial);
+        Mockito.when(agregatPerformance.moyenne("C")).thenReturn(2.5);
+
+        //When
+        //Cas 4 : +1 de performance, puis +1 car supérieure à la moyenne
+        employeService.calculPerformanceCommercial("C00001", 1100L, 1000L);
+
+        //Then
+        Assertions.assertEquals(4, commercial.getPerformance().intValue());
+        Mockito.verify(employeRepository, times(1)).save(commercial);
+        Mockito.verify(agregatPerformance, times(1)).modifier("C00001", 2, 4);
+        Mockito.verify(employeRepository, Mockito.never()).avgPerformanceWhereMatriculeStartsWith(ArgumentMatchers.anyString());
+    }
+
+    @Test
+    void calculPerformanceCommercialReessaieApresModificationConcurrente() throws EmployeException {
+        //Given
+        Employe perime = new Employe("Neymar", "Jean", "C00001", LocalDate.now(), Entreprise.SALAIRE_BASE, 2, 1.0);
+        Employe relu = new Employe("Neymar", "Jean", "C00001", LocalDate.now(), Entreprise.SALAIRE_BASE, 5, 1.0);
+        Mockito.when(employeRepository.findByMatricule("C00001")).thenReturn(perime, relu);
+        Mockito.when(employeRepository.save(perime)).thenThrow(new ObjectOptimisticLockingFailureException(Employe.class, 1L));
+        Mockito.when(agregatPerformance.moyenne("C")).thenReturn(6.0);
+
+        //When
+        //Cas 3 : la performance relue est conservée
+        employeService.calculPerformanceCommercial("C00001", 1000L, 1000L);
+
+        //Then
+        Assertions.assertEquals(5, relu.getPerformance().intValue());
+        Mockito.verify(employeRepository, times(1)).oublier("C00001");
+        Mockito.verify(employeRepository, times(1)).save(relu);
+        Mockito.verify(agregatPerformance, times(1)).modifier("C00001", 5, 5);
+    }
+
+    @Test
+    void calculPerformanceCommercialAbandonneApresLesTentatives() {
+        //Given
+        Mockito.when(employeRepository.findByMatricule("C00001")).thenAnswer(invocation ->
+                new Employe("Neymar", "Jean", "C00001", LocalDate.now(), Entreprise.SALAIRE_BASE, 2, 1.0));
+        Mockito.when(employeRepository.save(ArgumentMatchers.any(Employe.class))).thenThrow(new ObjectOptimisticLockingFailureException(Employe.class, 1L));
+
+        //When
+        EmployeException exception = Assertions.assertThrows(EmployeException.class, () -> employeService.calculPerformanceCommercial("C00001", 1000L, 1000L));
+
+        //Then
+        Assertions.assertEquals(EmployeService.MOTIF_MODIFICATION_CONCURRENTE, exception.getMotif());
+        Mockito.verify(employeRepository, times(3)).save(ArgumentMatchers.any(Employe.class));
+        Mockito.verify(agregatPerformance, Mockito.never()).modifier(ArgumentMatchers.anyString(), ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    @Test
+    void calculPerformanceCommercialAtomiqueLitLaBddSansCache() throws EmployeException {
+        //Given
+        ReflectionTestUtils.setField(employeService, "miseAJourAtomique", true);
+        Mockito.when(employeRepository.readByMatricule("C00001")).thenReturn(
+                new Employe("Neymar", "Jean", "C00001", LocalDate.now(), Entreprise.SALAIRE_BASE, 2, 1.0));
+        Mockito.when(agregatPerformance.moyenne("C")).thenReturn(3.0);
+        Mockito.when(employeRepository.modifierPerformance("C00001", 4, Integer.MIN_VALUE, Entreprise.PERFORMANCE_BASE, 3)).thenReturn(1);
+
+        //When
+        employeService.calculPerformanceCommercial("C00001", 1300L, 1000L);
+
+        //Then
+        //Cas 5 : 2 + 4 + 1, à partir de la performance lue en BDD
+        Mockito.verify(agregatPerformance).modifier("C00001", 2, 7);
+        Mockito.verify(employeRepository, Mockito.never()).findByMatricule(ArgumentMatchers.anyString());
+    }
+
+    @Test
+    void calculPerformanceCommerciauxAvecUneSeuleMoyenne() {
+        //Given
+        Employe c1 = new Employe("Neymar", "Jean", "C00001", LocalDate.now(), Entreprise.SALAIRE_BASE, 2, 1.0);
+        Employe c2 = new Employe("Bruel", "Patrick", "C00002", LocalDate.now(), Entreprise.SALAIRE_BASE, 5, 1.0);
+        Mockito.when(agregatPerformance.moyenne("C")).thenReturn(3.0);
+        Mockito.when(employeRepository.modifierParLots(ArgumentMatchers.anyCollection(), ArgumentMatchers.any(), ArgumentMatchers.anyInt()))
+                .thenAnswer(invocation -> {
+                    Consumer<Employe> modification = invocation.getArgument(1);
+                    List<Employe> employes = Arrays.asList(c1, c2);
+                    employes.forEach(modification);
+                    return employes;
+                });
+
+        //When
+        RapportPerformance rapport = employeService.calculPerformanceCommerciaux(Stream.of(
+                new BilanCommercial("C00001", 1300L, 1000L),
+                new BilanCommercial("C00002", 1000L, 1000L),
+                new BilanCommercial("C00003", 1000L, 1000L),
+                new BilanCommercial("T00004", 1000L, 1000L)));
+
+        //Then
+        //Cas 5 : 2 + 4 + 1
+        Assertions.assertEquals(7, c1.getPerformance().intValue());
+        //Cas 3 : 5 + 1
+        Assertions.assertEquals(6, c2.getPerformance().intValue());
+        Assertions.assertEquals(2, rapport.getNbMisesAJour());
+        Assertions.assertEquals(2, rapport.getErreurs().size());
+        Assertions.assertEquals("T00004", rapport.getErreurs().get(0).getMatricule());
+        Assertions.assertEquals("Le matricule ne peut être null et doit commencer par un C !", rapport.getErreurs().get(0).getErreur());
+        Assertions.assertEquals("C00003", rapport.getErreurs().get(1).getMatricule());
+        Assertions.assertEquals("Le matricule C00003 n'existe pas !", rapport.getErreurs().get(1).getErreur());
+        Mockito.verify(agregatPerformance, times(1)).moyenne("C");
+        Mockito.verify(agregatPerformance, times(1)).modifier("C00001", 2, 7);
+    }
+
+    @Test
+    void calculPerformanceCommerciauxRejetteLesDoublonsDeLotsDifferents() {
+        //Given
+        ReflectionTestUtils.setField(employeService, "tailleLotPerformance", 1);
+        Employe c1 = new Employe("Neymar", "Jean", "C00001", LocalDate.now(), Entreprise.SALAIRE_BASE, 2, 1.0);
+        Mockito.when(agregatPerformance.moyenne("C")).thenReturn(3.0);
+        Mockito.when(employeRepository.modifierParLots(ArgumentMatchers.anyCollection(), ArgumentMatchers.any(), ArgumentMatchers.anyInt()))
+                .thenAnswer(invocation -> {
+                    Consumer<Employe> modification = invocation.getArgument(1);
+                    modification.accept(c1);
+                    return Arrays.asList(c1);
+                });
+
+        //When
+        RapportPerformance rapport = employeService.calculPerformanceCommerciaux(Stream.of(
+                new BilanCommercial("C00001", 1300L, 1000L),
+                new BilanCommercial(null, 1000L, 1000L),
+                new BilanCommercial("C00001", 1300L, 1000L),
+                new BilanCommercial(null, 1000L, 1000L)));
+
+        //Then
+        //Cas 5 appliqué une seule fois : 2 + 4 + 1
+        Assertions.assertEquals(7, c1.getPerformance().intValue());
+        Assertions.assertEquals(1, rapport.getNbMisesAJour());
+        Assertions.assertEquals(3, rapport.getErreurs().size());
+        Assertions.assertNull(rapport.getErreurs().get(0).getMatricule());
+        Assertions.assertEquals("Le matricule C00001 a plusieurs bilans !", rapport.getErreurs().get(1).getErreur());
+        Assertions.assertNull(rapport.getErreurs().get(2).getMatricule());
+        Mockito.verify(employeRepository, times(1)).modifierParLots(ArgumentMatchers.anyCollection(), ArgumentMatchers.any(), ArgumentMatchers.anyInt());
+    }
+
+    @Test
+    void calculPerformanceCommerciauxLotEnConflit() {
+        //Given
+        ReflectionTestUtils.setField(employeService, "tailleLotPerformance", 1);
+        ReflectionTestUtils.setField(employeService, "nbTentativesPerformance", 2);
+        ReflectionTestUtils.setField(employeService, "delaiTentativePerformance", 1L);
+        Employe c1 = new Employe("Neymar", "Jean", "C00001", LocalDate.now(), Entreprise.SALAIRE_BASE, 2, 1.0);
+        Employe c3 = new Employe("Dulac", "Jeanne", "C00003", LocalDate.now(), Entreprise.SALAIRE_BASE, 2, 1.0);
+        Mockito.when(agregatPerformance.moyenne("C")).thenReturn(3.0);
+        Mockito.when(employeRepository.modifierParLots(ArgumentMatchers.anyCollection(), ArgumentMatchers.any(), ArgumentMatchers.anyInt()))
+                .thenAnswer(invocation -> {
+                    Collection<String> matricules = invocation.getArgument(0);
+                    Employe employe = matricules.contains("C00001") ? c1 : c3;
+                    if(matricules.contains("C00002")){
+                        throw new ObjectOptimisticLockingFailureException(Employe.class, 2L);
+                    }
+                    Consumer<Employe> modification = invocation.getArgument(1);
+                    modification.accept(employe);
+                    return Arrays.asList(employe);
+                });
+
+        //When
+        RapportPerformance rapport = employeService.calculPerformanceCommerciaux(Stream.of(
+                new BilanCommercial("C00001", 1300L, 1000L),
+                new BilanCommercial("C00002", 1300L, 1000L),
+                new BilanCommercial("C00003", 1300L, 1000L)));
+
+        //Then
+        Assertions.assertEquals(2, rapport.getNbMisesAJour());
+        Assertions.assertEquals(1, rapport.getErreurs().size());
+        Assertions.assertEquals("C00002", rapport.getErreurs().get(0).getMatricule());
+        Assertions.assertEquals("La performance du matricule C00002 est modifiée simultanément, réessayez plus tard !",
+                rapport.getErreurs().get(0).getErreur());
+        //Lot 2 tenté deux fois, lot 3 traité malgré l'échec
+        Mockito.verify(employeRepository, times(4)).modifierParLots(ArgumentMatchers.anyCollection(), ArgumentMatchers.any(), ArgumentMatchers.anyInt());
+        Mockito.verify(agregatPerformance).modifier("C00003", 2, c3.getPerformance());
+        Mockito.verify(instantaneEffectif).enregistrer(c3);
+    }
+
+    @Test
+    void augmenterSalairesInvalideLesStatistiques() throws EmployeException {
+        //Given
+        FiltreEmploye commerciaux = FiltreEmploye.tous().prefixe('C');
+        Mockito.when(employeRepository.augmenterSalaires(commerciaux, 10.0)).thenReturn(new RapportAugmentation(10.0, 3, 456.0));
+
+        //When
+        RapportAugmentation rapport = employeService.augmenterSalaires(commerciaux, 10.0);
+
+        //Then
+        Assertions.assertEquals(3, rapport.getNbEmployes());
+        Assertions.assertEquals(456.0, rapport.getAugmentationMasseSalariale());
+        Mockito.verify(instantaneEffectif).augmenterSalaires(commerciaux, 1.1);
+        Mockito.verify(statistiquesEffectifService).invaliderStatistiques();
+    }
+
+    @Test
+    void augmenterSalairePourcentageNegatif() {
+        //Given
+
+        //When
+        EmployeException exception = Assertions.assertThrows(EmployeException.class, () -> employeService.augmenterSalaire("T00001", -1.0));
+
+        //Then
+        Assertions.assertEquals(EmployeService.MOTIF_POURCENTAGE_INVALIDE, exception.getMotif());
+        Mockito.verify(employeRepository, Mockito.never()).augmenterSalaire(ArgumentMatchers.anyString(), ArgumentMatchers.anyDouble());
+    }
+
+    @Test
+    void augmenterSalaireMatriculeInconnu() {
+        //Given
+        Mockito.when(employeRepository.augmenterSalaire("T99999", 5.0)).thenReturn(new RapportAugmentation(5.0, 0, 0.0));
+
+        //When
+        EmployeException exception = Assertions.assertThrows(EmployeException.class, () -> employeService.augmenterSalaire("T99999", 5.0));
+
+        //Then
+        Assertions.assertEquals(EmployeService.MOTIF_MATRICULE_INCONNU, exception.getMotif());
+        Mockito.verify(statistiquesEffectifService, Mockito.never()).invaliderStatistiques();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,69 @@
+package com.ipiecoles.java.java350.service;
+
+import com.ipiecoles.java.java350.model.Employe;
+import com.ipiecoles.java.java350.model.Entreprise;
+import com.ipiecoles.java.java350.repository.EmployeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.LocalDate;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+public class ExportServiceIntegrationTest {
+
+    @Autowired
+    ExportService exportService;
+
+    @Autowired
+    private EmployeRepository employeRepository;
+
+    @BeforeEach
+    @AfterEach
+    public void setup(){
+        employeRepository.deleteAll();
+    }
+
+    @Test
+    public void testIntegrationExporterCsv() throws IOException {
+        //Given
+        Employe employe = employeRepository.save(new Employe("Neymar", "Jean", "M01234", LocalDate.now().minusYears(2), Entreprise.SALAIRE_BASE, 1, 1.0));
+        employeRepository.save(new Employe("Bruel", "Patrick;\"Le chanteur\"", "T01235", LocalDate.now(), Entreprise.SALAIRE_BASE, 2, 0.5));
+        StringWriter writer = new StringWriter();
+
+        //When
+        long nbEmployes = exportService.exporterCsv(writer);
+
+        //Then
+        String[] lignes = writer.toString().split("\n");
+        Assertions.assertEquals(2, nbEmployes);
+        Assertions.assertEquals(3, lignes.length);
+        Assertions.assertEquals("matricule;nom;prenom;dateEmbauche;salaire;performance;tempsPartiel;nbConges;nbRtt;primeAnnuelle", lignes[0]);
+        Assertions.assertEquals("M01234;Neymar;Jean;" + employe.getDateEmbauche() + ";1521.22;1;1.0;27;" + employe.getNbRtt() + ";" + employe.getPrimeAnnuelle(), lignes[1]);
+        Assertions.assertTrue(lignes[2].startsWith("T01235;Bruel;\"Patrick;\"\"Le chanteur\"\"\";"));
+    }
+
+    @Test
+    public void testIntegrationExporterJsonLignes() throws IOException {
+        //Given
+        Employe employe = employeRepository.save(new Employe("Neymar", "Jean \"Junior\"", "M01234", LocalDate.now(), Entreprise.SALAIRE_BASE, 1, 1.0));
+        StringWriter writer = new StringWriter();
+
+        //When
+        long nbEmployes = exportService.exporterJsonLignes(writer);
+
+        //Then
+        Assertions.assertEquals(1, nbEmployes);
+        Assertions.assertEquals("{\"matricule\":\"M01234\",\"nom\":\"Neymar\",\"prenom\":\"Jean \\\"Junior\\\"\",\"dateEmbauche\":\""
+                + employe.getDateEmbauche() + "\",\"salaire\":1521.22,\"performance\":1,\"tempsPartiel\":1.0,\"nbConges\":25,\"nbRtt\":"
+                + employe.getNbRtt() + ",\"primeAnnuelle\":" + employe.getPrimeAnnuelle() + "}\n", writer.toString());
+    }
+}
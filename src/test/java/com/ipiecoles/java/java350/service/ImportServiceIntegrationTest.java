@@ -0,0 +1,180 @@
+package com.ipiecoles.java.java350.service;
+
+import com.ipiecoles.java.java350.model.Employe;
+import com.ipiecoles.java.java350.model.Entreprise;
+import com.ipiecoles.java.java350.model.RapportImport;
+import com.ipiecoles.java.java350.repository.EmployeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = {"java350.import.taille-lot = 2", "java350.import.taille-tampon = 64"})
+class ImportServiceIntegrationTest {
+
+    @Autowired
+    ImportService importService;
+
+    @Autowired
+    EmployeRepository employeRepository;
+
+    @TempDir
+    Path repertoire;
+
+    @BeforeEach
+    @AfterEach
+    void setup() {
+        employeRepository.deleteAll();
+    }
+
+    @Test
+    void importerCsv() throws IOException {
+        //Given
+        char[] ligneTropLongue = new char[100];
+        Arrays.fill(ligneTropLongue, 'X');
+        Path fichier = repertoire.resolve("employes.csv");
+        Path rejets = repertoire.resolve("rejets.csv");
+        Files.write(fichier, Arrays.asList(
+                "nom;prenom;poste;niveauEtude;tempsPartiel",
+                "Neymar;Jean;TECHNICIEN;BAC;1.0",
+                "Bruel;\"Patrick;\"\"Le chanteur\"\"\";commercial;master;0,5",
+                "Dulac;Jeanne;PILOTE;BAC;1",
+                "Doe;John;MANAGER;CAP;1.5",
+                new String(ligneTropLongue),
+                "Martin;Élodie;MANAGER;DOCTORAT;",
+                "Court;MANAGER"), StandardCharsets.UTF_8);
+
+        //When
+        RapportImport rapport = importService.importerCsv(fichier, rejets);
+
+        //Then
+        Assertions.assertEquals(7, rapport.getNbLignes());
+        Assertions.assertEquals(3, rapport.getNbEmbauches());
+        Assertions.assertEquals(4, rapport.getNbRejets());
+        List<Employe> employes = employeRepository.findAll();
+        Assertions.assertEquals(3, employes.size());
+        Employe bruel = employes.stream().filter(e -> e.getNom().equals("Bruel")).findFirst().get();
+        Assertions.assertEquals("Patrick;\"Le chanteur\"", bruel.getPrenom());
+        Assertions.assertTrue(bruel.getMatricule().startsWith("C"));
+        Assertions.assertEquals(0.5, bruel.getTempsPartiel());
+        Assertions.assertEquals(1.4 * Entreprise.SALAIRE_BASE * 0.5, bruel.getSalaire(), 0.0001);
+        Employe martin = employes.stream().filter(e -> e.getNom().equals("Martin")).findFirst().get();
+        Assertions.assertEquals("Élodie", martin.getPrenom());
+        Assertions.assertEquals(1.0, martin.getTempsPartiel());
+
+        List<String> lignesRejets = Files.readAllLines(rejets, StandardCharsets.UTF_8);
+        Assertions.assertEquals(Arrays.asList(ImportService.ENTETE_REJETS,
+                "3;Poste inconnu;Dulac;Jeanne;PILOTE;BAC;1",
+                "4;Le taux d'activité doit être compris entre 0 exclu et 1;Doe;John;MANAGER;CAP;1.5",
+                "5;Ligne de plus de 64 octets;" + new String(ligneTropLongue, 0, 64),
+                "7;5 champs attendus;Court;MANAGER"), lignesRejets);
+    }
+
+    @Test
+    void importerCsvAvecBom() throws IOException {
+        //Given
+        Path fichier = repertoire.resolve("employes.csv");
+        Path rejets = repertoire.resolve("rejets.csv");
+        Files.write(fichier, ("\uFEFF" + ImportService.ENTETE_CSV + "\nNeymar;Jean;TECHNICIEN;BAC;1.0\n").getBytes(StandardCharsets.UTF_8));
+
+        //When
+        RapportImport rapport = importService.importerCsv(fichier, rejets);
+
+        //Then
+        Assertions.assertEquals(1, rapport.getNbLignes());
+        Assertions.assertEquals(1, rapport.getNbEmbauches());
+        Assertions.assertEquals(0, rapport.getNbRejets());
+    }
+
+    @Test
+    void importerCsvChampsEntreGuillemets() throws IOException {
+        //Given
+        Path fichier = repertoire.resolve("employes.csv");
+        Path rejets = repertoire.resolve("rejets.csv");
+        Files.write(fichier, Arrays.asList(
+                "\"Neymar\";\"Jean\";\"COMMERCIAL\";\"MASTER\";\"0,5\"",
+                "Dulac;Jeanne;\"technicien\";\"BAC\";\"\""), StandardCharsets.UTF_8);
+
+        //When
+        RapportImport rapport = importService.importerCsv(fichier, rejets);
+
+        //Then
+        Assertions.assertEquals(2, rapport.getNbEmbauches());
+        Assertions.assertEquals(0, rapport.getNbRejets());
+        Employe neymar = employeRepository.findAll().stream().filter(e -> e.getNom().equals("Neymar")).findFirst().get();
+        Assertions.assertTrue(neymar.getMatricule().startsWith("C"));
+        Assertions.assertEquals(0.5, neymar.getTempsPartiel());
+    }
+
+    @Test
+    void importerCsvFichierInexistant() throws InterruptedException {
+        //Given
+        Path fichier = repertoire.resolve("absent.csv");
+
+        //When
+        Assertions.assertThrows(NoSuchFileException.class, () -> importService.importerCsv(fichier, repertoire.resolve("rejets.csv")));
+
+        //Then
+        Assertions.assertEquals(0, employeRepository.count());
+        Assertions.assertTrue(lectureArretee());
+    }
+
+    @Test
+    void importerCsvEchecEmbauche() throws IOException, InterruptedException {
+        //Given
+        List<String> lignes = new ArrayList<>();
+        for(int i = 0; i < 100; i++){
+            lignes.add("Doe;John" + i + ";TECHNICIEN;BAC;1.0");
+        }
+        Path fichier = repertoire.resolve("employes.csv");
+        Files.write(fichier, lignes, StandardCharsets.UTF_8);
+        EmployeService employeService = (EmployeService) ReflectionTestUtils.getField(importService, "employeService");
+        EmployeService employeServiceEnEchec = Mockito.mock(EmployeService.class);
+        //Le temps que la lecture remplisse la file et attende une place
+        Mockito.when(employeServiceEnEchec.embaucheEmployes(Mockito.anyList())).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            throw new IllegalStateException("BDD indisponible");
+        });
+        ReflectionTestUtils.setField(importService, "employeService", employeServiceEnEchec);
+
+        try {
+            //When
+            Assertions.assertThrows(IllegalStateException.class, () -> importService.importerCsv(fichier, repertoire.resolve("rejets.csv")));
+        } finally {
+            ReflectionTestUtils.setField(importService, "employeService", employeService);
+        }
+
+        //Then
+        Assertions.assertTrue(lectureArretee());
+    }
+
+    /**
+     * Le thread de lecture s'arrête peu après la fin de l'import
+     */
+    private static boolean lectureArretee() throws InterruptedException {
+        for(int i = 0; i < 50; i++){
+            if(Thread.getAllStackTraces().keySet().stream().map(Thread::getName).noneMatch("import-csv"::equals)){
+                return true;
+            }
+            Thread.sleep(20);
+        }
+        return false;
+    }
+}
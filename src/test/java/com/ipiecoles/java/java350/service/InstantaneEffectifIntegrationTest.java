@@ -0,0 +1,71 @@
+package com.ipiecoles.java.java350.service;
+
+import com.ipiecoles.java.java350.exception.EmployeException;
+import com.ipiecoles.java.java350.model.Employe;
+import com.ipiecoles.java.java350.model.FiltreEmploye;
+import com.ipiecoles.java.java350.model.NiveauEtude;
+import com.ipiecoles.java.java350.model.Poste;
+import com.ipiecoles.java.java350.repository.EmployeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDate;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = "java350.instantane.actif=true")
+public class InstantaneEffectifIntegrationTest {
+
+    @Autowired
+    InstantaneEffectif instantaneEffectif;
+
+    @Autowired
+    EmployeService employeService;
+
+    @Autowired
+    private EmployeRepository employeRepository;
+
+    @BeforeEach
+    @AfterEach
+    public void setup(){
+        employeRepository.deleteAll();
+        instantaneEffectif.recharger();
+    }
+
+    @Test
+    public void testIntegrationInstantaneSynchroniseAvecEmployeService() throws EmployeException {
+        //Given
+        employeRepository.save(new Employe("Doe", "John", "C00001", LocalDate.of(2010, 1, 1), 2000d, 6, 0.5));
+        instantaneEffectif.recharger();
+
+        //When
+        String matricule = employeService.embaucheEmploye("Doe", "Jane", Poste.COMMERCIAL, NiveauEtude.MASTER, 1.0);
+        employeService.calculPerformanceCommercial("C00001", 1300L, 1000L);
+
+        //Then
+        Assertions.assertEquals(2, instantaneEffectif.getTaille());
+        Assertions.assertEquals(employeRepository.findByMatricule("C00001").getPerformance(), instantaneEffectif.performance("C00001"));
+        Assertions.assertEquals(1L, instantaneEffectif.compter(FiltreEmploye.tous().prefixe('C').tempsPartiel()));
+        Assertions.assertEquals(matricule, instantaneEffectif.matricules(FiltreEmploye.tous().embaucheDepuis(LocalDate.now())).get(0));
+    }
+
+    @Test
+    public void testIntegrationRechargementIgnoreLesEmployesSansMatricule() {
+        //Given
+        employeRepository.save(new Employe("Doe", "John", "C00001", LocalDate.of(2010, 1, 1), 2000d, 6, 0.5));
+        employeRepository.save(new Employe("Doe", "Jane", null, LocalDate.of(2010, 1, 1), 2000d, 1, 1.0));
+
+        //When
+        instantaneEffectif.recharger();
+
+        //Then
+        Assertions.assertEquals(1, instantaneEffectif.getTaille());
+        Assertions.assertEquals(6, instantaneEffectif.performance("C00001"));
+        Assertions.assertTrue(instantaneEffectif.octetsParEmploye() > 0);
+    }
+}
@@ -0,0 +1,158 @@
+package com.ipiecoles.java.java350.service;
+
+import com.ipiecoles.java.java350.model.Employe;
+import com.ipiecoles.java.java350.model.Entreprise;
+import com.ipiecoles.java.java350.model.FiltreEmploye;
+import com.ipiecoles.java.java350.model.NiveauEtude;
+import com.ipiecoles.java.java350.model.StatistiquesGroupe;
+import com.ipiecoles.java.java350.repository.EmployeRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+@ExtendWith(MockitoExtension.class)
+class InstantaneEffectifTest {
+
+    @InjectMocks
+    InstantaneEffectif instantaneEffectif;
+
+    @Mock
+    EmployeRepository employeRepository;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(instantaneEffectif, "actif", true);
+    }
+
+    @Test
+    void rechargerPuisFiltrer() {
+        //Given
+        Mockito.when(employeRepository.streamDonneesInstantane()).thenReturn(Stream.of(
+                new Object[]{"C00001", 6, 2000d, 1.0, LocalDate.of(2010, 1, 1)},
+                new Object[]{"C00002", 2, 1500d, 0.5, LocalDate.of(2012, 1, 1)},
+                new Object[]{"C00003", null, 1500d, 1.0, LocalDate.of(2018, 1, 1)},
+                new Object[]{"T00004", 8, 1800d, 0.8, LocalDate.of(2016, 1, 1)},
+                new Object[]{"M00005", 1, 3000d, 0.5, null}));
+
+        //When
+        instantaneEffectif.recharger();
+
+        //Then
+        Assertions.assertEquals(5, instantaneEffectif.getTaille());
+        Assertions.assertEquals(Arrays.asList("C00001"), instantaneEffectif.matricules(FiltreEmploye.tous().prefixe('C').performanceMin(5)));
+        Assertions.assertEquals(Arrays.asList("C00002"),
+                instantaneEffectif.matricules(FiltreEmploye.tous().tempsPartiel().embaucheAvant(LocalDate.of(2016, 1, 1))));
+        Assertions.assertEquals(2L, instantaneEffectif.compter(FiltreEmploye.tous().embaucheDepuis(LocalDate.of(2016, 1, 1))));
+        Assertions.assertEquals(5L, instantaneEffectif.compter(FiltreEmploye.tous()));
+        Assertions.assertNull(instantaneEffectif.performance("C00003"));
+        Assertions.assertEquals(8, instantaneEffectif.performance("T00004").intValue());
+    }
+
+    @Test
+    void agreger() {
+        //Given
+        Mockito.when(employeRepository.streamDonneesInstantane()).thenReturn(Stream.of(
+                new Object[]{"C00001", 6, 2000d, 1.0, LocalDate.of(2010, 1, 1)},
+                new Object[]{"C00002", 2, 1000d, 0.5, LocalDate.of(2012, 1, 1)},
+                new Object[]{"C00003", null, null, 1.0, LocalDate.of(2018, 1, 1)},
+                new Object[]{"T00004", 8, 1800d, 0.8, LocalDate.of(2016, 1, 1)}));
+        instantaneEffectif.recharger();
+
+        //When
+        StatistiquesGroupe commerciaux = instantaneEffectif.agreger(FiltreEmploye.tous().prefixe('C'));
+
+        //Then
+        Assertions.assertEquals(3L, commerciaux.getNbEmployes());
+        Assertions.assertEquals(3000d, commerciaux.getMasseSalariale());
+        Assertions.assertEquals(1500d, commerciaux.getSalaireMoyen());
+        Assertions.assertEquals(4d, commerciaux.getPerformanceMoyenne());
+    }
+
+    @Test
+    void enregistrerAjouteOuModifie() {
+        //Given
+        Mockito.when(employeRepository.streamDonneesInstantane()).thenReturn(Stream.empty());
+        instantaneEffectif.recharger();
+        Employe employe = new Employe("Doe", "John", "C00001", LocalDate.of(2010, 1, 1), 2000d, 1, 1.0);
+
+        //When
+        instantaneEffectif.enregistrer(employe);
+        for(int i = 2; i <= 3000; i++){
+            instantaneEffectif.enregistrer(new Employe("Doe", "John", String.format("T%05d", i), LocalDate.of(2010, 1, 1), 2000d, 1, 1.0));
+        }
+        employe.setPerformance(9);
+        instantaneEffectif.enregistrer(employe);
+        instantaneEffectif.modifierPerformance("T02999", 4);
+
+        //Then
+        Assertions.assertEquals(3000, instantaneEffectif.getTaille());
+        Assertions.assertEquals(9, instantaneEffectif.performance("C00001").intValue());
+        Assertions.assertEquals(4, instantaneEffectif.performance("T02999").intValue());
+        Assertions.assertEquals(1, instantaneEffectif.performance("T01500").intValue());
+        Assertions.assertNull(instantaneEffectif.performance("T03001"));
+    }
+
+    @Test
+    void octetsParEmploye() {
+        //Given
+        List<Object[]> lignes = new ArrayList<>();
+        for(int i = 0; i < 1000; i++){
+            lignes.add(new Object[]{String.format("C%05d", i), 1, 2000d, 1.0, LocalDate.of(2010, 1, 1)});
+        }
+        Mockito.when(employeRepository.streamDonneesInstantane()).thenReturn(lignes.stream());
+        instantaneEffectif.recharger();
+
+        //When
+        double octets = instantaneEffectif.octetsParEmploye();
+
+        //Then
+        //37 octets par ligne de colonnes et d'index (capacité 1024), 48 octets par matricule
+        Assertions.assertEquals((37 * 1024 + 48 * 1000) / 1000d, octets, 0.001);
+    }
+
+    @Test
+    void inactifNeChargeRien() {
+        //Given
+        ReflectionTestUtils.setField(instantaneEffectif, "actif", false);
+
+        //When
+        instantaneEffectif.recharger();
+        instantaneEffectif.enregistrer(new Employe("Doe", "John", "C00001", LocalDate.of(2010, 1, 1), 2000d, 1, 1.0));
+
+        //Then
+        Assertions.assertEquals(0, instantaneEffectif.getTaille());
+        Mockito.verifyNoInteractions(employeRepository);
+    }
+
+    @Test
+    void augmenterSalairesDuSegment() {
+        //Given
+        Employe bacTempsPartiel = new Employe("Neymar", "Jean", "T00001", LocalDate.now(), 1.1 * Entreprise.SALAIRE_BASE * 0.5, 1, 0.5);
+        instantaneEffectif.enregistrer(bacTempsPartiel);
+        instantaneEffectif.enregistrer(new Employe("Bruel", "Patrick", "T00002", LocalDate.now(), 1.2 * Entreprise.SALAIRE_BASE, 1, 1.0));
+        instantaneEffectif.enregistrer(new Employe("Dulac", "Jeanne", "T00003", LocalDate.now(), null, 1, 1.0));
+        FiltreEmploye bac = FiltreEmploye.tous().niveauEtude(NiveauEtude.BAC);
+
+        //When
+        instantaneEffectif.augmenterSalaires(bac, Employe.facteurAugmentation(20.0));
+
+        //Then
+        bacTempsPartiel.augmenterSalaire(20.0);
+        Assertions.assertEquals(bacTempsPartiel.getSalaire(), instantaneEffectif.agreger(FiltreEmploye.tous().tempsPartiel()).getMasseSalariale());
+        //Le salaire augmenté de 20 % passe dans la tranche des BTS/IUT et licences (1.2)
+        Assertions.assertEquals(0L, instantaneEffectif.compter(bac));
+        Assertions.assertEquals(Arrays.asList("T00001", "T00002"), instantaneEffectif.matricules(FiltreEmploye.tous().niveauEtude(NiveauEtude.LICENCE)));
+    }
+}
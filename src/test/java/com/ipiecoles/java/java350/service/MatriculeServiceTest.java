@@ -0,0 +1,151 @@
+package com.ipiecoles.java.java350.service;
+
+import com.ipiecoles.java.java350.repository.EmployeRepository;
+import com.ipiecoles.java.java350.repository.SequenceMatriculeRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+class MatriculeServiceTest {
+
+    @InjectMocks
+    MatriculeService matriculeService;
+
+    @Mock
+    SequenceMatriculeRepository sequenceMatriculeRepository;
+
+    @Mock
+    EmployeRepository employeRepository;
+
+    @Test
+    void prochainNumeroDistribueLeBlocSansAccesBdd() {
+        //Given
+        Mockito.when(sequenceMatriculeRepository.reserver(ArgumentMatchers.eq("matricule_T"), ArgumentMatchers.eq(50), ArgumentMatchers.any())).thenReturn(12345);
+
+        //When
+        int premier = matriculeService.prochainNumero("T");
+        int second = matriculeService.prochainNumero("T");
+
+        //Then
+        Assertions.assertEquals(12345, premier);
+        Assertions.assertEquals(12346, second);
+        Mockito.verify(sequenceMatriculeRepository, times(1)).reserver(ArgumentMatchers.anyString(), ArgumentMatchers.anyInt(), ArgumentMatchers.any());
+    }
+
+    @Test
+    void prochainNumeroReserveUnNouveauBlocQuandLeBlocEstEpuise() {
+        //Given
+        Mockito.when(sequenceMatriculeRepository.reserver(ArgumentMatchers.anyString(), ArgumentMatchers.anyInt(), ArgumentMatchers.any())).thenReturn(1, 51);
+
+        //When
+        int dernier = 0;
+        for(int i = 0; i < 51; i++){
+            dernier = matriculeService.prochainNumero("T");
+        }
+
+        //Then
+        Assertions.assertEquals(51, dernier);
+        Mockito.verify(sequenceMatriculeRepository, times(2)).reserver(ArgumentMatchers.anyString(), ArgumentMatchers.anyInt(), ArgumentMatchers.any());
+    }
+
+    @Test
+    void prochainNumeroInitialiseLaSequenceAvecLeDernierMatricule() {
+        //Given
+        Mockito.when(employeRepository.findLastNumeroMatricule("T")).thenReturn(12344);
+        Mockito.when(sequenceMatriculeRepository.reserver(ArgumentMatchers.anyString(), ArgumentMatchers.anyInt(), ArgumentMatchers.any()))
+                .thenAnswer(invocation -> invocation.getArgument(2, IntSupplier.class).getAsInt());
+
+        //When
+        int numero = matriculeService.prochainNumero("T");
+
+        //Then
+        Assertions.assertEquals(12345, numero);
+    }
+
+    @Test
+    void prochainNumeroInitialiseLaSequenceSansMatricule() {
+        //Given
+        Mockito.when(employeRepository.findLastNumeroMatricule("T")).thenReturn(null);
+        Mockito.when(sequenceMatriculeRepository.reserver(ArgumentMatchers.anyString(), ArgumentMatchers.anyInt(), ArgumentMatchers.any()))
+                .thenAnswer(invocation -> invocation.getArgument(2, IntSupplier.class).getAsInt());
+
+        //When
+        int numero = matriculeService.prochainNumero("T");
+
+        //Then
+        Assertions.assertEquals(1, numero);
+    }
+
+    @Test
+    void prochainNumeroUneSequenceParType() {
+        //Given
+        Mockito.when(sequenceMatriculeRepository.reserver(ArgumentMatchers.eq("matricule_T"), ArgumentMatchers.anyInt(), ArgumentMatchers.any())).thenReturn(100);
+        Mockito.when(sequenceMatriculeRepository.reserver(ArgumentMatchers.eq("matricule_C"), ArgumentMatchers.anyInt(), ArgumentMatchers.any())).thenReturn(1);
+
+        //When
+        int technicien = matriculeService.prochainNumero("T");
+        int commercial = matriculeService.prochainNumero("C");
+        int secondTechnicien = matriculeService.prochainNumero("T");
+
+        //Then
+        Assertions.assertEquals(100, technicien);
+        Assertions.assertEquals(1, commercial);
+        Assertions.assertEquals(101, secondTechnicien);
+        Mockito.verify(sequenceMatriculeRepository, times(2)).reserver(ArgumentMatchers.anyString(), ArgumentMatchers.anyInt(), ArgumentMatchers.any());
+    }
+
+    @Test
+    void prochainNumeroConcurrentSansDoublon() throws Exception {
+        //Given
+        AtomicInteger sequence = new AtomicInteger(1);
+        Mockito.when(sequenceMatriculeRepository.reserver(ArgumentMatchers.anyString(), ArgumentMatchers.anyInt(), ArgumentMatchers.any()))
+                .thenAnswer(invocation -> sequence.getAndAdd(invocation.getArgument(1)));
+        int nbThreads = 8;
+        int nbParThread = 5000;
+        ExecutorService executor = Executors.newFixedThreadPool(nbThreads);
+
+        //When
+        List<Future<int[]>> resultats = new ArrayList<>();
+        for(int t = 0; t < nbThreads; t++){
+            Callable<int[]> tache = () -> {
+                int[] numeros = new int[nbParThread];
+                for(int i = 0; i < nbParThread; i++){
+                    numeros[i] = matriculeService.prochainNumero("T");
+                }
+                return numeros;
+            };
+            resultats.add(executor.submit(tache));
+        }
+        BitSet attribues = new BitSet();
+        int nbAttribues = 0;
+        for(Future<int[]> resultat : resultats){
+            for(int numero : resultat.get()){
+                Assertions.assertFalse(attribues.get(numero), "Numéro attribué deux fois : " + numero);
+                attribues.set(numero);
+                nbAttribues++;
+            }
+        }
+        executor.shutdown();
+
+        //Then
+        Assertions.assertEquals(nbThreads * nbParThread, nbAttribues);
+    }
+}
@@ -0,0 +1,79 @@
+package com.ipiecoles.java.java350.service;
+
+import com.ipiecoles.java.java350.model.CohorteEmploye;
+import com.ipiecoles.java.java350.model.Employe;
+import com.ipiecoles.java.java350.model.Entreprise;
+import com.ipiecoles.java.java350.model.ProjectionAnnuelle;
+import com.ipiecoles.java.java350.repository.EmployeRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+class ProjectionServiceTest {
+
+    @InjectMocks
+    ProjectionService projectionService;
+
+    @Mock
+    EmployeRepository employeRepository;
+
+    @Test
+    void projeterCohortesCommeChaqueEmploye() {
+        //Given
+        List<Employe> employes = Arrays.asList(
+                new Employe("Neymar", "Jean", "M00001", LocalDate.of(2010, 3, 1), Entreprise.SALAIRE_BASE, 1, 1.0),
+                new Employe("Bruel", "Patrick", "T00002", LocalDate.of(2015, 6, 1), Entreprise.SALAIRE_BASE, 3, 0.5),
+                new Employe("Dulac", "Jeanne", "T00003", LocalDate.of(2015, 9, 1), Entreprise.SALAIRE_BASE, 3, 0.5),
+                new Employe("Doe", "John", "C00004", LocalDate.of(2018, 1, 1), Entreprise.SALAIRE_BASE, null, 0.8),
+                new Employe("Doe", "Jane", "C00005", null, Entreprise.SALAIRE_BASE, 1, 1.0));
+        List<CohorteEmploye> cohortes = CohorteEmploye.regrouper(employes);
+
+        //When
+        List<ProjectionAnnuelle> projections = ProjectionService.projeter(cohortes, 2020, 10);
+
+        //Then
+        Assertions.assertEquals(4, cohortes.size());
+        Assertions.assertEquals(10, projections.size());
+        for(ProjectionAnnuelle projection : projections){
+            LocalDate dateReference = LocalDate.of(projection.getAnnee(), 1, 1);
+            Assertions.assertEquals(5, projection.getNbEmployes());
+            Assertions.assertEquals(employes.stream().mapToDouble(e -> e.getPrimeAnnuelle(dateReference)).sum(), projection.getTotalPrimes(), 0.001);
+            Assertions.assertEquals(employes.stream().mapToLong(e -> e.getNbConges(dateReference)).sum(), projection.getTotalConges());
+            Assertions.assertEquals(employes.stream().mapToLong(e -> e.getNbRtt(dateReference)).sum(), projection.getTotalRtt());
+        }
+        Assertions.assertEquals(2029, projections.get(9).getAnnee());
+    }
+
+    @Test
+    void projeterAPartirDeLAnneeDeLHorloge() {
+        //Given
+        ReflectionTestUtils.setField(projectionService, "clock", Clock.fixed(LocalDate.of(2030, 6, 1).atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+        Mockito.when(employeRepository.findCohortes()).thenReturn(Collections.singletonList(new CohorteEmploye("T", 1, 2020, null, 3L)));
+
+        //When
+        List<ProjectionAnnuelle> projections = projectionService.projeter(2);
+
+        //Then
+        Assertions.assertEquals(2030, projections.get(0).getAnnee());
+        Assertions.assertEquals(3, projections.get(0).getNbEmployes());
+        //10 ans d'ancienneté, puis 11
+        Assertions.assertEquals(3L * (Entreprise.NB_CONGES_BASE + 10), projections.get(0).getTotalConges());
+        Assertions.assertEquals(3L * (Entreprise.NB_CONGES_BASE + 11), projections.get(1).getTotalConges());
+        //Sans taux d'activité, ni prime ni RTT
+        Assertions.assertEquals(0d, projections.get(1).getTotalPrimes());
+        Assertions.assertEquals(0L, projections.get(1).getTotalRtt());
+    }
+}
@@ -0,0 +1,183 @@
+package com.ipiecoles.java.java350.service;
+
+import com.ipiecoles.java.java350.exception.EmployeException;
+import com.ipiecoles.java.java350.model.BilanCommercial;
+import com.ipiecoles.java.java350.model.RapportPerformance;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+class RevuePerformanceServiceTest {
+
+    @InjectMocks
+    RevuePerformanceService revuePerformanceService;
+
+    @Mock
+    EmployeService employeService;
+
+    @BeforeEach
+    void setUp() {
+        revuePerformanceService.demarrer();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        revuePerformanceService.arreter();
+    }
+
+    @Test
+    void reviserCommerciauxTraiteChaqueBilan() throws Exception {
+        //Given
+        Stream<BilanCommercial> bilans = IntStream.range(0, 100).mapToObj(i -> new BilanCommercial(String.format("C%05d", i), 1000L, 1000L));
+
+        //When
+        RapportPerformance rapport = revuePerformanceService.reviserCommerciaux(bilans);
+
+        //Then
+        Assertions.assertEquals(100, rapport.getNbMisesAJour());
+        Assertions.assertTrue(rapport.getErreurs().isEmpty());
+        Mockito.verify(employeService, times(100)).calculPerformanceCommercial(Mockito.anyString(), Mockito.eq(1000L), Mockito.eq(1000L));
+    }
+
+    @Test
+    void reviserCommerciauxCollecteLesErreurs() throws Exception {
+        //Given
+        Mockito.lenient().doThrow(new EmployeException("Le matricule C00002 n'existe pas !"))
+                .when(employeService).calculPerformanceCommercial("C00002", 1000L, 1000L);
+
+        //When
+        RapportPerformance rapport = revuePerformanceService.reviserCommerciaux(Stream.of(
+                new BilanCommercial("C00001", 1000L, 1000L),
+                new BilanCommercial("C00002", 1000L, 1000L),
+                new BilanCommercial("C00001", 2000L, 1000L)));
+
+        //Then
+        Assertions.assertEquals(1, rapport.getNbMisesAJour());
+        Assertions.assertEquals(2, rapport.getErreurs().size());
+        Assertions.assertTrue(rapport.getErreurs().stream().anyMatch(erreur -> "C00002".equals(erreur.getMatricule())
+                && "Le matricule C00002 n'existe pas !".equals(erreur.getErreur())));
+        Assertions.assertTrue(rapport.getErreurs().stream().anyMatch(erreur -> "C00001".equals(erreur.getMatricule())
+                && "Le matricule C00001 a plusieurs bilans !".equals(erreur.getErreur())));
+    }
+
+    @Test
+    void reviserCommerciauxBorneLesRevuesSimultanees() throws Exception {
+        //Given
+        AtomicInteger enCours = new AtomicInteger();
+        AtomicInteger maximum = new AtomicInteger();
+        Mockito.doAnswer(invocation -> {
+            maximum.accumulateAndGet(enCours.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            enCours.decrementAndGet();
+            return null;
+        }).when(employeService).calculPerformanceCommercial(Mockito.anyString(), Mockito.anyLong(), Mockito.anyLong());
+
+        //When
+        revuePerformanceService.reviserCommerciaux(IntStream.range(0, 40).mapToObj(i -> new BilanCommercial(String.format("C%05d", i), 1000L, 1000L)));
+
+        //Then
+        Assertions.assertEquals(4, revuePerformanceService.getNbRevuesSimultanees());
+        Assertions.assertTrue(maximum.get() <= 4);
+        Assertions.assertEquals(0, enCours.get());
+    }
+
+    @Test
+    void reviserCommerciauxBorneLesRevuesDeTousLesAppels() throws Exception {
+        //Given
+        AtomicInteger enCours = new AtomicInteger();
+        AtomicInteger maximum = new AtomicInteger();
+        Mockito.doAnswer(invocation -> {
+            maximum.accumulateAndGet(enCours.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            enCours.decrementAndGet();
+            return null;
+        }).when(employeService).calculPerformanceCommercial(Mockito.anyString(), Mockito.anyLong(), Mockito.anyLong());
+        //Threads non bornés, comme les threads virtuels : seules les places limitent les revues simultanées
+        revuePerformanceService.arreter();
+        ReflectionTestUtils.setField(revuePerformanceService, "executor", Executors.newCachedThreadPool());
+        ExecutorService appelants = Executors.newFixedThreadPool(3);
+
+        //When
+        List<Future<RapportPerformance>> rapports = new ArrayList<>();
+        for(int appel = 0; appel < 3; appel++){
+            int premier = appel * 40;
+            rapports.add(appelants.submit(() -> revuePerformanceService.reviserCommerciaux(
+                    IntStream.range(premier, premier + 40).mapToObj(i -> new BilanCommercial(String.format("C%05d", i), 1000L, 1000L)))));
+        }
+        long nbMisesAJour = 0;
+        for(Future<RapportPerformance> rapport : rapports){
+            nbMisesAJour += rapport.get().getNbMisesAJour();
+        }
+        appelants.shutdown();
+
+        //Then
+        Assertions.assertEquals(120, nbMisesAJour);
+        Assertions.assertTrue(maximum.get() <= 4, "maximum " + maximum.get());
+        Assertions.assertEquals(0, enCours.get());
+    }
+
+    @Test
+    void reviserCommerciauxInterrompuAnnuleSesRevues() throws Exception {
+        //Given
+        CountDownLatch commencee = new CountDownLatch(1);
+        AtomicBoolean interrompue = new AtomicBoolean();
+        Mockito.doAnswer(invocation -> {
+            commencee.countDown();
+            try {
+                Thread.sleep(60_000);
+            } catch (InterruptedException e) {
+                interrompue.set(true);
+            }
+            return null;
+        }).when(employeService).calculPerformanceCommercial(Mockito.anyString(), Mockito.anyLong(), Mockito.anyLong());
+        //Un seul thread pour les 4 places : une revue en cours, trois en attente, l'appelant attend une place pour la cinquième
+        revuePerformanceService.arreter();
+        ReflectionTestUtils.setField(revuePerformanceService, "executor", Executors.newSingleThreadExecutor());
+        ExecutorService appelant = Executors.newSingleThreadExecutor();
+        Future<RapportPerformance> rapport = appelant.submit(() -> revuePerformanceService.reviserCommerciaux(
+                IntStream.range(0, 10).mapToObj(i -> new BilanCommercial(String.format("C%05d", i), 1000L, 1000L))));
+        Assertions.assertTrue(commencee.await(10, TimeUnit.SECONDS));
+        Semaphore places = (Semaphore) ReflectionTestUtils.getField(revuePerformanceService, "places");
+        while(places.availablePermits() > 0 || !places.hasQueuedThreads()){
+            Thread.sleep(5);
+        }
+
+        //When
+        appelant.shutdownNow();
+
+        //Then
+        ExecutionException e = Assertions.assertThrows(ExecutionException.class, () -> rapport.get(10, TimeUnit.SECONDS));
+        Assertions.assertTrue(e.getCause() instanceof InterruptedException);
+        Assertions.assertTrue(appelant.awaitTermination(10, TimeUnit.SECONDS));
+        for(int i = 0; i < 500 && places.availablePermits() < 4; i++){
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(4, places.availablePermits());
+        Assertions.assertTrue(interrompue.get());
+        Mockito.verify(employeService, times(1)).calculPerformanceCommercial(Mockito.anyString(), Mockito.anyLong(), Mockito.anyLong());
+    }
+}
@@ -0,0 +1,116 @@
+package com.ipiecoles.java.java350.service;
+
+import com.ipiecoles.java.java350.model.Employe;
+import com.ipiecoles.java.java350.model.Entreprise;
+import com.ipiecoles.java.java350.repository.EmployeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+public class StatistiquesCacheServiceIntegrationTest {
+
+    @Autowired
+    StatistiquesCacheService statistiquesCacheService;
+
+    @Autowired
+    private EmployeRepository employeRepository;
+
+    @BeforeEach
+    @AfterEach
+    public void setup(){
+        employeRepository.deleteAll();
+    }
+
+    @Test
+    public void testIntegrationFindByMatriculeEnCache(){
+        //Given
+        employeRepository.save(new Employe("Doe", "John", "T12345", LocalDate.now(), Entreprise.SALAIRE_BASE, 1, 1.0));
+        Map<String, Long> avant = statistiquesCacheService.statistiques(EmployeRepository.CACHE_EMPLOYES);
+
+        //When
+        Employe premier = employeRepository.findByMatricule("T12345");
+        Employe second = employeRepository.findByMatricule("T12345");
+
+        //Then
+        Map<String, Long> apres = statistiquesCacheService.statistiques(EmployeRepository.CACHE_EMPLOYES);
+        Assertions.assertNotSame(premier, second);
+        Assertions.assertEquals(premier, second);
+        Assertions.assertEquals(1L, apres.get(StatistiquesCacheService.DEFAUTS) - avant.get(StatistiquesCacheService.DEFAUTS));
+        Assertions.assertEquals(1L, apres.get(StatistiquesCacheService.SUCCES) - avant.get(StatistiquesCacheService.SUCCES));
+    }
+
+    @Test
+    public void testIntegrationFindByMatriculeModificationNonPartagee(){
+        //Given
+        employeRepository.save(new Employe("Doe", "John", "T12345", LocalDate.now(), Entreprise.SALAIRE_BASE, 1, 1.0));
+        Employe premier = employeRepository.findByMatricule("T12345");
+
+        //When
+        premier.setPerformance(4);
+        Employe second = employeRepository.findByMatricule("T12345");
+
+        //Then
+        Assertions.assertEquals(1, second.getPerformance().intValue());
+        Assertions.assertEquals(premier.getVersion(), second.getVersion());
+    }
+
+    @Test
+    public void testIntegrationFindByMatriculeInvalideParSave(){
+        //Given
+        employeRepository.save(new Employe("Doe", "John", "T12345", LocalDate.now(), Entreprise.SALAIRE_BASE, 1, 1.0));
+        Employe employe = employeRepository.findByMatricule("T12345");
+        employe.setPerformance(4);
+
+        //When
+        employeRepository.save(employe);
+
+        //Then
+        Assertions.assertEquals(4, employeRepository.findByMatricule("T12345").getPerformance().intValue());
+    }
+
+    @Test
+    public void testIntegrationFindByMatriculeInvalideParDelete(){
+        //Given
+        employeRepository.save(new Employe("Doe", "John", "T12345", LocalDate.now(), Entreprise.SALAIRE_BASE, 1, 1.0));
+        Employe employe = employeRepository.findByMatricule("T12345");
+
+        //When
+        employeRepository.delete(employe);
+
+        //Then
+        Assertions.assertNull(employeRepository.findByMatricule("T12345"));
+    }
+
+    @Test
+    public void testIntegrationFindByMatriculeAbsentNonMisEnCache(){
+        //Given
+        Assertions.assertNull(employeRepository.findByMatricule("T12345"));
+
+        //When
+        employeRepository.save(new Employe("Doe", "John", "T12345", LocalDate.now(), Entreprise.SALAIRE_BASE, 1, 1.0));
+
+        //Then
+        Assertions.assertNotNull(employeRepository.findByMatricule("T12345"));
+    }
+
+    @Test
+    public void testStatistiquesCacheInconnu(){
+        //Given
+
+        //When
+        Map<String, Long> statistiques = statistiquesCacheService.statistiques("inconnu");
+
+        //Then
+        Assertions.assertTrue(statistiques.isEmpty());
+    }
+}
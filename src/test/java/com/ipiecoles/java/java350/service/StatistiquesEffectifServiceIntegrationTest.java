@@ -0,0 +1,86 @@
+package com.ipiecoles.java.java350.service;
+
+import com.ipiecoles.java.java350.model.Employe;
+import com.ipiecoles.java.java350.model.StatistiquesEffectif;
+import com.ipiecoles.java.java350.repository.EmployeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDate;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+public class StatistiquesEffectifServiceIntegrationTest {
+
+    @Autowired
+    StatistiquesEffectifService statistiquesEffectifService;
+
+    @Autowired
+    private EmployeRepository employeRepository;
+
+    @BeforeEach
+    @AfterEach
+    public void setup(){
+        employeRepository.deleteAll();
+        statistiquesEffectifService.invaliderStatistiques();
+    }
+
+    @Test
+    public void testIntegrationStatistiquesInstantaneEnCache(){
+        //Given
+        employeRepository.save(new Employe("Doe", "John", "T00001", LocalDate.of(2019, 1, 1), 1500d, 2, 1.0));
+        employeRepository.save(new Employe("Doe", "Jane", "M00002", LocalDate.of(2020, 1, 1), 2500d, 1, 0.5));
+        StatistiquesEffectif premier = statistiquesEffectifService.statistiques();
+
+        //When
+        employeRepository.save(new Employe("Doe", "Jim", "T00003", LocalDate.of(2020, 1, 1), 1500d, 3, 1.0));
+        StatistiquesEffectif second = statistiquesEffectifService.statistiques();
+
+        //Then
+        Assertions.assertSame(premier, second);
+        Assertions.assertEquals(2, second.getParTypeMatricule().size());
+        Assertions.assertEquals(1L, second.getHistogrammePerformances().get("T").get(2));
+        Assertions.assertNull(second.getHistogrammePerformances().get("T").get(3));
+    }
+
+    @Test
+    public void testIntegrationStatistiquesApresInvalidation(){
+        //Given
+        employeRepository.save(new Employe("Doe", "John", "T00001", LocalDate.of(2019, 1, 1), 1500d, 2, 1.0));
+        StatistiquesEffectif premier = statistiquesEffectifService.statistiques();
+        employeRepository.save(new Employe("Doe", "Jim", "T00003", LocalDate.of(2020, 1, 1), 1500d, 3, 1.0));
+
+        //When
+        statistiquesEffectifService.invaliderStatistiques();
+        StatistiquesEffectif second = statistiquesEffectifService.statistiques();
+
+        //Then
+        Assertions.assertNotSame(premier, second);
+        Assertions.assertEquals(2L, second.getParTypeMatricule().get(0).getNbEmployes());
+        Assertions.assertEquals(3000d, second.getParTypeMatricule().get(0).getMasseSalariale());
+        Assertions.assertEquals(2, second.getParAnneeEmbauche().size());
+    }
+
+    @Test
+    public void testIntegrationStatistiquesAvecValeursNonRenseignees(){
+        //Given
+        employeRepository.save(new Employe("Doe", "John", "T00001", LocalDate.of(2019, 1, 1), 1500d, 2, 1.0));
+        employeRepository.save(new Employe("Doe", "Jane", "T00002", LocalDate.of(2019, 1, 1), 1500d, null, 1.0));
+        employeRepository.save(new Employe("Doe", "Jim", null, null, null, 1, null));
+
+        //When
+        StatistiquesEffectif statistiques = statistiquesEffectifService.statistiques();
+
+        //Then
+        Assertions.assertEquals(1, statistiques.getHistogrammePerformances().size());
+        Assertions.assertEquals(1, statistiques.getHistogrammePerformances().get("T").size());
+        Assertions.assertEquals(1L, statistiques.getHistogrammePerformances().get("T").get(2));
+        Assertions.assertEquals(3L, statistiques.getParTypeMatricule().stream().mapToLong(groupe -> groupe.getNbEmployes()).sum());
+    }
+}